@@ -0,0 +1,73 @@
+package dev.apolonio.asteroids.benchmark;
+
+import dev.apolonio.asteroids.domain.Asteroid;
+import dev.apolonio.asteroids.domain.Ship;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for moving single entities and testing them for collisions.
+ * <p>
+ * Collision tests are run over a fixed set of asteroid pairs placed close to each other, so that most of them get past
+ * the bounding circle test and some actually touch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityBenchmark {
+
+    // Number of entity pairs cycled through by the collision benchmarks
+    private static final int PAIRS = 1024;
+
+    private final Asteroid[] FIRST = new Asteroid[PAIRS];
+    private final Asteroid[] SECOND = new Asteroid[PAIRS];
+    private Ship ship;
+    private Asteroid mover;
+    private int next;
+
+    @Setup
+    public void setup() {
+        SplittableRandom rand = new SplittableRandom(42);
+        for (int i = 0; i < PAIRS; i++) {
+            double x = rand.nextDouble(800);
+            double y = rand.nextDouble(600);
+            FIRST[i] = new Asteroid(x, y, 1 + rand.nextInt(Asteroid.MAX_LEVEL), rand);
+            SECOND[i] = new Asteroid(x + rand.nextDouble(-80, 80), y + rand.nextDouble(-80, 80), 1 + rand.nextInt(Asteroid.MAX_LEVEL), rand);
+        }
+
+        ship = new Ship(400, 300, 150);
+        mover = new Asteroid(400, 300, 2, rand);
+    }
+
+    @Benchmark
+    public Asteroid move() {
+        mover.move(1.0 / 60, 800, 600);
+        return mover;
+    }
+
+    @Benchmark
+    public boolean collide() {
+        int i = next++ & (PAIRS - 1);
+        return FIRST[i].collide(SECOND[i]);
+    }
+
+    @Benchmark
+    public boolean inSafeZone() {
+        int i = next++ & (PAIRS - 1);
+        return ship.inSafeZone(FIRST[i]);
+    }
+}
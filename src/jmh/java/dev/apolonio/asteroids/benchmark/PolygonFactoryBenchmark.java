@@ -0,0 +1,49 @@
+package dev.apolonio.asteroids.benchmark;
+
+import dev.apolonio.asteroids.PolygonFactory;
+import dev.apolonio.asteroids.domain.EntityShape;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for generating shapes, compared with taking an asteroid shape from the precomputed library.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolygonFactoryBenchmark {
+    private final PolygonFactory FACTORY = new PolygonFactory();
+    private final SplittableRandom RAND = new SplittableRandom(42);
+
+    @Param({"1", "2", "3"})
+    public int level;
+
+    @Benchmark
+    public double[] createPolygon() {
+        return FACTORY.createPolygon(level, RAND);
+    }
+
+    @Benchmark
+    public double[] createStar() {
+        return FACTORY.createStar(RAND);
+    }
+
+    @Benchmark
+    public EntityShape getAsteroidShape() {
+        return PolygonFactory.getAsteroidShape(level, RAND);
+    }
+}
@@ -0,0 +1,114 @@
+package dev.apolonio.asteroids.benchmark;
+
+import dev.apolonio.asteroids.GameWorld;
+import dev.apolonio.asteroids.domain.ArchetypeTable;
+import dev.apolonio.asteroids.domain.Asteroid;
+import dev.apolonio.asteroids.domain.EntityStore;
+import dev.apolonio.asteroids.domain.Projectile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for a whole simulation step of a {@link GameWorld}, and for splitting asteroids.
+ * <p>
+ * A step is everything the game loop does for one tick except drawing: input, firing, spawning, splitting, movement,
+ * the broad phase and all collision tests. The ship is made invincible so the world keeps running, and after every
+ * step the asteroid and projectile counts are brought back to the benchmark parameters, so each step sees about the
+ * same amount of work. Topping up only takes entities from the pools, so it adds very little to the measured time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldBenchmark {
+    private static final double WIDTH = 800;
+    private static final double HEIGHT = 600;
+    private static final double DT = 1.0 / 60;
+
+    @Param({"10", "100", "1000"})
+    public int asteroidCount;
+
+    @Param({"0", "3", "30"})
+    public int projectileCount;
+
+    private GameWorld world;
+    private SplittableRandom rand;
+    private Asteroid splitOrigin;
+
+    // Reused by the split benchmark, the same way the world reuses it
+    private final List<Asteroid> parts = new ArrayList<>();
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        rand = new SplittableRandom(42);
+        world = new GameWorld();
+        world.setInvincible(true);
+        world.start(WIDTH, HEIGHT, 42);
+        topUp();
+
+        splitOrigin = new Asteroid(WIDTH / 2, HEIGHT / 2, Asteroid.MAX_LEVEL, rand);
+    }
+
+    @Benchmark
+    public GameWorld tick() {
+        world.tick(DT, GameWorld.INPUT_FIRE | GameWorld.INPUT_LEFT);
+        topUp();
+        return world;
+    }
+
+    @Benchmark
+    public int splitAsteroid() {
+        parts.clear();
+        world.splitAsteroid(splitOrigin, parts);
+        parts.forEach(world.getStore()::releaseAsteroid);
+        return parts.size();
+    }
+
+    /**
+     * Adds or removes entities until the world has the number of asteroids and projectiles being benchmarked.
+     */
+    private void topUp() {
+        EntityStore store = world.getStore();
+        ArchetypeTable<Asteroid> asteroids = world.getAsteroids();
+        ArchetypeTable<Projectile> projectiles = world.getProjectiles();
+
+        while (asteroids.size() < asteroidCount) {
+            Asteroid asteroid = store.acquireAsteroid(rand.nextDouble(WIDTH), rand.nextDouble(HEIGHT), 1 + rand.nextInt(Asteroid.MAX_LEVEL));
+            asteroid.randomize(rand, rand);
+            asteroids.add(asteroid);
+        }
+        for (int i = asteroids.size() - 1; i >= asteroidCount; i--) {
+            asteroids.kill(asteroids.get(i));
+        }
+        asteroids.removeDead(store::releaseAsteroid);
+
+        while (projectiles.size() < projectileCount) {
+            Projectile projectile = store.acquireProjectile(rand.nextDouble(WIDTH), rand.nextDouble(HEIGHT));
+            double angle = rand.nextDouble(2 * Math.PI);
+            projectile.setRotation(Math.toDegrees(angle));
+            projectile.setVelocity(Math.cos(angle) * 180, Math.sin(angle) * 180);
+            projectiles.add(projectile);
+        }
+        for (int i = projectiles.size() - 1; i >= projectileCount; i--) {
+            projectiles.kill(projectiles.get(i));
+        }
+        projectiles.removeDead(store::releaseProjectile);
+    }
+}
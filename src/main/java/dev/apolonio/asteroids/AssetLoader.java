@@ -0,0 +1,121 @@
+package dev.apolonio.asteroids;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Loads game assets concurrently on a small pool of background threads, and tells when the ones needed to show the
+ * game are ready.
+ * <p>
+ * Each asset is loaded by a task given to {@link #load(String, Callable)}, which runs as soon as a thread is free.
+ * Assets the game can't start without are then passed to {@link #require(CompletableFuture)}, and
+ * {@link #whenRequiredLoaded()} completes once all of them are done. Everything else keeps loading in the background
+ * after that, so it should be submitted after the required assets to start later.
+ * <p>
+ * A failed asset still counts as done, since the game should start without it rather than hang on the splash screen.
+ * The failure is logged, and the asset's future completes exceptionally for whoever needs to handle it.
+ */
+public class AssetLoader {
+    private final ExecutorService EXECUTOR;
+    private final List<CompletableFuture<?>> REQUIRED = new ArrayList<>();
+
+    // Created by the first call to whenRequiredLoaded(), after which no more assets can be required
+    private CompletableFuture<Void> requiredLoaded;
+    private volatile DoubleConsumer progressListener = progress -> {};
+
+    /**
+     * Creates a loader with the specified number of threads. The threads are daemons, so they don't keep the game
+     * running if it's closed while assets are still loading.
+     *
+     * @param threads the number of assets that can load at once.
+     */
+    public AssetLoader(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        EXECUTOR = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "Asset loader " + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts loading an asset.
+     *
+     * @param name the name of the asset, for logging.
+     * @param task the code that loads the asset.
+     * @return     a future that completes with the loaded asset.
+     * @param <T>  the type of the asset.
+     */
+    public <T> CompletableFuture<T> load(String name, Callable<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                T asset = task.call();
+                System.out.printf("[DEBUG] Loaded %s in %.1f ms%n", name, (System.nanoTime() - start) / 1e6);
+                return asset;
+            } catch (Exception e) {
+                System.err.println("[DEBUG] Failed to load " + name + ": " + e.getMessage());
+                throw new CompletionException(e);
+            }
+        }, EXECUTOR);
+    }
+
+    /**
+     * Marks an asset as required to show the game. This must be called before {@link #whenRequiredLoaded()}.
+     *
+     * @param asset the future of the asset, or of anything else that must be done first.
+     * @throws IllegalStateException if {@link #whenRequiredLoaded()} was already called.
+     */
+    public synchronized void require(CompletableFuture<?> asset) {
+        if (requiredLoaded != null) {
+            throw new IllegalStateException("Assets must be required before waiting for them.");
+        }
+        REQUIRED.add(asset);
+    }
+
+    /**
+     * Sets what gets told the fraction of required assets that finished loading, every time one does. Nothing is
+     * reported until {@link #whenRequiredLoaded()} is called, since the fraction can't be known before every required
+     * asset is. The listener is called from the loading threads, or right away for assets that are already done.
+     *
+     * @param listener a function that takes the progress, between 0 and 1.
+     */
+    public void setOnProgress(DoubleConsumer listener) {
+        progressListener = listener;
+    }
+
+    /**
+     * Returns a future that completes once every required asset is loaded or failed to load, and starts reporting the
+     * progress. No more assets can be required after this is called.
+     *
+     * @return the future.
+     */
+    public synchronized CompletableFuture<Void> whenRequiredLoaded() {
+        if (requiredLoaded == null) {
+            int total = REQUIRED.size();
+            AtomicInteger done = new AtomicInteger();
+            CompletableFuture<?>[] settled = REQUIRED.stream()
+                    .map(asset -> asset.handle((result, error) -> {
+                        progressListener.accept(done.incrementAndGet() / (double) total);
+                        return null;
+                    }))
+                    .toArray(CompletableFuture[]::new);
+            requiredLoaded = CompletableFuture.allOf(settled);
+        }
+        return requiredLoaded;
+    }
+
+    /**
+     * Stops the loader threads once every asset already submitted is loaded.
+     */
+    public void shutdown() {
+        EXECUTOR.shutdown();
+    }
+}
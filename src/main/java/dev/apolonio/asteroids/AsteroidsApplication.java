@@ -1,5 +1,15 @@
 package dev.apolonio.asteroids;
 
+import dev.apolonio.asteroids.audio.AudioOutput;
+import dev.apolonio.asteroids.audio.LineOutput;
+import dev.apolonio.asteroids.audio.MediaSoundEffects;
+import dev.apolonio.asteroids.audio.PcmDecoder;
+import dev.apolonio.asteroids.audio.SilentOutput;
+import dev.apolonio.asteroids.audio.SoundEffects;
+import dev.apolonio.asteroids.audio.SoundMixer;
+import dev.apolonio.asteroids.capture.InstantReplay;
+import dev.apolonio.asteroids.capture.ScreenshotWriter;
+import dev.apolonio.asteroids.collision.SpatialGrid;
 import dev.apolonio.asteroids.domain.Asteroid;
 import dev.apolonio.asteroids.domain.Entity;
 import dev.apolonio.asteroids.domain.Menu;
@@ -8,28 +18,28 @@ import dev.apolonio.asteroids.domain.Projectile;
 import dev.apolonio.asteroids.domain.Score;
 import dev.apolonio.asteroids.domain.Ship;
 import dev.apolonio.asteroids.domain.Star;
+import dev.apolonio.asteroids.replay.Replay;
+import dev.apolonio.asteroids.replay.ReplayPlayer;
+import dev.apolonio.asteroids.replay.ReplayRecorder;
+import dev.apolonio.asteroids.replay.ReplayWriter;
+import dev.apolonio.asteroids.score.ScoreStore;
 import javafx.animation.Animation;
 import javafx.animation.AnimationTimer;
 import javafx.animation.FadeTransition;
-import javafx.animation.KeyFrame;
-import javafx.animation.KeyValue;
 import javafx.animation.PauseTransition;
-import javafx.animation.ScaleTransition;
-import javafx.animation.Timeline;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
-import javafx.beans.binding.DoubleBinding;
-import javafx.embed.swing.SwingFXUtils;
 import javafx.geometry.Insets;
-import javafx.geometry.Point2D;
 import javafx.geometry.Pos;
 import javafx.geometry.VPos;
+import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.scene.image.WritableImage;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyCodeCombination;
 import javafx.scene.input.KeyCombination;
@@ -39,34 +49,26 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
-import javafx.scene.media.Media;
-import javafx.scene.media.MediaPlayer;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Polygon;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import javafx.util.Duration;
 
-import javax.imageio.ImageIO;
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
-import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
-import static java.lang.Math.min;
-import static java.lang.Math.pow;
-import static java.lang.Math.random;
-import static java.lang.Math.sqrt;
-
 /**
  * The main game class.
  * <p>
@@ -75,8 +77,23 @@ import static java.lang.Math.sqrt;
  */
 public class AsteroidsApplication extends Application {
 
-    // Time before closing splash screen in ms
-    private static final int SPLASH_SCR_TIME = 1000;
+    // Height of the loading progress bar on the splash screen
+    private static final double SPLASH_PROGRESS_HEIGHT = 4;
+
+    // Number of assets that can load at once
+    private static final int ASSET_LOADER_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+    // How often the diagnostics overlay is refreshed, in nanoseconds
+    private static final long DIAGNOSTICS_REFRESH = 250_000_000;
+
+    // Number of simulation steps per second, can be changed with the asteroids.tickRate system property
+    private static final int TICK_RATE = Integer.getInteger("asteroids.tickRate", 60);
+
+    // Maximum simulation steps to run in a single frame, to catch up after a hitch
+    private static final int MAX_STEPS_PER_FRAME = 5;
+
+    // Time the ship takes to fade away after being hit, in seconds
+    private static final double DEATH_FADE_TIME = 1.0;
 
     // Initial width and height for game window
     private static final int INITIAL_WIDTH = 800;
@@ -85,9 +102,55 @@ public class AsteroidsApplication extends Application {
     // Folder for storing game data files
     private static final String GAME_DATA_FOLDER_PATH = System.getProperty("user.home") + "/Documents/Asteroids/";
 
-    // Score and SFX lists
-    private final List<Score> SCORE_LIST = new ArrayList<>();
-    private final List<MediaPlayer> GAME_SFX = new ArrayList<>();
+    // Whether games are recorded to replay files, set with the asteroids.record system property
+    private static final boolean RECORD_REPLAYS = Boolean.getBoolean("asteroids.record");
+
+    // Replay file played instead of live input when starting a game, set with the asteroids.replay system property
+    private static final String REPLAY_FILE = System.getProperty("asteroids.replay");
+
+    // How sound effects are played, set with the asteroids.audio system property: "mixer" (default), "media" for
+    // JavaFX media players, or "silent" to run the mixer without a sound device
+    private static final String AUDIO_MODE = System.getProperty("asteroids.audio", "mixer");
+
+    // Number of sounds the mixer plays at once, and the size of the sound device's buffer in frames (about 23 ms)
+    private static final int MIXER_VOICES = 16;
+    private static final int AUDIO_BUFFER_FRAMES = 1024;
+
+    // Background drawn behind the game, set with the asteroids.starfield system property: "twinkle" (default) for a few
+    // blinking stars, or "parallax" for thousands of stars in layers that drift as the ship moves
+    private static final boolean PARALLAX_STARFIELD = "parallax".equals(System.getProperty("asteroids.starfield"));
+
+    // Number of stars in the parallax starfield at the initial resolution, spread at the same density on other ones
+    private static final int PARALLAX_STARS = 3000;
+
+    // Most screenshots that can be waiting to be saved at once, each one holds a copy of the screen
+    private static final int MAX_PENDING_SCREENSHOTS = 4;
+
+    // Seconds of gameplay kept for instant replay clips, the most entities kept per frame, and the size of saved clip
+    // frames relative to the world
+    private static final int INSTANT_REPLAY_SECONDS = 10;
+    private static final int INSTANT_REPLAY_MAX_ENTITIES = 256;
+    private static final double INSTANT_REPLAY_SCALE = 0.5;
+
+    // Leaderboard, saved to the game data folder
+    private final ScoreStore SCORES = new ScoreStore(Path.of(GAME_DATA_FOLDER_PATH), ScoreStore.DEFAULT_CAPACITY);
+
+    // Saves screenshots in the background
+    private final ScreenshotWriter SCREENSHOTS = new ScreenshotWriter(Path.of(GAME_DATA_FOLDER_PATH, "Screenshots"),
+            MAX_PENDING_SCREENSHOTS);
+
+    // Saves recorded games in the background
+    private final ReplayWriter REPLAYS = new ReplayWriter(Path.of(GAME_DATA_FOLDER_PATH, "Replays"));
+
+    // Last few seconds of the game being played, saved as a clip with F9
+    private final InstantReplay INSTANT_REPLAY = new InstantReplay(INSTANT_REPLAY_SECONDS * TICK_RATE,
+            INSTANT_REPLAY_MAX_ENTITIES);
+
+    // Plays the sound effects, set by the asset loader once they're loaded
+    private volatile SoundEffects sfx = SoundEffects.NONE;
+
+    // Whether the sound mixer couldn't be used, and sound effects are played with media players instead
+    private boolean soundFallback = false;
 
     // Whether the game is paused
     private boolean gameIsPaused = false;
@@ -95,11 +158,15 @@ public class AsteroidsApplication extends Application {
     // Whether the ship is in its death animation
     private boolean shipIsDying = false;
 
-    // Whether the cheat code is active
-    private boolean shotgun = false;
+    // Whether the spread shot cheat was entered and is waiting for the next step to turn on
+    private boolean spreadShotPending = false;
+
+    // Records the current game, or null if it isn't being recorded
+    private ReplayRecorder replayRecorder;
+
+    // Plays a replay in the current game instead of live input, or null if the game is live
+    private ReplayPlayer replayPlayer;
 
-    // Base points awarded for kills
-    private final int SCR_MULT = 100;
 
     @Override
     public void start(Stage window) {
@@ -120,13 +187,13 @@ public class AsteroidsApplication extends Application {
 
            This reference table shall be updated in case any of these values change. */
 
+        // Used for measuring how long it takes to show the game
+        final long launchTime = System.nanoTime();
+
         // Set game window size
         window.setWidth(INITIAL_WIDTH);
         window.setHeight(INITIAL_HEIGHT);
 
-        // Resolution scale, used for sizing entities relative to the window.
-        final DoubleBinding RES_SCALE = window.heightProperty().divide(INITIAL_HEIGHT);
-
         // Create title screen layout
         final VBox LAYOUT_START = new VBox();
         LAYOUT_START.spacingProperty().bind(window.heightProperty().divide(10));
@@ -153,70 +220,33 @@ public class AsteroidsApplication extends Application {
 
         // Splash screen (image that shows up before game starts)
         ImageView splashImageView = new ImageView(new Image(Objects.requireNonNull(getClass().getResourceAsStream("/images/splash.png"))));
-        Pane splashRoot = new Pane(splashImageView);
-        Scene splashScene = new Scene(splashRoot, splashImageView.getImage().getWidth(), splashImageView.getImage().getHeight());
+        double splashWidth = splashImageView.getImage().getWidth();
+        double splashHeight = splashImageView.getImage().getHeight();
+
+        // Bar along the bottom of the splash screen, filled as the assets the game needs are loaded
+        Rectangle splashProgress = new Rectangle(0, splashHeight - SPLASH_PROGRESS_HEIGHT, 0, SPLASH_PROGRESS_HEIGHT);
+        splashProgress.setFill(Color.WHITE);
+
+        Pane splashRoot = new Pane(splashImageView, splashProgress);
+        Scene splashScene = new Scene(splashRoot, splashWidth, splashHeight);
 
         Stage splashStage = new Stage();
         splashStage.initStyle(StageStyle.UNDECORATED);
         splashStage.setScene(splashScene);
         splashStage.show();
 
-        // This thread loads some game data such as sounds, then closes the splash screen.
-        new Thread(() -> {
-            try {
-                // Load scores from file
-                try {
-                    loadScores(GAME_DATA_FOLDER_PATH);
-                } catch (ClassNotFoundException e) {
-                    System.err.println("[DEBUG] Failed to load scores: " + e.getMessage());
-                }
-
-                /* All sounds are stored in the sounds folder, named snd<n>.mp3, where <n> is some number.
-                   Currently, these are all the sounds:
-
-                   SND0--------Menu Selection
-                   SND1--------Menu Confirmation
-                   SND2--------Pause
-                   SND3--------Unpause
-                   SND4--------Ship Fire
-                   SND5--------Spread Shot Fire
-                   SND6--------Power Up
-                   SND7--------Asteroid Break
-                   SND8--------Ship Destroyed
-
-                   If more are added, they are to be included in this table for reference.*/
-                for (int i = 0; i < 9; i++) {
-                    MediaPlayer sfxPlayer = new MediaPlayer(new Media(Objects.requireNonNull(getClass()
-                            .getResource("/sounds/snd" + i + ".mp3")).toExternalForm()));
-                    GAME_SFX.add(sfxPlayer);
-                }
+        /* Assets are loaded on background threads while the rest of the game is set up below, and the window is shown
+           as soon as the ones it needs right away are ready: the scores and the menu sounds. The other sounds keep
+           loading in the background, and are only needed once a game starts. */
+        AssetLoader assets = new AssetLoader(ASSET_LOADER_THREADS);
+        assets.setOnProgress(progress -> Platform.runLater(() ->
+                splashProgress.setWidth(Math.max(splashProgress.getWidth(), progress * splashWidth))));
 
-                // FIXME: Balance the volume of these, why are they louder?
-                // Lower volume of fire sounds
-                GAME_SFX.get(4).setVolume(0.20);
-                GAME_SFX.get(5).setVolume(0.20);
-
-                // Preload menu confirm sound. This is done so there isn't a delay when you first open the main menu.
-                GAME_SFX.get(1).play();
-                GAME_SFX.get(1).stop();
-
-                // Wait some time
-                Thread.sleep(SPLASH_SCR_TIME);
-
-                // Close splash and show window when done
-                Platform.runLater(() -> {
-                    window.setTitle("Asteroids!");
-                    window.setResizable(false); // Resizing the window directly would cause problems, so it can only be resized in-game
-                    splashStage.close();
-                    // This is so the game doesn't exit fullscreen when pausing
-                    window.setFullScreenExitKeyCombination(KeyCombination.NO_MATCH);
-                    window.show();
-                });
-
-            } catch (InterruptedException e) {
-                System.err.println("[DEBUG] Splash thread interrupted: " + e.getMessage());
-            }
-        }).start();
+        assets.require(assets.load("scores", () -> {
+            SCORES.load();
+            return null;
+        }));
+        loadSoundEffects(assets);
 
         // Create main menu
         MenuOption startOption = new MenuOption("START GAME", window);
@@ -271,11 +301,12 @@ public class AsteroidsApplication extends Application {
         scoreContainerHbox.setAlignment(Pos.CENTER);
         scoreContainerHbox.getChildren().addAll(leaderboardLeftVbox, leaderboardRightVbox);
 
-        // Fill leaderboards
-        List<Text> scoreTexts = getHiScoreTexts(window);
+        // Fill leaderboards, the scores are set once they're loaded
+        final List<Text> SCORE_TEXTS = createHiScoreTexts(window);
+        updateHiScoreTexts(SCORE_TEXTS, 0);
 
         for (int i = 0; i < 10; i++) {
-            Text scoreText = scoreTexts.get(i);
+            Text scoreText = SCORE_TEXTS.get(i);
 
             if (i < 5) {
                 leaderboardLeftVbox.getChildren().add(scoreText);
@@ -292,36 +323,111 @@ public class AsteroidsApplication extends Application {
 
         BorderPane.setAlignment(txt_hiScoresTitle, Pos.CENTER);
         BorderPane.setAlignment(scoresBackOption.getTextElement(), Pos.CENTER);
+
         BorderPane.setAlignment(leaderboardLeftVbox, Pos.CENTER);
         BorderPane.setAlignment(leaderboardRightVbox, Pos.CENTER);
         LAYOUT_SCORES.setPadding(new Insets(20, 0, 20, 0));
 
+        // Close splash and show window once the required assets are loaded
+        assets.whenRequiredLoaded().thenRun(() -> Platform.runLater(() -> {
+            updateHiScoreTexts(SCORE_TEXTS, 0);
+
+            window.setTitle("Asteroids!");
+            splashStage.close();
+            // This is so the game doesn't exit fullscreen when pausing
+            window.setFullScreenExitKeyCombination(KeyCombination.NO_MATCH);
+            window.show();
+
+            // Log how long it took for the game to become playable, which is what the loading should keep short
+            new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    System.out.printf("[DEBUG] First frame %.1f ms after launch%n", (System.nanoTime() - launchTime) / 1e6);
+                    stop();
+                }
+            }.start();
+        }));
+        assets.shutdown();
+
         // Create main game layout, this is the space stage where asteroids pop up
         final Pane LAYOUT_SPACE = new Pane();
 
-        // Create player ship
-        Ship ship = new Ship(window.getWidth() / 2, window.getHeight() / 2, 1);
-        ship.getSafeZone().radiusProperty().bind(window.heightProperty().divide(4));
-
-        ship.getCharacter().scaleXProperty().bind(RES_SCALE);
-        ship.getCharacter().scaleYProperty().bind(RES_SCALE);
-        ship.getVelocityScale().bind(RES_SCALE);
-
-        LAYOUT_SPACE.getChildren().add(ship.getSafeZone());
-        LAYOUT_SPACE.getChildren().add(ship.getCharacter());
-
-        // Create entity lists (empty for now)
-        List<Asteroid> asteroids = new ArrayList<>();
-        List<Projectile> projectiles = new ArrayList<>();
+        /* All randomness comes from streams derived from one seed, which can be set with the asteroids.seed system
+           property to play the exact same game again */
+        GameRandom random = GameRandom.fromSystemProperty();
+        System.out.println("[DEBUG] Random seed: " + random.getSeed());
+
+        /* Entities only hold simulation state, the renderer draws them once per frame after the simulation step. They
+           can be drawn as one node per entity, or all onto a single canvas by setting the asteroids.renderer system
+           property to "canvas", which is faster with many entities on the screen. */
+        EntityRenderer entityRenderer = "canvas".equals(System.getProperty("asteroids.renderer"))
+                ? new CanvasRenderer(view.getStylesheets())
+                : new NodeRenderer();
+
+        /* Entities are spawned, despawned and destroyed on the renderer only through their lifecycle, which makes sure
+           everything drawn for them is disposed of and counts them, so leaks show up on the diagnostics overlay */
+        EntityLifecycle lifecycle = new EntityLifecycle(entityRenderer);
+
+        /* The game simulation itself, which knows nothing about the screen. It tells the rest of the game what happens
+           through a listener, set up further down once everything it updates has been created. */
+        GameWorld world = new GameWorld();
+        Ship ship = world.getShip();
+
+        // Times each phase of the game loop, only while the diagnostics overlay is showing
+        FrameProfiler profiler = new FrameProfiler();
+        world.setProfiler(profiler);
+
+        /* Everything drawn in world coordinates goes in the playfield, which scales the world to fit the window, so
+           the window can be resized at any time without touching the entities */
+        Playfield playfield = new Playfield(view);
+        playfield.setSize(playfield.getWidthFor(GameWorld.WORLD_HEIGHT), GameWorld.WORLD_HEIGHT);
+
+        // This circle follows the ship and shows its safe zone, it's only visible when toggled for debugging
+        Circle shipSafeZone = new Circle();
+        shipSafeZone.setVisible(false);
+        shipSafeZone.getStyleClass().add("ship-zone");
+
+        // Stars are only decoration, so they're kept here instead of in the world, and drawn on their own layer
         List<Star> stars = new ArrayList<>();
+        Starfield starfield = new Starfield(view.getStylesheets());
+
+        /* The parallax starfield replaces the blinking stars when it's turned on. Its layers are drawn in the
+           background, starting right away so they're usually ready before the first game starts. */
+        ParallaxStarfield parallaxStarfield = PARALLAX_STARFIELD ? new ParallaxStarfield(PARALLAX_STARS) : null;
+        long parallaxSeed = random.getCosmetic().nextLong();
+        if (parallaxStarfield != null) {
+            parallaxStarfield.resize(playfield.getWidth(), playfield.getHeight(), playfield.getScale(), parallaxSeed);
+        }
 
-        /* A separate layout is created for the asteroids so that spawning more of them won't mess with
-           the element order of the main layout. */
-        final Pane LAYOUT_ASTEROID = new Pane();
-        LAYOUT_SPACE.getChildren().add(LAYOUT_ASTEROID);
+        // Everything drawn into images is drawn again at the new resolution, so it stays sharp in any window size
+        playfield.setOnRescale(() -> {
+            entityRenderer.resize(playfield.getWidth(), playfield.getHeight(), playfield.getScale());
+            starfield.resize(playfield.getWidth(), playfield.getHeight(), playfield.getScale());
+            if (parallaxStarfield != null) {
+                parallaxStarfield.setPixelScale(playfield.getScale());
+            }
+        });
 
-        // Create list for star animations (empty for now)
-        List<ScaleTransition> starAnimations = new ArrayList<>();
+        // Debug overlay showing which grid cells have asteroids in them
+        Canvas gridOverlay = new Canvas();
+        gridOverlay.setVisible(false);
+        gridOverlay.setMouseTransparent(true);
+
+        playfield.add(shipSafeZone);
+        playfield.add(parallaxStarfield != null ? parallaxStarfield.getView() : starfield.getView());
+        playfield.add(entityRenderer.getView());
+        playfield.add(gridOverlay);
+        LAYOUT_SPACE.getChildren().add(playfield.getView());
+
+        // Diagnostics overlay with frame times and entity counts, toggled with F3
+        Text txt_diagnosticsText = new Text();
+        txt_diagnosticsText.styleProperty().bind(Bindings.concat("-fx-font-size: ", window.heightProperty().divide(45)));
+        txt_diagnosticsText.getStyleClass().add("diagnostics");
+        txt_diagnosticsText.translateXProperty().bind(window.widthProperty().divide(20));
+        txt_diagnosticsText.translateYProperty().bind(window.heightProperty().divide(5));
+        txt_diagnosticsText.setVisible(false);
+        txt_diagnosticsText.setMouseTransparent(true);
+        LAYOUT_SPACE.getChildren().add(txt_diagnosticsText);
 
         // Create user score text
         Text txt_currentScoreText = new Text("SCORE: 0");
@@ -330,7 +436,6 @@ public class AsteroidsApplication extends Application {
         txt_currentScoreText.translateXProperty().bind(window.widthProperty().divide(20));
         txt_currentScoreText.translateYProperty().bind(window.heightProperty().divide(9));
         LAYOUT_SPACE.getChildren().add(txt_currentScoreText);
-        AtomicInteger points = new AtomicInteger();
 
         // Create game over screen layout
         VBox LAYOUT_END_SCREEN = new VBox();
@@ -399,198 +504,193 @@ public class AsteroidsApplication extends Application {
            in ship controls. */
         InputHandler inputHandler = new InputHandler(window);
 
-        /* This timer handles all real time events on the main view, like movement of the asteroids and the ship. All code here
-           gets executed about 60 times a second. */
-        AnimationTimer mainTimer = new AnimationTimer() {
+        // Play sounds and update the screen when things happen in the world
+        world.setListener(new GameWorld.Listener() {
+            @Override
+            public void entitySpawned(Entity entity) {
+                lifecycle.spawn(entity);
+            }
 
-            // This variable is a cooldown for the ship's bullets.
-            private int cooldown = 0;
+            @Override
+            public void entityDespawned(Entity entity) {
+                lifecycle.despawn(entity);
+            }
 
             @Override
-            public void handle(long now) {
+            public void asteroidDestroyed(Asteroid asteroid) {
+                lifecycle.destroy(asteroid, 1.5, GameWorld.ASTEROID_BREAK_TIME * 1000);
 
-                // Ship movement
-                if (inputHandler.isHeld(KeyCode.LEFT, KeyCode.A)) {
-                    ship.turnLeft();
-                }
-                if (inputHandler.isHeld(KeyCode.RIGHT, KeyCode.D)) {
-                    ship.turnRight();
-                }
-                if (inputHandler.isHeld(KeyCode.UP, KeyCode.W)) {
-                    ship.accelerate();
-                }
+                sfx.play(SoundEffects.ASTEROID_BREAK);
+            }
+
+            @Override
+            public void projectileDestroyed(Projectile projectile) {
+                lifecycle.destroy(projectile, 1.375, 125);
+            }
 
-                // Projectile
-                if (inputHandler.isHeld(KeyCode.SPACE) && cooldown <= 0 && projectiles.size() < 3) {
+            @Override
+            public void shotFired(boolean spreadShot) {
+                sfx.play(spreadShot ? SoundEffects.SPREAD_FIRE : SoundEffects.FIRE);
+            }
 
-                    /* Fires 1 projectile, or 3 if spread shot is active.
-                       "i" represents the angle of the shot, using a loop here avoids code repetition for the
-                       additional projectiles, since they're the same thing with different starting angles. */
-                    for (int i = -15; i <= 15; i+=15) {
-                        if (shotgun) {
-                            GAME_SFX.get(5).seek(Duration.ZERO);
-                            GAME_SFX.get(5).play();
-                        } else {
-                            GAME_SFX.get(4).seek(Duration.ZERO);
-                            GAME_SFX.get(4).play();
-                        }
+            @Override
+            public void scoreChanged(int points) {
+                txt_currentScoreText.setText("SCORE: " + points);
+            }
 
-                        if (shotgun || i == 0) {
-                            Projectile proj = new Projectile(((int) ship.getCharacter().getTranslateX()), (int) ship.getCharacter().getTranslateY());
-                            proj.getCharacter().setRotate(ship.getCharacter().getRotate() + i);
-                            projectiles.add(proj);
+            @Override
+            public void shipDestroyed() {
+                // The ship fades away over the next steps
+                shipIsDying = true;
+                shipSafeZone.setVisible(false);
 
-                            proj.getCharacter().scaleXProperty().bind(RES_SCALE);
-                            proj.getCharacter().scaleYProperty().bind(RES_SCALE);
-                            proj.getVelocityScale().bind(RES_SCALE);
+                sfx.play(SoundEffects.SHIP_DESTROYED);
 
-                            proj.accelerate();
-                            proj.setMovement(proj.getMovement()
-                                    .normalize() // note that this nullifies the scaling from accelerate(), so the speed must again be scaled to match the window size
-                                    .multiply(3 * RES_SCALE.get())
-                                    .add(ship.getMovement()));
+                System.out.println("[DEBUG] Pool stats:" + System.lineSeparator() + world.getStore().getPoolStats());
+                System.out.println("[DEBUG] Entity lifecycle: " + lifecycle + ", strays " + lifecycle.countStrays(world));
+            }
+        });
 
-                            LAYOUT_SPACE.getChildren().add(proj.getCharacter());
-                        }
-                    }
+        // Converts frame timestamps into fixed simulation steps
+        FixedTimestep timestep = new FixedTimestep(TICK_RATE, MAX_STEPS_PER_FRAME);
 
-                    cooldown += 30;
-                }
+        /* This timer handles all real time events on the main view, like movement of the asteroids and the ship. It runs
+           once per frame, and advances the simulation in fixed steps, so the game runs at the same speed regardless of
+           the monitor refresh rate. */
+        AnimationTimer mainTimer = new AnimationTimer() {
 
-                // Decrease cooldown if not already at 0
-                if (cooldown > 0) {
-                    cooldown -= 1;
-                }
+            // Time since the ship was hit, in seconds
+            private double deathTime = 0;
 
-                // Spawn asteroids with a chance of 50% each second, affected by score
-                if (random() < 0.5 / 60 * min(1 + (double) points.get() / (100 * SCR_MULT), 2)) {
-                    // Asteroid level depends on player score
-                    int asteroidLvl = 1;
-                    if (points.get() > 150 * SCR_MULT) {
-                        asteroidLvl += (int) (0.5 + random() * 2);
-                    } else if (points.get() > 50 * SCR_MULT) {
-                        asteroidLvl += (int) (random() * 2.5);
-                    } else if (points.get() > 10 * SCR_MULT) {
-                        asteroidLvl += (int) (random() * 2);
-                    }
+            // Timestamp of the last diagnostics overlay refresh
+            private long lastDiagnostics = 0;
+
+            @Override
+            public void start() {
+                // The time spent stopped (i.e. paused) shouldn't be caught up with, or measured as a frame
+                timestep.reset();
+                profiler.resetInterval();
+                super.start();
+            }
 
-                    // Asteroid speed scales up with score, also increases with shotgun enabled
-                    Asteroid asteroid = makeAsteroid(
-                            random() * window.getWidth() / 3,
-                            random() * window.getWidth() / 2,
-                            asteroidLvl,
-                            RES_SCALE,
-                            // Speed increases with score, with a cap at 10x
-                            min(1 + (double) points.get() / (100 * SCR_MULT) * (shotgun ? 5 : 1), 10)
-                    );
-
-                    // Don't spawn if in safe zone
-                    if (!ship.inSafeZone(asteroid)) {
-                        asteroids.add(asteroid);
-                        LAYOUT_ASTEROID.getChildren().add(asteroid.getCharacter());
+            @Override
+            public void handle(long now) {
+                profiler.beginFrame(now);
+                int steps = timestep.advance(now);
+                for (int i = 0; i < steps; i++) {
+                    if (!tick(timestep.getTickLength())) {
+                        break;
                     }
                 }
 
-                // Ship and asteroid movement
-                ship.move(window.getWidth(), window.getHeight());
-                asteroids.forEach(a -> a.move(window.getWidth(), window.getHeight()));
-                projectiles.forEach(Projectile::move);
-
-                // Deal with collisions involving asteroids
-                Iterator<Asteroid> asteroidIt = asteroids.iterator();
-                while (asteroidIt.hasNext()) {
-                    Asteroid asteroid = asteroidIt.next();
-                    boolean removed = false; // Used to avoid multiple remove() calls
+                // Update the screen to match the simulation
+                if (shipIsDying) {
+                    entityRenderer.setOpacity(ship, Math.max(0, 1 - deathTime / DEATH_FADE_TIME));
+                }
+                if (parallaxStarfield != null) {
+                    parallaxStarfield.render(now, ship.getVelocityX(), ship.getVelocityY());
+                } else {
+                    starfield.render(now);
+                }
+                entityRenderer.render(now);
+                shipSafeZone.setCenterX(ship.getX());
+                shipSafeZone.setCenterY(ship.getY());
 
-                    // End game if ship hits an asteroid
-                    if (ship.collide(asteroid)) {
-                        shipIsDying = true;
+                // Draw occupied grid cells if the debug overlay is on
+                if (gridOverlay.isVisible()) {
+                    drawGridOverlay(gridOverlay, world.getAsteroidGrid());
+                }
+                profiler.lap(FrameProfiler.Phase.SCENE);
+                profiler.endFrame();
+
+                // Refreshing the overlay allocates, so it's done after the frame is measured, and only a few times a second
+                if (txt_diagnosticsText.isVisible() && now - lastDiagnostics >= DIAGNOSTICS_REFRESH) {
+                    lastDiagnostics = now;
+                    txt_diagnosticsText.setText(profiler.getSummary()
+                            + "\nASTEROIDS  " + world.getAsteroids().size()
+                            + "\nBULLETS    " + world.getProjectiles().size()
+                            + "\nNODES      " + countNodes(window.getScene().getRoot())
+                            + "\nLIVE       " + lifecycle.getLive() + " (" + lifecycle.getDying() + " dying)"
+                            + "\nCREATED    " + lifecycle.getCreated()
+                            + "\nDISPOSED   " + lifecycle.getDisposed()
+                            + "\nSTRAYS     " + lifecycle.countStrays(world));
+                }
+            }
 
+            /**
+             * Advances the simulation by one step.
+             *
+             * @param dt the length of the step, in seconds.
+             * @return   {@code false} if the timer was stopped during this step, {@code true} otherwise.
+             */
+            private boolean tick(double dt) {
+                // While the ship fades away the rest of the game is frozen
+                if (shipIsDying) {
+                    deathTime += dt;
+                    // Keep recording the fade, so clips of a death show the ship disappearing
+                    INSTANT_REPLAY.record(world, Math.max(0, 1 - deathTime / DEATH_FADE_TIME));
+                    profiler.lap(FrameProfiler.Phase.RECORDING);
+                    if (deathTime >= DEATH_FADE_TIME) {
                         stop();
-                        shotgun = false; // Disable cheat on death
-                        ship.getSafeZone().setVisible(false);
-
-                        // Play sound
-                        GAME_SFX.get(8).seek(Duration.ZERO);
-                        GAME_SFX.get(8).play();
-
-                        // Fade away animation for ship
-                        ship.getCharacter().scaleXProperty().unbind();
-                        ship.getCharacter().scaleYProperty().unbind();
-
-                        Timeline deathFade = getScaleAnimation(ship.getCharacter(), 1, 1000);
-                        deathFade.setOnFinished(event -> {
-                            txt_finalScoreText.setText("FINAL SCORE: " + points.get());
-                            window.getScene().setRoot(LAYOUT_INITIALS);
-                            shipIsDying = false;
-
-                            // Delay before "PRESS SPACE" text pops up
-                            PauseTransition tryAgainPause = new PauseTransition(Duration.millis(1000));
-                            tryAgainPause.setOnFinished(event2 -> txt_tryAgainText.setVisible(true));
-                            tryAgainPause.play();
-
-                            // Re-bind scale properties
-                            ship.getCharacter().scaleXProperty().bind(RES_SCALE);
-                            ship.getCharacter().scaleYProperty().bind(RES_SCALE);
-                        });
-                        deathFade.play();
-                        break;
+                        shipIsDying = false;
+                        deathTime = 0;
+
+                        // Nothing is drawn after the game ends, so everything drawn for it can go right away
+                        lifecycle.clear();
+
+                        txt_finalScoreText.setText("FINAL SCORE: " + world.getPoints());
+
+                        // Replays don't get a spot on the leaderboard, so they skip straight to the game over screen
+                        boolean replayed = replayPlayer != null;
+                        finishReplay();
+                        window.getScene().setRoot(replayed ? LAYOUT_END_SCREEN : LAYOUT_INITIALS);
+
+                        // Delay before "PRESS SPACE" text pops up
+                        PauseTransition tryAgainPause = new PauseTransition(Duration.millis(1000));
+                        tryAgainPause.setOnFinished(event2 -> txt_tryAgainText.setVisible(true));
+                        tryAgainPause.play();
+                        return false;
                     }
+                    return true;
+                }
 
-                    // Check for collisions with projectiles
-                    Iterator<Projectile> projIt = projectiles.iterator();
-                    while (projIt.hasNext()) {
-                        Projectile proj = projIt.next();
-                        if (proj.collide(asteroid)) {
-                            Polygon asteroidPolygon = asteroid.getCharacter();
-
-                            // Unbinding is necessary so that the scale can change for the animation
-                            asteroidPolygon.scaleXProperty().unbind();
-                            asteroidPolygon.scaleYProperty().unbind();
-
-                            Timeline timeline = getScaleAnimation(asteroidPolygon, 1.5, 333);
-                            timeline.setOnFinished(event -> {
-                                LAYOUT_SPACE.getChildren().remove(asteroidPolygon);
-                                // Sub asteroids spawn after the animation finishes
-                                List<Asteroid> newAsteroids = splitAsteroid(asteroid, RES_SCALE);
-                                newAsteroids.forEach(a -> {
-                                    asteroids.add(a);
-                                    LAYOUT_ASTEROID.getChildren().add(a.getCharacter());
-                                });
-                            });
-                            timeline.play();
-
-                            // This isn't on the animation, since otherwise you could still hit the asteroid until it finishes
-                            if (!removed) {
-                                asteroidIt.remove();
-                                removed = true;
-                            }
-
-                            // Play sound
-                            GAME_SFX.get(7).seek(Duration.ZERO);
-                            GAME_SFX.get(7).play();
-
-                            // Points given decrease with the asteroid level, since higher levels split into lower ones anyway
-                            txt_currentScoreText.setText("SCORE: " + points.addAndGet(
-                                    (int) (SCR_MULT / pow(2, asteroid.getLevel() - 1))
-                            ));
-
-                            proj.getCharacter().scaleXProperty().unbind();
-                            proj.getCharacter().scaleYProperty().unbind();
-                            Timeline projTl = getScaleAnimation(proj.getCharacter(), 1.375, 125);
-                            projTl.setOnFinished(event -> LAYOUT_SPACE.getChildren().remove(proj.getCharacter()));
-                            projTl.play();
-                            projIt.remove();
-                        // Remove off-screen projectiles
-                        } else if (proj.getCharacter().getTranslateX() < 0
-                                || proj.getCharacter().getTranslateX() > window.getWidth()
-                                || proj.getCharacter().getTranslateY() < 0
-                                || proj.getCharacter().getTranslateY() > window.getHeight()) {
-                            LAYOUT_SPACE.getChildren().remove(proj.getCharacter());
-                            projIt.remove();
-                        }
+                // Read held keys as input flags for the world, or take them from the replay being played
+                int input = 0;
+                if (replayPlayer != null) {
+                    input = replayPlayer.nextInput();
+                } else {
+                    if (inputHandler.isHeld(KeyCode.LEFT, KeyCode.A)) {
+                        input |= GameWorld.INPUT_LEFT;
+                    }
+                    if (inputHandler.isHeld(KeyCode.RIGHT, KeyCode.D)) {
+                        input |= GameWorld.INPUT_RIGHT;
+                    }
+                    if (inputHandler.isHeld(KeyCode.UP, KeyCode.W)) {
+                        input |= GameWorld.INPUT_THRUST;
                     }
+                    if (inputHandler.isHeld(KeyCode.SPACE)) {
+                        input |= GameWorld.INPUT_FIRE;
+                    }
+                    if (spreadShotPending) {
+                        input |= GameWorld.INPUT_SPREAD_SHOT;
+                        spreadShotPending = false;
+                    }
+                }
+
+                profiler.lap(FrameProfiler.Phase.INPUT);
+
+                world.tick(dt, input);
+                INSTANT_REPLAY.record(world, 1);
+
+                if (replayRecorder != null) {
+                    replayRecorder.record(input, world);
                 }
+                // Only the first step where the replay stops matching is worth reporting, the rest follow from it
+                if (replayPlayer != null && !replayPlayer.check(world) && replayPlayer.getDesyncTick() == replayPlayer.getTickCount()) {
+                    System.err.println("[DEBUG] Replay desynced at step " + replayPlayer.getDesyncTick());
+                }
+                profiler.lap(FrameProfiler.Phase.RECORDING);
+                return true;
             }
         };
 
@@ -618,7 +718,7 @@ public class AsteroidsApplication extends Application {
             boolean onMenuScreen = (windowRoot == LAYOUT_MAIN_MENU || windowRoot == LAYOUT_RESOLUTION_MENU);
 
             // Detects the sequence that toggles spread shot mode.
-            if (gameIsPaused && !shotgun) {
+            if (gameIsPaused && !world.isSpreadShot() && !spreadShotPending && replayPlayer == null) {
                 if (event.getCode() == correctSequence[correctPresses.get()]) {
                     correctPresses.getAndIncrement();
                 } else {
@@ -626,26 +726,23 @@ public class AsteroidsApplication extends Application {
                 }
 
                 if (correctPresses.get() == correctSequence.length) {
-                    GAME_SFX.get(6).seek(Duration.ZERO);
-                    GAME_SFX.get(6).play();
+                    sfx.play(SoundEffects.POWER_UP);
 
                     correctPresses.set(0);
-                    shotgun = true;
+                    spreadShotPending = true;
                 }
             }
 
             // Open main menu with space bar
             if (event.getCode() == KeyCode.SPACE && windowRoot == LAYOUT_START) {
-                GAME_SFX.get(1).seek(Duration.ZERO);
-                GAME_SFX.get(1).play();
+                sfx.play(SoundEffects.MENU_CONFIRM);
 
                 window.getScene().setRoot(LAYOUT_MAIN_MENU);
             }
 
             // Select next menu option
             if ((event.getCode() == KeyCode.DOWN || event.getCode() == KeyCode.S) && onMenuScreen) {
-                GAME_SFX.get(0).seek(Duration.ZERO);
-                GAME_SFX.get(0).play();
+                sfx.play(SoundEffects.MENU_SELECT);
 
                 if (windowRoot.equals(LAYOUT_MAIN_MENU)) {
                     MENU_MAIN.selectNext();
@@ -656,8 +753,7 @@ public class AsteroidsApplication extends Application {
 
             // Select previous menu option
             if ((event.getCode() == KeyCode.UP || event.getCode() == KeyCode.W) && onMenuScreen) {
-                GAME_SFX.get(0).seek(Duration.ZERO);
-                GAME_SFX.get(0).play();
+                sfx.play(SoundEffects.MENU_SELECT);
 
                 if (windowRoot.equals(LAYOUT_MAIN_MENU)) {
                     MENU_MAIN.selectPrevious();
@@ -668,8 +764,7 @@ public class AsteroidsApplication extends Application {
 
             // Confirm selection on main menu
             if (event.getCode() == KeyCode.SPACE && windowRoot == LAYOUT_MAIN_MENU) {
-                GAME_SFX.get(1).seek(Duration.ZERO);
-                GAME_SFX.get(1).play();
+                sfx.play(SoundEffects.MENU_CONFIRM);
 
                 switch (MENU_MAIN.getSelectedIndex()) {
                     // Start
@@ -680,57 +775,60 @@ public class AsteroidsApplication extends Application {
                         txt_initialsText.setText(spaceChars(initialsSB.toString()));
 
                         // Clear points
-                        points.set(0);
                         txt_currentScoreText.setText("SCORE: 0");
                         txt_finalScoreText.setText(("FINAL SCORE: 0"));
 
                         // Delete all entities
-                        LAYOUT_SPACE.getChildren().removeAll(stars.stream().map(Entity::getCharacter).toList());
-                        LAYOUT_SPACE.getChildren().removeAll(projectiles.stream().map(Entity::getCharacter).toList());
-                        LAYOUT_ASTEROID.getChildren().clear();
+                        lifecycle.clear();
+                        starfield.clear();
                         stars.clear();
-                        asteroids.clear();
-                        projectiles.clear();
-                        starAnimations.clear();
-
-                        // Redo position calculations for text and ship
-                        ship.getCharacter().setTranslateX(window.getWidth() / 2);
-                        ship.getCharacter().setTranslateY(window.getHeight() / 2);
-                        ship.getSafeZone().setCenterX(window.getWidth() / 2);
-                        ship.getSafeZone().setCenterY(window.getHeight() / 2);
-                        ship.getCharacter().setRotate(225);
-                        ship.setMovement(new Point2D(0, 0));
-                        ship.getCharacter().setOpacity(1.0);
+
+                        /* Start a new game, this places the ship and spawns the initial asteroids. The world is always
+                           the same height, only its width changes with the window's aspect ratio. */
+                        spreadShotPending = false;
+                        INSTANT_REPLAY.clear();
+                        replayPlayer = loadReplay();
+                        if (replayPlayer != null) {
+                            replayPlayer.start(world);
+                            replayRecorder = null;
+                        } else {
+                            world.start(playfield.getWidthFor(GameWorld.WORLD_HEIGHT), GameWorld.WORLD_HEIGHT,
+                                    random.nextGameSeed());
+                            replayRecorder = RECORD_REPLAYS
+                                    ? new ReplayRecorder(world, TICK_RATE, ReplayRecorder.DEFAULT_HASH_INTERVAL)
+                                    : null;
+                        }
+                        shipSafeZone.setRadius(ship.getSafeZoneRadius());
+                        shipSafeZone.setCenterX(ship.getX());
+                        shipSafeZone.setCenterY(ship.getY());
+
+                        // Redo size calculations for the overlays and renderer, replays keep the size they were recorded at
+                        double worldWidth = world.getWidth();
+                        double worldHeight = world.getHeight();
+                        playfield.setSize(worldWidth, worldHeight);
+                        gridOverlay.setWidth(worldWidth);
+                        gridOverlay.setHeight(worldHeight);
+                        gridOverlay.getGraphicsContext2D().clearRect(0, 0, worldWidth, worldHeight);
+                        entityRenderer.resize(worldWidth, worldHeight, playfield.getScale());
+                        starfield.resize(worldWidth, worldHeight, playfield.getScale());
+                        if (parallaxStarfield != null) {
+                            // Only draws new layers if their size on the screen changed
+                            parallaxStarfield.resize(worldWidth, worldHeight, playfield.getScale(), parallaxSeed);
+                            parallaxStarfield.reset();
+                        }
 
                         window.getScene().setRoot(LAYOUT_SPACE);
-                        Random rand = new Random();
                         // Spawn stars at random positions
-                        for (int i = 0; i < 49; i++) {
-                            Star star = new Star(rand.nextDouble(window.getWidth()), rand.nextDouble(window.getHeight()));
-                            star.getCharacter().setScaleX(RES_SCALE.get());
-                            star.getCharacter().setScaleY(RES_SCALE.get());
+                        for (int i = 0; parallaxStarfield == null && i < 49; i++) {
+                            Star star = new Star(random.getCosmetic().nextDouble(worldWidth),
+                                    random.getCosmetic().nextDouble(worldHeight), random.getCosmetic());
                             stars.add(star);
                         }
-                        // Spawn initial asteroids at random positions
-                        for (int i = 0; i < 5; i++) {
-                            Asteroid asteroid = makeAsteroid(
-                                    rand.nextDouble(window.getWidth() / 3),
-                                    rand.nextDouble(window.getHeight()),
-                                    2,
-                                    RES_SCALE,
-                                    1
-                            );
-                            asteroids.add(asteroid);
-                        }
-                        // Create star animations
-                        starAnimations.addAll(getStarAnimations(stars));
-
-                        // Add elements to screen
-                        asteroids.forEach(asteroid -> LAYOUT_ASTEROID.getChildren().add(0, asteroid.getCharacter()));
-                        stars.forEach(star -> LAYOUT_SPACE.getChildren().add(0, star.getCharacter()));
+                        // Add stars to screen
+                        starfield.setStars(stars, random.getCosmetic());
+                        starfield.render(System.nanoTime());
+                        entityRenderer.render(System.nanoTime());
 
-                        // Play star animations
-                        starAnimations.forEach(Animation::play);
                         // Start main timer
                         mainTimer.start();
                         break;
@@ -757,8 +855,7 @@ public class AsteroidsApplication extends Application {
 
             // Confirm selection on resolution change menu
             if (event.getCode() == KeyCode.SPACE && windowRoot == LAYOUT_RESOLUTION_MENU) {
-                GAME_SFX.get(1).seek(Duration.ZERO);
-                GAME_SFX.get(1).play();
+                sfx.play(SoundEffects.MENU_CONFIRM);
 
                 // Back option
                 if (MENU_RESOLUTION.getSelectedIndex() == MENU_RESOLUTION.getOptions().size() - 1) {
@@ -775,8 +872,7 @@ public class AsteroidsApplication extends Application {
 
             // Detect typed initials on insert name screen, up to 3 letters
             if ((event.getCode().isLetterKey() || event.getCode().isDigitKey()) && windowRoot == LAYOUT_INITIALS && initialsSB.toString().contains("_")) {
-                GAME_SFX.get(0).seek(Duration.ZERO);
-                GAME_SFX.get(0).play();
+                sfx.play(SoundEffects.MENU_SELECT);
 
                 for (int i = 0; i < initialsSB.length(); i++) {
                     if (initialsSB.charAt(i) == '_') {
@@ -790,8 +886,7 @@ public class AsteroidsApplication extends Application {
 
             // Remove characters with backspace
             if ((event.getCode() == KeyCode.BACK_SPACE || event.getCode() == KeyCode.DELETE) && windowRoot == LAYOUT_INITIALS && !"___".contentEquals(initialsSB)) {
-                GAME_SFX.get(0).seek(Duration.ZERO);
-                GAME_SFX.get(0).play();
+                sfx.play(SoundEffects.MENU_SELECT);
 
                 for (int i = initialsSB.length() - 1; i >= 0; i--) {
                     if (initialsSB.charAt(i) != '_') {
@@ -804,54 +899,35 @@ public class AsteroidsApplication extends Application {
 
             // Confirm initials
             if (event.getCode() == KeyCode.SPACE && windowRoot == LAYOUT_INITIALS && !"___".contentEquals(initialsSB)) {
-                GAME_SFX.get(0).seek(Duration.ZERO);
-                GAME_SFX.get(0).play();
+                sfx.play(SoundEffects.MENU_SELECT);
 
                 // Add text to high scores
-                Score score = new Score(initialsSB.toString().replaceAll("_", " "), points.get()); // Replace underscores with spaces
-                SCORE_LIST.add(score);
-                SCORE_LIST.sort(Score::compareTo);
-
-                // Remove the lowest score if there are more than 10
-                if (SCORE_LIST.size() > 10) {
-                    SCORE_LIST.remove(SCORE_LIST.size() - 1);
-                }
-
-                // Update leaderboards
-                leaderboardLeftVbox.getChildren().clear();
-                leaderboardRightVbox.getChildren().clear();
+                Score score = new Score(initialsSB.toString().replaceAll("_", " "), world.getPoints()); // Replace underscores with spaces
 
-                List<Text> scoreTextsList = getHiScoreTexts(window);
+                // The score is saved in the background, the leaderboard has it right away
+                int rank = SCORES.submit(score);
 
-                for (int i = 0; i < 10; i++) {
-                    if (i < 5) {
-                        leaderboardLeftVbox.getChildren().add(scoreTextsList.get(i));
-                    } else {
-                        leaderboardRightVbox.getChildren().add(scoreTextsList.get(i));
-                    }
+                // Only the rows from the new score's rank down change, and only if it made it to the leaderboard
+                if (rank >= 0) {
+                    updateHiScoreTexts(SCORE_TEXTS, rank);
                 }
 
-                // Save scores to file
-                saveScores(GAME_DATA_FOLDER_PATH);
-
                 // Change to game over screen
                 window.getScene().setRoot(LAYOUT_END_SCREEN);
             }
 
             // Leave leaderboard
             if (event.getCode() == KeyCode.SPACE && windowRoot == LAYOUT_SCORES) {
-                GAME_SFX.get(1).seek(Duration.ZERO);
-                GAME_SFX.get(1).play();
+                sfx.play(SoundEffects.MENU_CONFIRM);
 
                 window.getScene().setRoot(LAYOUT_MAIN_MENU);
                 MENU_MAIN.selectFirst();
             }
 
-            /* Toggle fullscreen with ALT + ENTER. Only allowed on menu screens except for the resolution change menu.
-               On the main layout the stars are distributed based on the resolution, so changing it mid-game would
-               result in poorly distributed stars, and the resolution menu is disabled on fullscreen */
+            /* Toggle fullscreen with ALT + ENTER. Allowed everywhere except for the resolution change menu, which is
+               disabled on fullscreen. The playfield scales to fit the window, so this also works mid-game. */
             KeyCombination fsKeyCombo = new KeyCodeCombination(KeyCode.ENTER, KeyCombination.ALT_DOWN);
-            if (fsKeyCombo.match(event) && windowRoot != LAYOUT_SPACE && windowRoot != LAYOUT_RESOLUTION_MENU) {
+            if (fsKeyCombo.match(event) && windowRoot != LAYOUT_RESOLUTION_MENU) {
                 // Disable menu on fullscreen, re-enable if exiting
                 resChangeOption.setEnabled(window.isFullScreen());
 
@@ -867,23 +943,30 @@ public class AsteroidsApplication extends Application {
             /* Save a screenshot of the current view with P key.
                Doesn't work on the insert initials screen since the P key is used to type a letter there. */
             if (event.getCode() == KeyCode.P && windowRoot != LAYOUT_INITIALS) {
-                String filePath = GAME_DATA_FOLDER_PATH + "/Screenshots";
-                saveScr(window.getScene(), filePath, (int) window.getWidth(), (int) window.getHeight());
+                SCREENSHOTS.capture(window.getScene(), (int) window.getWidth(), (int) window.getHeight());
+            }
+
+            // Save the last few seconds of the game as a clip with F9, this also works after the game is over
+            if (event.getCode() == KeyCode.F9 && INSTANT_REPLAY.getFrameCount() > 0) {
+                String clipName = "clip_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+                if (INSTANT_REPLAY.export(Path.of(GAME_DATA_FOLDER_PATH, "Clips", clipName), INSTANT_REPLAY_SCALE)) {
+                    sfx.play(SoundEffects.MENU_SELECT);
+                } else {
+                    System.err.println("[DEBUG] Clip skipped, the last one is still being saved");
+                }
             }
 
             // Pause game with ESC key, only allowed on main view since it doesn't work properly on other scenes
             if ((event.getCode() == KeyCode.ESCAPE || event.getCode() == KeyCode.PAUSE) && windowRoot == LAYOUT_SPACE && !shipIsDying) {
                 if (gameIsPaused) {
-                    GAME_SFX.get(3).seek(Duration.ZERO);
-                    GAME_SFX.get(3).play();
+                    sfx.play(SoundEffects.UNPAUSE);
 
                     pauseFade.stop();
                     txt_pauseText.setVisible(false);
                     mainTimer.start();
                     gameIsPaused = false;
                 } else {
-                    GAME_SFX.get(2).seek(Duration.ZERO);
-                    GAME_SFX.get(2).play();
+                    sfx.play(SoundEffects.PAUSE);
 
                     pauseFade.play();
                     txt_pauseText.setVisible(true);
@@ -892,22 +975,41 @@ public class AsteroidsApplication extends Application {
                 }
             }
 
+            // Toggle the diagnostics overlay with F3, this works while playing so stutters can be caught as they happen
+            if (event.getCode() == KeyCode.F3 && windowRoot == LAYOUT_SPACE) {
+                sfx.play(SoundEffects.MENU_SELECT);
+
+                txt_diagnosticsText.setVisible(!txt_diagnosticsText.isVisible());
+                txt_diagnosticsText.setText("");
+                profiler.setEnabled(txt_diagnosticsText.isVisible());
+            }
+
             // Toggle safe zone visibility with F2, for debugging
             KeyCombination nlKeyCombo = new KeyCodeCombination(KeyCode.N,
                     KeyCombination.CONTROL_DOWN,
                     KeyCombination.SHIFT_DOWN,
                     KeyCombination.ALT_DOWN);
             if (nlKeyCombo.match(event) && gameIsPaused) {
-                GAME_SFX.get(0).seek(Duration.ZERO);
-                GAME_SFX.get(0).play();
+                sfx.play(SoundEffects.MENU_SELECT);
+
+                shipSafeZone.setVisible(!shipSafeZone.isVisible());
+            }
+
+            // Toggle collision grid overlay, also for debugging
+            KeyCombination gridKeyCombo = new KeyCodeCombination(KeyCode.G,
+                    KeyCombination.CONTROL_DOWN,
+                    KeyCombination.SHIFT_DOWN,
+                    KeyCombination.ALT_DOWN);
+            if (gridKeyCombo.match(event) && gameIsPaused) {
+                sfx.play(SoundEffects.MENU_SELECT);
 
-                ship.getSafeZone().setVisible(!ship.getSafeZone().isVisible());
+                gridOverlay.setVisible(!gridOverlay.isVisible());
+                drawGridOverlay(gridOverlay, world.getAsteroidGrid());
             }
 
             // Leave game over screen and restart game
             if (event.getCode() == KeyCode.SPACE && windowRoot == LAYOUT_END_SCREEN && txt_tryAgainText.isVisible()) {
-                GAME_SFX.get(1).seek(Duration.ZERO);
-                GAME_SFX.get(1).play();
+                sfx.play(SoundEffects.MENU_CONFIRM);
 
                 // Reset selected menu option
                 MENU_MAIN.selectFirst();
@@ -918,148 +1020,179 @@ public class AsteroidsApplication extends Application {
         });
     }
 
+    @Override
+    public void stop() {
+        // Stop the mixer thread and release the sound device
+        sfx.close();
+
+        // Finish saving scores, screenshots, replays and clips
+        SCORES.close();
+        SCREENSHOTS.close();
+        REPLAYS.close();
+        INSTANT_REPLAY.close();
+    }
+
     /**
-     * Adds spaces in between the characters of the passed {@code String}, then removes trailing and leading spaces.
+     * Starts loading the sound effects, decoding them for the {@link SoundMixer} unless {@code asteroids.audio} says
+     * otherwise. The menu sounds are required before the window shows, the rest load in the background.
+     * <p>
+     * All sounds are stored in the sounds folder, named snd&lt;n&gt;.mp3, where &lt;n&gt; is some number. Currently,
+     * these are all the sounds:
+     * <pre>
+     * SND0--------Menu Selection
+     * SND1--------Menu Confirmation
+     * SND2--------Pause
+     * SND3--------Unpause
+     * SND4--------Ship Fire
+     * SND5--------Spread Shot Fire
+     * SND6--------Power Up
+     * SND7--------Asteroid Break
+     * SND8--------Ship Destroyed
+     * </pre>
+     * If more are added, they are to be included in this table for reference, and in {@link SoundEffects}.
+     * <p>
+     * If the sounds can't be decoded or there's no sound device, this falls back to {@link MediaSoundEffects}.
      *
-     * @param str a String to format.
-     * @return    the passed string with spaces added between characters, plus trailing and leading spaces removed.
+     * @param assets the {@link AssetLoader} to load the sounds with.
      */
-    private static String spaceChars(String str) {
-        return str.replace("", " ").strip();
+    private void loadSoundEffects(AssetLoader assets) {
+        List<URL> files = new ArrayList<>();
+        for (int i = 0; i < SoundEffects.COUNT; i++) {
+            files.add(Objects.requireNonNull(getClass().getResource("/sounds/snd" + i + ".mp3")));
+        }
+
+        if (AUDIO_MODE.equals("media")) {
+            assets.require(assets.load("media players", () -> sfx = new MediaSoundEffects(files)));
+            return;
+        }
+
+        // The sound device is opened while the sounds are decoded, each sound is given to the mixer once both are done
+        CompletableFuture<SoundMixer> mixer = assets.load("sound mixer", () -> {
+            AudioOutput output = AUDIO_MODE.equals("silent")
+                    ? new SilentOutput(SoundMixer.FORMAT)
+                    : new LineOutput(SoundMixer.FORMAT, AUDIO_BUFFER_FRAMES);
+            SoundMixer soundMixer = new SoundMixer(SoundEffects.COUNT, output, MIXER_VOICES);
+            useSoundEffects(soundMixer);
+            return soundMixer;
+        });
+
+        float sampleRate = SoundMixer.FORMAT.getSampleRate();
+        for (int i = 0; i < SoundEffects.COUNT; i++) {
+            int sound = i;
+            CompletableFuture<Void> loaded = assets.load("snd" + sound, () -> {
+                float[] samples = PcmDecoder.decode(files.get(sound), sampleRate);
+                // Balance the volume of every sound, the fire sounds are much louder than the rest otherwise
+                PcmDecoder.normalize(samples, sampleRate, 0.12f, 0.9f);
+                return samples;
+            }).thenAcceptBoth(mixer, (samples, soundMixer) -> soundMixer.setSound(sound, samples)).exceptionally(e -> {
+                fallBackToMediaPlayers(files);
+                return null;
+            });
+
+            // The menu sounds come first, so they're also the first to load
+            if (sound == SoundEffects.MENU_SELECT || sound == SoundEffects.MENU_CONFIRM) {
+                assets.require(loaded);
+            }
+        }
     }
 
     /**
-     * Returns a {@link List} of blinking animations for {@link Star} elements.
+     * Starts playing sound effects with the specified {@link SoundEffects}, unless the game already fell back to media
+     * players, in which case they're closed instead.
      *
-     * @param stars a List of stars.
-     * @return      a List with an animation for each of the provided stars.
+     * @param effects the sound effects to use.
      */
-    private static List<ScaleTransition> getStarAnimations(List<Star> stars) {
-        // Create list for animations
-        List<ScaleTransition> animations = new ArrayList<>();
-
-        // Create animations
-        for (Star s : stars) {
-            ScaleTransition starAnim = new ScaleTransition(Duration.millis(random() * 200), s.getCharacter());
-            starAnim.setFromX(s.getCharacter().getScaleX());
-            starAnim.setFromY(s.getCharacter().getScaleY());
-            starAnim.setToX(s.getCharacter().getScaleX() * 0.9);
-            starAnim.setToY(s.getCharacter().getScaleY() * 0.9);
-            starAnim.setAutoReverse(true);
-            starAnim.setCycleCount(Animation.INDEFINITE);
-            animations.add(starAnim);
+    private synchronized void useSoundEffects(SoundEffects effects) {
+        if (soundFallback) {
+            effects.close();
+        } else {
+            sfx = effects;
         }
-
-        return animations;
     }
 
     /**
-     * Creates an animation where a {@link Polygon} changes size then disappears.
+     * Replaces the sound mixer with {@link MediaSoundEffects}, the first time it's called.
      *
-     * @param polygon  the Polygon used in the animation.
-     * @param factor   the scale factor used in the animation.
-     * @param duration how long the duration will last, in milliseconds.
-     * @return         a {@link Timeline} with the animation.
+     * @param files the location of each sound file.
      */
-    private static Timeline getScaleAnimation(Polygon polygon, double factor, double duration) {
-        KeyValue scaleX = new KeyValue(polygon.scaleXProperty(), polygon.getScaleX() * factor);
-        KeyValue scaleY = new KeyValue(polygon.scaleYProperty(), polygon.getScaleY() * factor);
-        KeyValue opacity = new KeyValue(polygon.opacityProperty(), 0);
-
-        KeyFrame frame = new KeyFrame(Duration.millis(duration), scaleX, scaleY, opacity);
+    private synchronized void fallBackToMediaPlayers(List<URL> files) {
+        if (!soundFallback) {
+            System.err.println("[DEBUG] Sound mixer unavailable, using media players");
+            soundFallback = true;
+            sfx.close();
+            sfx = new MediaSoundEffects(files);
+        }
+    }
 
-        return new Timeline(frame);
+    /**
+     * Adds spaces in between the characters of the passed {@code String}, then removes trailing and leading spaces.
+     *
+     * @param str a String to format.
+     * @return    the passed string with spaces added between characters, plus trailing and leading spaces removed.
+     */
+    private static String spaceChars(String str) {
+        return str.replace("", " ").strip();
     }
 
     /**
-     * Creates an {@link Asteroid} of the specified level at the given X and Y coordinates.
-     * <p>
-     * Generated asteroids will have their X and Y scales bounded to the specified {@link DoubleBinding}. This allows
-     * for responsive design, since whenever the scale changes, so will the asteroid's size.
+     * Counts a {@link Node} and all of its descendants in the scene graph.
      *
-     * @param x       x coordinate for the Asteroid.
-     * @param y       y coordinate for the Asteroid.
-     * @param level   the Asteroid level.
-     * @param scale   a DoubleBinding value, used for scaling the asteroid with the window.
-     * @param velMult multiplier for the asteroid velocity.
-     * @return        the created Asteroid;
+     * @param node the Node to start counting from.
+     * @return     the number of Nodes in the subtree.
      */
-    private Asteroid makeAsteroid(double x, double y, int level, DoubleBinding scale, double velMult) {
-        Asteroid asteroid = new Asteroid(x, y, level);
-        asteroid.getCharacter().scaleXProperty().bind(scale);
-        asteroid.getCharacter().scaleYProperty().bind(scale);
-        asteroid.setMovement(asteroid.getMovement().multiply(velMult / sqrt(level)));
-        return asteroid;
+    private static int countNodes(Node node) {
+        int count = 1;
+        if (node instanceof Parent parent) {
+            List<Node> children = parent.getChildrenUnmodifiable();
+            for (int i = 0; i < children.size(); i++) {
+                count += countNodes(children.get(i));
+            }
+        }
+        return count;
     }
 
     /**
-     * Returns a list containing the resulting {@link Asteroid Asteroids} after splitting one main Asteroid.
-     * <p>
-     * L1 asteroids don't split, so in that case an empty list is returned. For any other level, the logic for generating
-     * asteroids is as follows: for an asteroid of level {@code n}, {@code n} asteroids will be generated. Of those,
-     * half will be L1 asteroids. The other half may also consist of L1s, however each asteroid will have a chance of
-     * {@code 1/n} of being an L(n-1) instead.
-     * <p>
-     * The asteroids will move in a random direction, and be slightly offset from their parent's original position.
+     * Draws the occupied cells of a {@link SpatialGrid} onto a {@link Canvas}, replacing its previous contents.
      *
-     * @param origin the Asteroid to split.
-     * @param scale  a {@link DoubleBinding} value, used for scaling asteroids with the window.
-     * @return       a list containing zero or more Asteroids.
+     * @param canvas the Canvas to draw on.
+     * @param grid   the grid to draw.
      */
-    private List<Asteroid> splitAsteroid(Asteroid origin, DoubleBinding scale) {
-        List<Asteroid> newAsteroids = new ArrayList<>();
-        if (origin.getLevel() > 1) {
-            for (int i = 0; i < origin.getLevel(); i++) {
-                int asteroidLvl = (i < origin.getLevel() / 2 && random() < (double) 1 / origin.getLevel())
-                        ? origin.getLevel() - 1 : 1;
-                Asteroid asteroid = makeAsteroid(
-                        origin.getCharacter().getTranslateX() + random() * 30 - 15,
-                        origin.getCharacter().getTranslateY() + random() * 30 - 15,
-                        asteroidLvl,
-                        scale,
-                        1
-                );
-                newAsteroids.add(asteroid);
+    private static void drawGridOverlay(Canvas canvas, SpatialGrid<?> grid) {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        gc.setFill(Color.LIME.deriveColor(0, 1, 1, 0.25));
+        gc.setStroke(Color.LIME);
+
+        double size = grid.getCellSize();
+        for (int row = 0; row < grid.getRows(); row++) {
+            for (int col = 0; col < grid.getColumns(); col++) {
+                if (grid.isOccupied(col, row)) {
+                    gc.fillRect(col * size, row * size, size, size);
+                    gc.strokeRect(col * size, row * size, size, size);
+                }
             }
         }
-        return newAsteroids;
     }
 
     /**
-     * Returns a list of 10 TextElements, each containing a score value formatted as {@code NUL: 00000} where {@code NUL}
-     * is the player's initials and {@code 00000} is the number of points.
+     * Returns a list of 10 TextElements, one for each row of the leaderboard. They're created without a score, use
+     * {@link #updateHiScoreTexts(List, int)} to fill them in.
      * <p>
-     * In the event there are not 10 scores, the remaining spaces
-     * will be filled with dashed lines {@code ---: -----}.
+     * The same Texts are kept for the whole session and updated in place, so their font size bindings are only
+     * created once.
      *
      * @param stage    a {@link Stage}, used for calculating the font size relative to the screen.
      * @return         a List containing 10 TextElements.
      */
-    private List<Text> getHiScoreTexts(Stage stage) {
-        // Sorts the list of user scores
-        SCORE_LIST.sort(Score::compareTo);
-
+    private List<Text> createHiScoreTexts(Stage stage) {
         // Create list to store score texts
         List<Text> texts = new ArrayList<>();
 
-        // Format scores to be added to leaderboard
         for (int i = 0; i < 10; i++) {
-
-            // Format points to 2 places, padded with 0s
-            Text txt_scoreText = new Text(String.format("%02d", i + 1) + ". ");
+            Text txt_scoreText = new Text();
             txt_scoreText.styleProperty().bind(Bindings.concat("-fx-font-size: ", stage.heightProperty().divide(14)));
             txt_scoreText.getStyleClass().add("score");
 
-            if (i < SCORE_LIST.size()) {
-                // If score is in the list, format points to 5 places, padded with 0s
-                Score s = SCORE_LIST.get(i);
-                // The mod 100000 guarantees the number will not have more than 5 digits
-                txt_scoreText.setText(txt_scoreText.getText() + s.playerName() + ": " + String.format("%05d", s.playerPoints() % 100000));
-            } else {
-                // If score is not in the list, set player name and points to dashes
-                txt_scoreText.setText(txt_scoreText.getText() + "---: -----");
-            }
-
             // Center score text
             txt_scoreText.setTextAlignment(TextAlignment.CENTER);
 
@@ -1071,129 +1204,81 @@ public class AsteroidsApplication extends Application {
     }
 
     /**
-     * Attempts to save a screenshot of the scene at the provided folder.
+     * Sets the leaderboard rows from the specified rank down to the current scores, each formatted as
+     * {@code NUL: 00000} where {@code NUL} is the player's initials and {@code 00000} is the number of points.
+     * <p>
+     * A new score only moves the ones below it, so only the rows from its rank down need updating. Rows without a
+     * score are filled with dashed lines {@code ---: -----}.
      *
-     * @param scene      the scene to save as a screenshot.
-     * @param folderPath the path to the folder where the screenshot will be saved.
-     * @param scrWidth   the horizontal screen resolution in pixels
-     * @param scrHeight  the vertical screen resolution in pixels
+     * @param texts    the TextElements of the leaderboard rows, created by {@link #createHiScoreTexts(Stage)}.
+     * @param fromRank the first row to update, counting from 0.
      */
-    private void saveScr(Scene scene, String folderPath, int scrWidth, int scrHeight) {
-        // Save snapshot of scene as a WritableImage
-        WritableImage image = new WritableImage(scrWidth, scrHeight);
-        scene.snapshot(image);
-
-        // Initial number for image file name
-        int imageNum = 0;
-
-        // Folder to save screenshots at
-        File scrDir = new File(folderPath);
-        File imgFile;
-
-        // Keep checking if "screenshot-n.png" exists, until some number doesn't.
-        while (true) {
-            File f = new File(scrDir, "screenshot_" + imageNum + ".png");
-            if (f.isFile()) {
-                imageNum++;
-                continue;
-            }
-            imgFile = f;
-            break;
-        }
+    private void updateHiScoreTexts(List<Text> texts, int fromRank) {
+        // The scores are already sorted
+        List<Score> scores = SCORES.getScores();
 
-        try {
-            // Create screenshots folder if it doesn't exist
-            if (!scrDir.isDirectory()) {
-                scrDir.mkdirs();
-            }
+        for (int i = fromRank; i < texts.size(); i++) {
+            // Format points to 2 places, padded with 0s
+            String rank = String.format("%02d", i + 1) + ". ";
 
-            ImageIO.write(SwingFXUtils.fromFXImage(image, null), "png", imgFile);
-            System.out.println("[DEBUG] Screenshot saved: " + imgFile.getAbsolutePath());
-        } catch (IOException e) {
-            System.err.println("[DEBUG] Failed to save screenshot: " + e.getMessage());
+            if (i < scores.size()) {
+                // If score is in the list, format points to 5 places, padded with 0s
+                Score s = scores.get(i);
+                // The mod 100000 guarantees the number will not have more than 5 digits
+                texts.get(i).setText(rank + s.playerName() + ": " + String.format("%05d", s.playerPoints() % 100000));
+            } else {
+                // If score is not in the list, set player name and points to dashes
+                texts.get(i).setText(rank + "---: -----");
+            }
         }
     }
 
     /**
-     * Attempts to save the leaderboard to a file at the specified folder.
-     * <p>
-     * The scores will be saved to a file with the name {@code scores.csv}.
+     * Loads the replay set with the {@code asteroids.replay} system property, if there is one. Replays keep the world
+     * size they were recorded with, and are scaled to fit the window like any other game.
      *
-     * @param folderPath the path to the folder where the score file will be saved.
+     * @return a player for the replay, or {@code null} if no replay is set or it can't be played.
      */
-    public void saveScores(String folderPath) {
-        // Create file to store score values
-        String filePath = folderPath + "scores.csv";
-        File scoreFile = new File(filePath);
-
-        File gameDataDir = new File(folderPath);
-
-        // Create game data folder if it doesn't exist
-        if (!gameDataDir.isDirectory()) {
-            gameDataDir.mkdir();
+    private ReplayPlayer loadReplay() {
+        if (REPLAY_FILE == null) {
+            return null;
         }
 
-        // Create if doesn't exist
         try {
-            if (!scoreFile.isFile()) {
-                System.out.println("[DEBUG] File doesn't exist, creating");
-                scoreFile.createNewFile();
-            }
-        } catch (IOException e) {
-            System.err.println("[DEBUG] Failed to create file: " + e.getMessage());
-        }
-
-        // Write list to file
-        try (FileWriter writer = new FileWriter(scoreFile)) {
-            StringBuilder scoreSB = new StringBuilder();
-
-            for (Score s : SCORE_LIST) {
-                scoreSB.append(s.toString()).append(",");
+            Replay replay = Replay.read(Path.of(REPLAY_FILE));
+            if (replay.getTickRate() != TICK_RATE) {
+                System.err.println("[DEBUG] Replay was recorded at " + replay.getTickRate() + " ticks per second, run with -Dasteroids.tickRate=" + replay.getTickRate() + " to play it");
+                return null;
             }
-
-            writer.write(scoreSB.toString());
-            System.out.println("[DEBUG] Saved scores: " + scoreFile.getAbsolutePath());
-        } catch (IOException e) {
-            System.err.println("[DEBUG] Failed to save scores: " + e.getMessage());
+            ReplayPlayer player = new ReplayPlayer(replay);
+            System.out.println("[DEBUG] Playing replay: " + REPLAY_FILE + " (" + replay.getTickCount() + " steps)");
+            return player;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("[DEBUG] Failed to load replay: " + e.getMessage());
+            return null;
         }
     }
 
     /**
-     * Attempts to load the leaderboard from a file at the specified folder path.
-     * <p>
-     * The scores are expected to be saved to a file with the name {@code scores.csv}.
-     *
-     * @param folderPath path to the folder where the score file is located.
-     * @throws ClassNotFoundException if the Scores class doesn't exist.
+     * Ends the recording or replay of the game that just ended, saving the recording in the background or reporting
+     * whether the replay matched.
      */
-    public void loadScores(String folderPath) throws ClassNotFoundException {
-
-        String filePath = folderPath + "scores.csv";
-        File scoreFile = new File(filePath);
-
-        if (scoreFile.isFile()) {
-            /* A BufferedReader is used for its ability to read whole lines at a time, and because it throws an IOException
-               instead of hiding file reading errors like the Scanner. */
-            try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-                String[] nameScorePairs = reader.readLine().split(",");
-                List<Score> tempScoreList = new ArrayList<>(); // A temporary list is made to store scores as they're read
-
-                for (String pair : nameScorePairs) {
-                    String[] values = pair.split(":"); // Scores are separated from initials by a colon
-                    tempScoreList.add(new Score(values[0], Integer.parseInt(values[1].strip())));
-                }
+    private void finishReplay() {
+        if (replayRecorder != null) {
+            REPLAYS.save(replayRecorder.toReplay());
+            replayRecorder = null;
+        }
 
-                SCORE_LIST.addAll(tempScoreList); // The values from the temp list are copied to the final list if nothing goes wrong
-                System.out.println("[DEBUG] Loaded scores: " + scoreFile.getAbsolutePath());
-            } catch (IOException e) {
-                System.err.println("[DEBUG] Failed to load scores: " + e.getMessage());
+        if (replayPlayer != null) {
+            if (replayPlayer.getDesyncTick() < 0) {
+                System.out.println("[DEBUG] Replay finished, " + replayPlayer.getHashesChecked() + " hashes matched");
+            } else {
+                System.err.println("[DEBUG] Replay finished, first desync at step " + replayPlayer.getDesyncTick());
             }
-        } else {
-            System.out.println("[DEBUG] Score file doesn't exist: " + scoreFile.getAbsolutePath());
-            System.out.println("[DEBUG] Score list will be empty.");
+            replayPlayer = null;
         }
     }
-    
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,360 @@
+package dev.apolonio.asteroids;
+
+import dev.apolonio.asteroids.domain.Asteroid;
+import dev.apolonio.asteroids.domain.Entity;
+import dev.apolonio.asteroids.domain.EntityShape;
+import dev.apolonio.asteroids.domain.Projectile;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Polygon;
+import javafx.scene.transform.Scale;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Draws all {@link Entity Entities} onto a single {@link Canvas}, redrawing it every frame.
+ * <p>
+ * Having one node per entity means CSS, layout and bounds have to be recalculated for every one of them, which gets
+ * slow with many entities, especially on the software rendering pipeline. This renderer instead draws everything
+ * itself, using fills and strokes read from the game stylesheet once, when it's created. The canvas has as many pixels
+ * as the area it covers on the screen, and is scaled back down to world units, so it isn't blurry when the world is
+ * scaled up to fit the window.
+ * <p>
+ * The destroy animation is recreated by hand: destroyed entities grow and fade away before being removed. A destroyed
+ * entity is detached from its drawing right away, so it can be reused and added again while its old drawing is still
+ * fading out. Clearing the renderer drops those drawings without finishing their animation. Stars aren't drawn here,
+ * see {@link Starfield}.
+ * <p>
+ * Drawings are recycled once removed, so entities taken from a pool don't cause any allocation here either.
+ */
+public class CanvasRenderer implements EntityRenderer {
+    private final Canvas CANVAS;
+    private final List<String> STYLESHEETS;
+
+    // Styles for each style class, resolved from the stylesheets the first time they're needed
+    private final Map<String, EntityStyle> STYLES = new HashMap<>();
+
+    // Maximum number of unused drawings kept for reuse
+    private static final int MAX_SPARE_DRAWINGS = 128;
+
+    // Separate layers are used for each kind of entity, to keep the same drawing order as the node renderer
+    private final Layer SHIP_LAYER = new Layer();
+    private final Layer ASTEROID_LAYER = new Layer();
+    private final Layer PROJECTILE_LAYER = new Layer();
+
+    private final ArrayDeque<Drawing> SPARE_DRAWINGS = new ArrayDeque<>();
+
+    // Size of the drawing area in world units, and screen pixels per world unit
+    private double width;
+    private double height;
+    private double pixelScale = 1;
+
+    // Reused when drawing polygons, since the canvas takes X and Y coordinates in separate arrays
+    private double[] xPoints = new double[16];
+    private double[] yPoints = new double[16];
+
+    /**
+     * Creates a new renderer with no entities.
+     *
+     * @param stylesheets the URLs of the stylesheets entity styles are read from.
+     */
+    public CanvasRenderer(List<String> stylesheets) {
+        CANVAS = new Canvas();
+        CANVAS.setMouseTransparent(true);
+        STYLESHEETS = List.copyOf(stylesheets);
+    }
+
+    @Override
+    public Node getView() {
+        return CANVAS;
+    }
+
+    @Override
+    public void add(Entity entity) {
+        Drawing drawing = SPARE_DRAWINGS.isEmpty() ? new Drawing() : SPARE_DRAWINGS.pop();
+        drawing.reset(entity, getStyle(entity.getStyleClass()));
+        getLayer(entity).drawings.put(entity, drawing);
+    }
+
+    @Override
+    public void remove(Entity entity) {
+        recycle(getLayer(entity).drawings.remove(entity));
+    }
+
+    @Override
+    public void destroy(Entity entity, double factor, double duration, Runnable onFinished) {
+        Layer layer = getLayer(entity);
+        Drawing drawing = layer.drawings.remove(entity);
+        if (drawing == null) {
+            // Nothing to animate, so it's already finished
+            onFinished.run();
+            return;
+        }
+        layer.breaking.add(drawing);
+
+        // Freeze the shape and position the entity had when it was destroyed, and let go of it, since it can be reused
+        // with a different shape before the animation ends
+        drawing.shape = entity.getShape();
+        drawing.x = entity.getX();
+        drawing.y = entity.getY();
+        drawing.rotation = entity.getRotation();
+        drawing.scale = entity.getScale();
+        drawing.entity = null;
+
+        drawing.breakFactor = factor;
+        drawing.breakDuration = duration * 1_000_000;
+        drawing.breakStarted = false; // Started on the next frame
+        drawing.onBroken = onFinished;
+    }
+
+    @Override
+    public void setOpacity(Entity entity, double opacity) {
+        Drawing drawing = getLayer(entity).drawings.get(entity);
+        if (drawing != null) {
+            drawing.opacity = opacity;
+        }
+    }
+
+    @Override
+    public void clear() {
+        clearLayer(SHIP_LAYER);
+        clearLayer(ASTEROID_LAYER);
+        clearLayer(PROJECTILE_LAYER);
+    }
+
+    @Override
+    public void resize(double width, double height, double pixelScale) {
+        this.width = width;
+        this.height = height;
+        this.pixelScale = pixelScale;
+        CANVAS.setWidth(Math.ceil(width * pixelScale));
+        CANVAS.setHeight(Math.ceil(height * pixelScale));
+        CANVAS.getTransforms().setAll(new Scale(1 / pixelScale, 1 / pixelScale));
+    }
+
+    @Override
+    public void render(long now) {
+        GraphicsContext gc = CANVAS.getGraphicsContext2D();
+        gc.setTransform(pixelScale, 0, 0, pixelScale, 0, 0);
+        gc.clearRect(0, 0, width, height);
+
+        drawLayer(gc, SHIP_LAYER, now);
+        drawLayer(gc, ASTEROID_LAYER, now);
+        drawLayer(gc, PROJECTILE_LAYER, now);
+    }
+
+    /**
+     * Draws every entity in a layer, removing the ones whose destroy animation has finished.
+     *
+     * @param gc    the {@link GraphicsContext} to draw with.
+     * @param layer the layer to draw.
+     * @param now   the timestamp of the current frame in nanoseconds.
+     */
+    private void drawLayer(GraphicsContext gc, Layer layer, long now) {
+        for (Drawing drawing : layer.drawings.values()) {
+            drawing.shape = drawing.entity.getShape();
+            drawing.x = drawing.entity.getX();
+            drawing.y = drawing.entity.getY();
+            drawing.rotation = drawing.entity.getRotation();
+            drawing.scale = drawing.entity.getScale();
+
+            draw(gc, drawing, drawing.scale, drawing.opacity);
+        }
+
+        Iterator<Drawing> it = layer.breaking.iterator();
+        while (it.hasNext()) {
+            Drawing drawing = it.next();
+            if (!drawing.breakStarted) {
+                drawing.breakStarted = true;
+                drawing.breakStart = now;
+            }
+
+            // Grow and fade away linearly over the duration of the animation
+            double progress = (now - drawing.breakStart) / drawing.breakDuration;
+            if (progress >= 1) {
+                Runnable onBroken = drawing.onBroken;
+                it.remove();
+                recycle(drawing);
+                onBroken.run();
+                continue;
+            }
+
+            double scaleMult = 1 + (drawing.breakFactor - 1) * progress;
+            draw(gc, drawing, drawing.scale * scaleMult, drawing.opacity * (1 - progress));
+        }
+    }
+
+    /**
+     * Removes every drawing from a layer, keeping them for reuse.
+     *
+     * @param layer the layer to clear.
+     */
+    private void clearLayer(Layer layer) {
+        layer.drawings.values().forEach(this::recycle);
+        layer.breaking.forEach(this::recycle);
+        layer.drawings.clear();
+        layer.breaking.clear();
+    }
+
+    /**
+     * Keeps a drawing that's no longer used so it can be reused, unless enough are kept already.
+     *
+     * @param drawing the drawing to keep, or {@code null} to do nothing.
+     */
+    private void recycle(Drawing drawing) {
+        if (drawing != null && SPARE_DRAWINGS.size() < MAX_SPARE_DRAWINGS) {
+            drawing.reset(null, null);
+            SPARE_DRAWINGS.push(drawing);
+        }
+    }
+
+    /**
+     * Draws a single entity.
+     *
+     * @param gc      the {@link GraphicsContext} to draw with.
+     * @param drawing the entity to draw.
+     * @param scale   the scale to draw it with.
+     * @param opacity the opacity to draw it with.
+     */
+    private void draw(GraphicsContext gc, Drawing drawing, double scale, double opacity) {
+        double[] points = drawing.shape.getPoints();
+        int count = points.length / 2;
+
+        if (xPoints.length < count) {
+            xPoints = new double[count];
+            yPoints = new double[count];
+        }
+        for (int i = 0; i < count; i++) {
+            xPoints[i] = points[2 * i];
+            yPoints[i] = points[2 * i + 1];
+        }
+
+        EntityStyle style = drawing.style;
+
+        // The stroke is scaled along with the shape, the same way it would be on a scaled node
+        gc.save();
+        gc.translate(drawing.x, drawing.y);
+        gc.rotate(drawing.rotation);
+        gc.scale(scale, scale);
+        gc.setGlobalAlpha(opacity * style.opacity());
+
+        if (style.fill() != null) {
+            gc.setFill(style.fill());
+            gc.fillPolygon(xPoints, yPoints, count);
+        }
+        if (style.stroke() != null && style.strokeWidth() > 0) {
+            gc.setStroke(style.stroke());
+            gc.setLineWidth(style.strokeWidth());
+            gc.strokePolygon(xPoints, yPoints, count);
+        }
+
+        gc.restore();
+    }
+
+    /**
+     * Returns the layer the specified {@link Entity} is drawn in.
+     *
+     * @param entity an Entity.
+     * @return       the layer for the Entity's kind.
+     */
+    private Layer getLayer(Entity entity) {
+        if (entity instanceof Asteroid) {
+            return ASTEROID_LAYER;
+        } else if (entity instanceof Projectile) {
+            return PROJECTILE_LAYER;
+        }
+        return SHIP_LAYER;
+    }
+
+    /**
+     * Returns the fill and stroke used for a style class, reading them from the stylesheets if needed.
+     * <p>
+     * Styles are read by applying CSS to a {@link Polygon} in a scene that is never shown.
+     *
+     * @param styleClass the name of the style class.
+     * @return           the resolved style.
+     */
+    private EntityStyle getStyle(String styleClass) {
+        return STYLES.computeIfAbsent(styleClass, name -> {
+            Polygon probe = new Polygon();
+            probe.getStyleClass().add(name);
+
+            Scene scene = new Scene(new Group(probe));
+            scene.getStylesheets().addAll(STYLESHEETS);
+            probe.applyCss();
+
+            Paint fill = probe.getFill() != null ? probe.getFill() : Color.BLACK;
+            return new EntityStyle(fill, probe.getStroke(), probe.getStrokeWidth(), probe.getOpacity());
+        });
+    }
+
+    /**
+     * The fill and stroke of an entity, as defined in the stylesheet.
+     *
+     * @param fill        the fill paint.
+     * @param stroke      the stroke paint, or {@code null} for no stroke.
+     * @param strokeWidth the stroke width.
+     * @param opacity     the base opacity.
+     */
+    private record EntityStyle(Paint fill, Paint stroke, double strokeWidth, double opacity) {
+    }
+
+    /**
+     * The entities drawn in one layer, along with the drawings of destroyed entities still playing their animation.
+     */
+    private static class Layer {
+        private final Map<Entity, Drawing> drawings = new LinkedHashMap<>();
+        private final List<Drawing> breaking = new ArrayList<>();
+    }
+
+    /**
+     * Drawing state for a single entity.
+     */
+    private static class Drawing {
+        // The entity drawn, or null once it has been destroyed
+        private Entity entity;
+        private EntityStyle style;
+
+        // Shape and transform used when drawing, frozen once the destroy animation starts
+        private EntityShape shape;
+        private double x;
+        private double y;
+        private double rotation;
+        private double scale;
+
+        private double opacity;
+
+        // Destroy animation, only used once the entity has been destroyed
+        private double breakFactor;
+        private double breakDuration;
+        private boolean breakStarted;
+        private long breakStart;
+        private Runnable onBroken;
+
+        /**
+         * Sets up the drawing for a new entity, clearing any previous state.
+         */
+        private void reset(Entity entity, EntityStyle style) {
+            this.entity = entity;
+            this.style = style;
+            shape = null;
+            opacity = 1;
+            breakFactor = 0;
+            breakDuration = 0;
+            breakStarted = false;
+            breakStart = 0;
+            onBroken = null;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package dev.apolonio.asteroids;
+
+import dev.apolonio.asteroids.domain.Asteroid;
+import dev.apolonio.asteroids.domain.Entity;
+import dev.apolonio.asteroids.domain.Projectile;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Owns every {@link Entity} shown on the screen, from the moment it spawns until everything drawn for it is disposed
+ * of, and counts them along the way.
+ * <p>
+ * The world only reports what happens to its entities, and the renderer only draws them, so this is the single place
+ * deciding what happens in between: an entity is spawned once, then either despawned, which disposes of it right away,
+ * or destroyed, which disposes of it once its destroy animation finishes. {@link #clear()} disposes of everything at
+ * once, stopping any animation still playing, so nothing from a previous game can outlive it.
+ * <p>
+ * Since entities come from pools and are reused, an entity spawned again while its old destroy animation is still
+ * playing is counted twice, once as dying and once as live. The counters always add up: every entity created has
+ * either been disposed of, or is live or dying. {@link #countStrays(GameWorld)} checks the other direction, that no
+ * live entity was left behind by the world, which is what would make memory grow on a game left running for days.
+ */
+public class EntityLifecycle {
+    private final EntityRenderer RENDERER;
+
+    // Entities spawned and not yet despawned or destroyed
+    private final Set<Entity> LIVE = new HashSet<>();
+
+    // Created once, so destroying an entity doesn't allocate a callback
+    private final Runnable DISPOSE_DYING = this::disposeDying;
+
+    // Entities whose destroy animation is still playing
+    private int dying;
+
+    private long created;
+    private long disposed;
+
+    /**
+     * Creates a lifecycle with no entities, drawing them with the specified renderer.
+     *
+     * @param renderer the {@link EntityRenderer} entities are drawn with.
+     */
+    public EntityLifecycle(EntityRenderer renderer) {
+        RENDERER = renderer;
+    }
+
+    /**
+     * Starts drawing a new {@link Entity}. Spawning an entity that is already live does nothing.
+     *
+     * @param entity the Entity that spawned.
+     */
+    public void spawn(Entity entity) {
+        if (!LIVE.add(entity)) {
+            System.err.println("[DEBUG] Spawned an entity that is already live: " + entity.getStyleClass());
+            return;
+        }
+        created++;
+        RENDERER.add(entity);
+    }
+
+    /**
+     * Stops drawing an {@link Entity} immediately and disposes of it, for entities that leave the screen.
+     *
+     * @param entity the Entity that despawned.
+     */
+    public void despawn(Entity entity) {
+        if (LIVE.remove(entity)) {
+            RENDERER.remove(entity);
+            disposed++;
+        }
+    }
+
+    /**
+     * Plays the destroy animation for an {@link Entity}, disposing of it once the animation finishes. The entity can
+     * be spawned again right away, even if the animation is still playing.
+     *
+     * @param entity   the Entity that was destroyed.
+     * @param factor   the scale factor reached at the end of the animation.
+     * @param duration how long the animation lasts, in milliseconds.
+     */
+    public void destroy(Entity entity, double factor, double duration) {
+        if (LIVE.remove(entity)) {
+            dying++;
+            RENDERER.destroy(entity, factor, duration, DISPOSE_DYING);
+        }
+    }
+
+    /**
+     * Disposes of every entity, live or dying, stopping all destroy animations. Used when a game ends or a new one
+     * starts, since the world gives its entities back to their pools without reporting each one.
+     */
+    public void clear() {
+        RENDERER.clear();
+        disposed += LIVE.size() + dying;
+        LIVE.clear();
+        dying = 0;
+    }
+
+    /**
+     * Returns the number of entities currently spawned, not counting those playing their destroy animation.
+     *
+     * @return the number of live entities.
+     */
+    public int getLive() {
+        return LIVE.size();
+    }
+
+    /**
+     * Returns the number of destroyed entities whose animation is still playing.
+     *
+     * @return the number of dying entities.
+     */
+    public int getDying() {
+        return dying;
+    }
+
+    /**
+     * Returns the total number of entities spawned.
+     *
+     * @return the number of entities created.
+     */
+    public long getCreated() {
+        return created;
+    }
+
+    /**
+     * Returns the total number of entities disposed of, after despawning, finishing their destroy animation or being
+     * cleared.
+     *
+     * @return the number of entities disposed of.
+     */
+    public long getDisposed() {
+        return disposed;
+    }
+
+    /**
+     * Counts the live entities the world no longer has, which are still being drawn even though nothing will ever
+     * despawn them. This should always be 0 between simulation steps.
+     *
+     * @param world the {@link GameWorld} the entities were spawned by.
+     * @return      the number of stray entities.
+     */
+    public int countStrays(GameWorld world) {
+        int strays = 0;
+        for (Entity entity : LIVE) {
+            boolean inWorld = entity == world.getShip()
+                    || entity instanceof Asteroid asteroid && world.getAsteroids().isAlive(asteroid)
+                    || entity instanceof Projectile projectile && world.getProjectiles().isAlive(projectile);
+            if (!inWorld) {
+                strays++;
+            }
+        }
+        return strays;
+    }
+
+    /**
+     * Called by the renderer when a destroy animation finishes.
+     */
+    private void disposeDying() {
+        if (dying == 0) {
+            // The renderer finished an animation that wasn't started, or was cleared, so the counters are wrong
+            System.err.println("[DEBUG] Disposed of a dying entity that wasn't counted, " + this);
+            return;
+        }
+        dying--;
+        disposed++;
+    }
+
+    @Override
+    public String toString() {
+        return "live " + LIVE.size()
+                + ", dying " + dying
+                + ", created " + created
+                + ", disposed " + disposed;
+    }
+}
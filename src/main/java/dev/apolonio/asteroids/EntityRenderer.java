@@ -0,0 +1,83 @@
+package dev.apolonio.asteroids;
+
+import dev.apolonio.asteroids.domain.Entity;
+import javafx.scene.Node;
+
+/**
+ * Draws {@link Entity Entities} on the screen.
+ * <p>
+ * Entities only store plain simulation state, so a renderer is the bridge between them and the scene graph. Entities
+ * are added to the renderer when they spawn and removed when they despawn, and {@link #render(long)} is called once per
+ * frame, after the simulation has been updated, so the game loop itself never touches the scene graph.
+ * <p>
+ * There are two implementations: {@link NodeRenderer} creates one node per entity, while {@link CanvasRenderer} draws
+ * all entities onto a single canvas, which scales better when there are many entities on the screen.
+ */
+public interface EntityRenderer {
+
+    /**
+     * Returns the node everything is drawn in, to be added to the game layout.
+     *
+     * @return the renderer's {@link Node}.
+     */
+    Node getView();
+
+    /**
+     * Starts drawing an {@link Entity}.
+     *
+     * @param entity the Entity to draw.
+     */
+    void add(Entity entity);
+
+    /**
+     * Stops drawing an {@link Entity} immediately.
+     *
+     * @param entity the Entity to remove.
+     */
+    void remove(Entity entity);
+
+    /**
+     * Plays an animation where an {@link Entity} changes size and fades away, then stops drawing it.
+     * <p>
+     * The Entity keeps the position it had when this method was called until the animation finishes, and can be added
+     * again in the meantime.
+     *
+     * @param entity     the Entity to destroy.
+     * @param factor     the scale factor reached at the end of the animation.
+     * @param duration   how long the animation lasts, in milliseconds.
+     * @param onFinished run once the animation finishes and the Entity is no longer drawn, right away if the Entity
+     *                   wasn't being drawn, but never if the animation is cut short by {@link #clear()}.
+     */
+    void destroy(Entity entity, double factor, double duration, Runnable onFinished);
+
+    /**
+     * Sets how opaque an {@link Entity} is drawn.
+     *
+     * @param entity  the Entity to change.
+     * @param opacity the opacity, from 0 (invisible) to 1 (fully opaque).
+     */
+    void setOpacity(Entity entity, double opacity);
+
+    /**
+     * Stops drawing all entities, including those being destroyed, whose animations are stopped.
+     */
+    void clear();
+
+    /**
+     * Changes the size of the area entities are drawn in.
+     *
+     * @param width      the width of the drawing area in world units.
+     * @param height     the height of the drawing area in world units.
+     * @param pixelScale the number of screen pixels per world unit, so drawings that aren't vectors can match the
+     *                   screen's resolution.
+     */
+    void resize(double width, double height, double pixelScale);
+
+    /**
+     * Updates the screen to match the current state of all entities being drawn.
+     *
+     * @param now the timestamp of the current frame in nanoseconds, as given by an
+     *            {@link javafx.animation.AnimationTimer AnimationTimer}.
+     */
+    void render(long now);
+}
@@ -0,0 +1,91 @@
+package dev.apolonio.asteroids;
+
+/**
+ * Turns the frame timestamps of an {@link javafx.animation.AnimationTimer AnimationTimer} into a number of
+ * fixed-length simulation steps.
+ * <p>
+ * Frames don't always take the same time: monitors refresh at different rates, and the game may slow down under load.
+ * To keep the game speed the same everywhere, the time between frames is added to an accumulator, and one step is run
+ * for every full tick it contains. Whatever is left over carries on to the next frame.
+ * <p>
+ * After a long hitch, running every missed step at once could take long enough to cause another hitch, so the number
+ * of steps per frame is capped and the rest of the missed time is dropped.
+ */
+public class FixedTimestep {
+    private final long TICK_NANOS;
+    private final double TICK_LENGTH;
+    private final int MAX_STEPS;
+
+    // Timestamps can be negative, so whether one was recorded yet is kept separately
+    private boolean started;
+    private long lastTime;
+    private long accumulator;
+
+    /**
+     * Creates a new timestep with the specified tick rate.
+     *
+     * @param tickRate         the number of simulation steps per second.
+     * @param maxStepsPerFrame the maximum number of steps to run in a single frame.
+     */
+    public FixedTimestep(int tickRate, int maxStepsPerFrame) {
+        if (tickRate < 1 || maxStepsPerFrame < 1) {
+            throw new IllegalArgumentException("Tick rate and steps per frame must be greater than 0.");
+        }
+
+        TICK_NANOS = 1_000_000_000L / tickRate;
+        TICK_LENGTH = 1.0 / tickRate;
+        MAX_STEPS = maxStepsPerFrame;
+        reset();
+    }
+
+    /**
+     * Returns how many steps should be run for a frame at the specified time.
+     * <p>
+     * The first call after creating or resetting the timestep only records the time, and returns 0.
+     *
+     * @param now the timestamp of the current frame in nanoseconds, as given by an AnimationTimer.
+     * @return    the number of steps to run.
+     */
+    public int advance(long now) {
+        if (!started) {
+            started = true;
+            lastTime = now;
+            return 0;
+        }
+
+        accumulator += now - lastTime;
+        lastTime = now;
+
+        int steps = (int) (accumulator / TICK_NANOS);
+        accumulator -= steps * TICK_NANOS;
+
+        // Drop the time that couldn't be caught up with
+        if (steps > MAX_STEPS) {
+            steps = MAX_STEPS;
+            accumulator = 0;
+        }
+
+        return steps;
+    }
+
+    /**
+     * Returns the length of each simulation step.
+     *
+     * @return the step length in seconds.
+     */
+    public double getTickLength() {
+        return TICK_LENGTH;
+    }
+
+    /**
+     * Forgets the time of the last frame, so the next call to {@link #advance(long)} doesn't run any steps.
+     * <p>
+     * This should be called before starting the timer again after it was stopped, otherwise the time spent stopped
+     * would count as missed time.
+     */
+    public void reset() {
+        started = false;
+        lastTime = 0;
+        accumulator = 0;
+    }
+}
@@ -0,0 +1,301 @@
+package dev.apolonio.asteroids;
+
+import java.util.Arrays;
+
+/**
+ * Measures how long each frame takes, and how that time is split between the phases of the game loop.
+ * <p>
+ * A frame is started with {@link #beginFrame(long)} and finished with {@link #endFrame()}. In between, each call to
+ * {@link #lap(Phase)} adds the time since the previous lap (or the start of the frame) to the specified phase, so the
+ * loop only needs a lap at the end of each phase. Phases reached more than once in a frame, like when several
+ * simulation steps run, add up.
+ * <p>
+ * Two times are kept for every frame. The work time is how long the game loop itself took, from the start to the end of
+ * the frame. The interval is the time since the previous frame started, as given by the frame timestamps, which also
+ * covers everything JavaFX does between frames, like layout, rendering and garbage collection. A stutter caused by the
+ * game shows up in both, while one caused outside the game loop only shows up in the interval.
+ * <p>
+ * Both go into histograms with fixed-size buckets, which is enough to get percentiles without keeping every
+ * sample. Phase times are kept as totals and maximums over a window, which restarts every time a summary is read.
+ * Recording only writes to arrays allocated up front, so measuring doesn't allocate or trigger garbage collection, and
+ * does nothing at all while the profiler is disabled.
+ */
+public class FrameProfiler {
+
+    /**
+     * The phases of a frame that are measured separately.
+     */
+    public enum Phase {
+        INPUT, FIRING, SPAWNING, MOVEMENT, COLLISION, RECORDING, SCENE
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    // Width of each histogram bucket, times longer than the last bucket are counted in an overflow bucket
+    private static final long BUCKET_NANOS = 100_000;
+    private static final int BUCKETS = 500;
+
+    private final Histogram WORK = new Histogram();
+    private final Histogram INTERVALS = new Histogram();
+    private final long[] PHASE_TOTALS = new long[PHASES.length];
+    private final long[] PHASE_MAX = new long[PHASES.length];
+
+    // Phase times for the frame being measured, only added to the totals once it ends
+    private final long[] FRAME_PHASES = new long[PHASES.length];
+
+    private boolean enabled;
+
+    // Whether a frame is being measured, timestamps can be negative so they can't tell
+    private boolean inFrame;
+    private long frameStart;
+    private long lastLap;
+
+    // Timestamp of the previous frame, for the interval
+    private boolean hasLastFrame;
+    private long lastFrame;
+
+    // Frames in the current window, and the total time they took
+    private int windowFrames;
+    private long windowTotal;
+
+    /**
+     * Returns whether frames are being measured.
+     *
+     * @return {@code true} if the profiler is recording, {@code false} otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts or stops measuring frames. All measurements are cleared when it starts.
+     *
+     * @param enabled whether frames should be measured.
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            reset();
+        }
+        this.enabled = enabled;
+    }
+
+    /**
+     * Clears all measurements.
+     */
+    public void reset() {
+        WORK.clear();
+        INTERVALS.clear();
+        Arrays.fill(FRAME_PHASES, 0);
+        resetWindow();
+        inFrame = false;
+        hasLastFrame = false;
+    }
+
+    /**
+     * Forgets the timestamp of the previous frame, so the next one doesn't record an interval. This should be called
+     * when the game loop starts again after being stopped, otherwise the time spent stopped would count as one long
+     * frame.
+     */
+    public void resetInterval() {
+        hasLastFrame = false;
+    }
+
+    /**
+     * Marks the start of a frame, recording the interval since the previous one.
+     *
+     * @param now the timestamp of the frame in nanoseconds, as given by an
+     *            {@link javafx.animation.AnimationTimer AnimationTimer}.
+     */
+    public void beginFrame(long now) {
+        if (!enabled) {
+            return;
+        }
+        if (hasLastFrame) {
+            INTERVALS.record(now - lastFrame);
+        }
+        hasLastFrame = true;
+        lastFrame = now;
+
+        inFrame = true;
+        frameStart = System.nanoTime();
+        lastLap = frameStart;
+    }
+
+    /**
+     * Adds the time since the last lap, or since the frame started, to a phase.
+     *
+     * @param phase the {@link Phase} that just finished.
+     */
+    public void lap(Phase phase) {
+        if (!enabled || !inFrame) {
+            return;
+        }
+        long now = System.nanoTime();
+        FRAME_PHASES[phase.ordinal()] += now - lastLap;
+        lastLap = now;
+    }
+
+    /**
+     * Marks the end of a frame, recording its total time and the time spent on each phase.
+     */
+    public void endFrame() {
+        if (!enabled || !inFrame) {
+            return;
+        }
+        long frameTime = System.nanoTime() - frameStart;
+        inFrame = false;
+
+        WORK.record(frameTime);
+
+        windowFrames++;
+        windowTotal += frameTime;
+        for (int i = 0; i < FRAME_PHASES.length; i++) {
+            PHASE_TOTALS[i] += FRAME_PHASES[i];
+            PHASE_MAX[i] = Math.max(PHASE_MAX[i], FRAME_PHASES[i]);
+            FRAME_PHASES[i] = 0;
+        }
+    }
+
+    /**
+     * Returns the work time below which the specified fraction of frames fall, rounded up to the histogram's bucket
+     * size. Frames over the histogram's range are reported as the longest frame measured.
+     *
+     * @param fraction the fraction of frames, between 0 and 1.
+     * @return         the work time in nanoseconds, or 0 if no frames were measured.
+     */
+    public long getPercentile(double fraction) {
+        return WORK.getPercentile(fraction);
+    }
+
+    /**
+     * Returns the interval between frames below which the specified fraction of intervals fall, rounded up to the
+     * histogram's bucket size.
+     *
+     * @param fraction the fraction of intervals, between 0 and 1.
+     * @return         the interval in nanoseconds, or 0 if no intervals were measured.
+     */
+    public long getIntervalPercentile(double fraction) {
+        return INTERVALS.getPercentile(fraction);
+    }
+
+    /**
+     * Returns the longest work time of a frame.
+     *
+     * @return the work time in nanoseconds.
+     */
+    public long getMaxFrameTime() {
+        return WORK.max;
+    }
+
+    /**
+     * Returns the longest interval between two frames.
+     *
+     * @return the interval in nanoseconds.
+     */
+    public long getMaxInterval() {
+        return INTERVALS.max;
+    }
+
+    /**
+     * Returns the number of frames measured.
+     *
+     * @return the frame count.
+     */
+    public long getFrameCount() {
+        return WORK.count;
+    }
+
+    /**
+     * Returns a readable summary of the measurements, one line per value, and starts a new window for the phase
+     * times.
+     * <p>
+     * Interval and work time percentiles and maximums cover every frame since the profiler was enabled. Phase times
+     * are the average and maximum per frame since the last summary, and the time not covered by any phase is shown as
+     * "other".
+     *
+     * @return the summary as a String.
+     */
+    public String getSummary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("INTERVAL   p50 %5.2f  p99 %5.2f  max %5.2f ms",
+                toMillis(getIntervalPercentile(0.5)), toMillis(getIntervalPercentile(0.99)),
+                toMillis(getMaxInterval())));
+        sb.append('\n').append(String.format("WORK       p50 %5.2f  p99 %5.2f  max %5.2f ms",
+                toMillis(getPercentile(0.5)), toMillis(getPercentile(0.99)), toMillis(getMaxFrameTime())));
+
+        int frames = Math.max(windowFrames, 1);
+        long covered = 0;
+        for (int i = 0; i < PHASES.length; i++) {
+            covered += PHASE_TOTALS[i];
+            sb.append('\n').append(String.format("%-10s avg %5.2f  max %5.2f ms",
+                    PHASES[i], toMillis(PHASE_TOTALS[i] / frames), toMillis(PHASE_MAX[i])));
+        }
+        sb.append('\n').append(String.format("%-10s avg %5.2f ms",
+                "OTHER", toMillis(Math.max(0, windowTotal - covered) / frames)));
+
+        resetWindow();
+        return sb.toString();
+    }
+
+    /**
+     * Starts a new window for the phase times.
+     */
+    private void resetWindow() {
+        Arrays.fill(PHASE_TOTALS, 0);
+        Arrays.fill(PHASE_MAX, 0);
+        windowFrames = 0;
+        windowTotal = 0;
+    }
+
+    /**
+     * Converts a time in nanoseconds to milliseconds.
+     */
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Counts frame times in fixed-size buckets, along with the longest one.
+     */
+    private static class Histogram {
+        private final long[] buckets = new long[BUCKETS + 1];
+        private long count;
+        private long max;
+
+        /**
+         * Adds a time to the histogram.
+         */
+        private void record(long nanos) {
+            buckets[(int) Math.min(Math.max(0, nanos) / BUCKET_NANOS, BUCKETS)]++;
+            count++;
+            max = Math.max(max, nanos);
+        }
+
+        /**
+         * Returns the time below which a fraction of the recorded times fall, rounded up to the bucket size.
+         */
+        private long getPercentile(double fraction) {
+            if (count == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(fraction * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets[i];
+                if (seen >= target) {
+                    return Math.min((i + 1) * BUCKET_NANOS, max);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Removes every recorded time.
+         */
+        private void clear() {
+            Arrays.fill(buckets, 0);
+            count = 0;
+            max = 0;
+        }
+    }
+}
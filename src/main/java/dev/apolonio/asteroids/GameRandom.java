@@ -0,0 +1,105 @@
+package dev.apolonio.asteroids;
+
+import java.util.SplittableRandom;
+
+/**
+ * The source of all randomness in the game, split into independent streams for each kind of use.
+ * <p>
+ * Every stream is derived from a single seed, so running the game twice with the same seed and the same input plays
+ * out exactly the same way. Keeping the streams separate means drawing more numbers from one of them doesn't change
+ * the others, for example, stars blinking differently don't change where asteroids spawn.
+ * <p>
+ * Streams are created once and passed to whatever needs them, instead of each entity creating its own generator.
+ * They aren't thread safe, so each stream must only be used from one thread at a time.
+ */
+public class GameRandom {
+    private final long SEED;
+    private final SplittableRandom SPAWN;
+    private final SplittableRandom SHAPES;
+    private final SplittableRandom SPLIT;
+    private final SplittableRandom COSMETIC;
+    private final SplittableRandom GAME_SEEDS;
+
+    /**
+     * Creates new streams from the specified seed.
+     *
+     * @param seed the seed all streams are derived from.
+     */
+    public GameRandom(long seed) {
+        SEED = seed;
+
+        // Streams are always split in the same order, so each one only depends on the seed
+        SplittableRandom root = new SplittableRandom(seed);
+        SPAWN = root.split();
+        SHAPES = root.split();
+        SPLIT = root.split();
+        COSMETIC = root.split();
+        GAME_SEEDS = root.split();
+    }
+
+    /**
+     * Creates new streams from the seed in the {@code asteroids.seed} system property, or from a random seed if it
+     * isn't set.
+     *
+     * @return a new GameRandom.
+     */
+    public static GameRandom fromSystemProperty() {
+        Long seed = Long.getLong("asteroids.seed");
+        return new GameRandom(seed != null ? seed : new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Returns the seed the streams were derived from.
+     *
+     * @return the seed.
+     */
+    public long getSeed() {
+        return SEED;
+    }
+
+    /**
+     * Returns the stream used for spawning asteroids: when they spawn, where, their level and how they move.
+     *
+     * @return the spawn stream.
+     */
+    public SplittableRandom getSpawn() {
+        return SPAWN;
+    }
+
+    /**
+     * Returns the stream used for picking the shapes of asteroids.
+     *
+     * @return the shape stream.
+     */
+    public SplittableRandom getShapes() {
+        return SHAPES;
+    }
+
+    /**
+     * Returns the stream used for splitting asteroids: the level, position and movement of the smaller ones.
+     *
+     * @return the split stream.
+     */
+    public SplittableRandom getSplit() {
+        return SPLIT;
+    }
+
+    /**
+     * Returns a new seed for starting a game. Each game gets streams of its own from this seed, so it can be replayed
+     * on its own, without the games before it.
+     *
+     * @return the seed for the next game.
+     */
+    public long nextGameSeed() {
+        return GAME_SEEDS.nextLong();
+    }
+
+    /**
+     * Returns the stream used for things that don't affect the game, like stars and their animations.
+     *
+     * @return the cosmetic stream.
+     */
+    public SplittableRandom getCosmetic() {
+        return COSMETIC;
+    }
+}
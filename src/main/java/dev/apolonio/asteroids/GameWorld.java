@@ -0,0 +1,684 @@
+package dev.apolonio.asteroids;
+
+import dev.apolonio.asteroids.collision.SpatialGrid;
+import dev.apolonio.asteroids.domain.ArchetypeTable;
+import dev.apolonio.asteroids.domain.Asteroid;
+import dev.apolonio.asteroids.domain.Entity;
+import dev.apolonio.asteroids.domain.EntityStore;
+import dev.apolonio.asteroids.domain.Projectile;
+import dev.apolonio.asteroids.domain.Ship;
+import dev.apolonio.asteroids.domain.SpawnSampler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+
+import static java.lang.Math.min;
+import static java.lang.Math.pow;
+import static java.lang.Math.sqrt;
+
+/**
+ * The game simulation: the ship, asteroids and projectiles, and the rules for how they move, spawn, collide and score.
+ * <p>
+ * The world doesn't know anything about JavaFX. It's advanced one fixed step at a time with {@link #tick(double, int)},
+ * given the player's input as a set of flags, and reports what happens through a {@link Listener}, so sounds, the
+ * score text and the renderer can be updated by whoever is showing the game. This also means the whole game can run
+ * without a window, for example in benchmarks.
+ * <p>
+ * Every game is started from a seed, and all of its randomness comes from streams derived from it, so starting a game
+ * with the same seed and giving it the same input on every step plays out exactly the same way. This is what replays
+ * rely on, and {@link #getStateHash()} can be used to check that two runs really did match.
+ */
+public class GameWorld {
+
+    // Input flags, combined into a single int for each step
+    public static final int INPUT_LEFT = 1;
+    public static final int INPUT_RIGHT = 1 << 1;
+    public static final int INPUT_THRUST = 1 << 2;
+    public static final int INPUT_FIRE = 1 << 3;
+
+    // Turns on the spread shot cheat, it's part of the input so replays know when it was entered
+    public static final int INPUT_SPREAD_SHOT = 1 << 4;
+
+    // Time between an asteroid being hit and splitting into smaller ones, in seconds
+    public static final double ASTEROID_BREAK_TIME = 0.333;
+
+    // Base points awarded for kills
+    public static final int SCR_MULT = 100;
+
+    // Height of the world in logical units that games are started with, only the width changes with the aspect ratio
+    public static final double WORLD_HEIGHT = 600;
+
+    // Time between shots, in seconds
+    private static final double FIRE_COOLDOWN = 0.5;
+
+    // Maximum number of projectiles on the screen before the ship can fire again
+    private static final int MAX_PROJECTILES = 3;
+
+    // Number of asteroids at the start of a game
+    private static final int INITIAL_ASTEROIDS = 5;
+
+    private final EntityStore STORE = new EntityStore();
+    private final ArchetypeTable<Asteroid> ASTEROIDS = STORE.getAsteroids();
+    private final ArchetypeTable<Projectile> PROJECTILES = STORE.getProjectiles();
+    private final Ship SHIP = new Ship(0, 0, 0);
+
+    /* Asteroids are added to a grid every step, so collisions only need to be checked between entities in the same
+       cells. Cells are sized to fit the biggest asteroids, and the grid is laid out again when a game starts since the
+       world's width may have changed. */
+    private final SpatialGrid<Asteroid> ASTEROID_GRID = new SpatialGrid<>(1, 1, 1);
+    private final List<Asteroid> NEARBY_ASTEROIDS = new ArrayList<>();
+
+    /* Asteroids that were hit wait for their break animation before splitting. This is scheduled in simulated time, so
+       they always split at the same point of the game no matter the frame rate. They're kept in parallel arrays, in
+       the order they were hit, which only grow if more asteroids are waiting than ever before. */
+    private Asteroid[] pendingOrigins = new Asteroid[16];
+    private double[] pendingTimes = new double[16];
+    private int pendingCount;
+
+    // Reused for the asteroids each split creates
+    private final List<Asteroid> SPLIT_ASTEROIDS = new ArrayList<>();
+
+    // Created once instead of on every step, and reads the listener when called, so it follows setListener
+    private final Consumer<Projectile> DESPAWN = projectile -> this.listener.entityDespawned(projectile);
+
+    private Listener listener = new Listener() {
+    };
+
+    // Times each phase of a step, does nothing unless a profiler is set and enabled
+    private FrameProfiler profiler = new FrameProfiler();
+
+    // Each kind of randomness has its own stream, created again from the seed of each game, see GameRandom
+    private RandomGenerator spawnRand;
+    private RandomGenerator shapeRand;
+    private RandomGenerator splitRand;
+    private SpawnSampler spawnSampler;
+    private long seed;
+
+    private double width;
+    private double height;
+
+    // Cooldown for the ship's bullets, in seconds
+    private double cooldown;
+
+    // Time simulated since the game started, in seconds
+    private double simTime;
+
+    private int points;
+    private boolean spreadShot;
+    private boolean shipDestroyed;
+    private boolean invincible;
+
+    /**
+     * Creates a new world with no entities. {@link #start(double, double, double, long)} must be called before the
+     * first step.
+     */
+    public GameWorld() {
+    }
+
+    /**
+     * Sets the listener told about everything that happens in the world.
+     *
+     * @param listener the new {@link Listener}.
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Sets the profiler that times the phases of each step. The world only records laps on it, starting and ending
+     * frames is left to the game loop.
+     *
+     * @param profiler the new {@link FrameProfiler}.
+     */
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Starts a new game on a screen of the specified size, removing all entities from the previous one.
+     * <p>
+     * The ship is placed in the middle of the screen, and a few asteroids are spawned away from it. The listener is
+     * told about the ship and every asteroid spawned.
+     *
+     * @param width  the width of the screen in pixels.
+     * @param height the height of the screen in pixels.
+     * @param seed   the seed for all randomness in the game.
+     */
+    public void start(double width, double height, long seed) {
+        clear();
+
+        // The spawn, shape and split streams are used by the world, the cosmetic one is left to whoever shows it
+        GameRandom random = new GameRandom(seed);
+        spawnRand = random.getSpawn();
+        shapeRand = random.getShapes();
+        splitRand = random.getSplit();
+        spawnSampler = new SpawnSampler(spawnRand);
+        this.seed = seed;
+
+        this.width = width;
+        this.height = height;
+
+        SHIP.reset(width / 2, height / 2);
+        SHIP.setRotation(225);
+        SHIP.setSafeZoneRadius(height / 4);
+        listener.entitySpawned(SHIP);
+
+        ASTEROID_GRID.resize(getGridCellSize(), width, height);
+
+        // Spawn initial asteroids at random positions, away from the ship
+        for (int i = 0; i < INITIAL_ASTEROIDS; i++) {
+            spawnAsteroid(2, 1);
+        }
+    }
+
+    /**
+     * Removes all entities and resets the score, giving asteroids and projectiles back to their pools.
+     */
+    public void clear() {
+        STORE.clear();
+        for (int i = 0; i < pendingCount; i++) {
+            STORE.releaseAsteroid(pendingOrigins[i]);
+            pendingOrigins[i] = null;
+        }
+        pendingCount = 0;
+        ASTEROID_GRID.clear();
+
+        cooldown = 0;
+        simTime = 0;
+        points = 0;
+        spreadShot = false;
+        shipDestroyed = false;
+    }
+
+    /**
+     * Advances the simulation by one step. Nothing happens once the ship has been destroyed.
+     *
+     * @param dt    the length of the step, in seconds.
+     * @param input the {@code INPUT_} flags for the keys held down during this step.
+     */
+    public void tick(double dt, int input) {
+        if (shipDestroyed) {
+            return;
+        }
+        simTime += dt;
+
+        if ((input & INPUT_SPREAD_SHOT) != 0) {
+            spreadShot = true;
+        }
+
+        // Ship movement
+        if ((input & INPUT_LEFT) != 0) {
+            SHIP.turnLeft(dt);
+        }
+        if ((input & INPUT_RIGHT) != 0) {
+            SHIP.turnRight(dt);
+        }
+        if ((input & INPUT_THRUST) != 0) {
+            SHIP.accelerate(dt);
+        }
+        profiler.lap(FrameProfiler.Phase.INPUT);
+
+        // Projectile
+        if ((input & INPUT_FIRE) != 0 && cooldown <= 0 && PROJECTILES.size() < MAX_PROJECTILES) {
+            fire();
+        }
+
+        // Decrease cooldown if not already at 0
+        if (cooldown > 0) {
+            cooldown -= dt;
+        }
+        profiler.lap(FrameProfiler.Phase.FIRING);
+
+        // Spawn asteroids with a chance of 50% each second, affected by score
+        if (spawnRand.nextDouble() < 0.5 * dt * min(1 + (double) points / (100 * SCR_MULT), 2)) {
+            // Asteroid level depends on player score
+            int asteroidLvl = 1;
+            if (points > 150 * SCR_MULT) {
+                asteroidLvl += (int) (0.5 + spawnRand.nextDouble() * 2);
+            } else if (points > 50 * SCR_MULT) {
+                asteroidLvl += (int) (spawnRand.nextDouble() * 2.5);
+            } else if (points > 10 * SCR_MULT) {
+                asteroidLvl += (int) (spawnRand.nextDouble() * 2);
+            }
+
+            // Asteroid speed scales up with score, with a cap at 10x, also increases with spread shot enabled
+            spawnAsteroid(asteroidLvl, min(1 + (double) points / (100 * SCR_MULT) * (spreadShot ? 5 : 1), 10));
+        }
+
+        // Split asteroids whose break animation has finished
+        int waiting = 0;
+        for (int i = 0; i < pendingCount; i++) {
+            Asteroid origin = pendingOrigins[i];
+            if (pendingTimes[i] <= simTime) {
+                SPLIT_ASTEROIDS.clear();
+                splitAsteroid(origin, SPLIT_ASTEROIDS);
+                for (int j = 0; j < SPLIT_ASTEROIDS.size(); j++) {
+                    ASTEROIDS.add(SPLIT_ASTEROIDS.get(j));
+                    listener.entitySpawned(SPLIT_ASTEROIDS.get(j));
+                }
+                STORE.releaseAsteroid(origin);
+            } else {
+                // Move the ones still waiting to the front, keeping their order
+                pendingOrigins[waiting] = origin;
+                pendingTimes[waiting] = pendingTimes[i];
+                waiting++;
+            }
+        }
+        Arrays.fill(pendingOrigins, waiting, pendingCount, null);
+        pendingCount = waiting;
+        profiler.lap(FrameProfiler.Phase.SPAWNING);
+
+        // Ship and asteroid movement
+        SHIP.move(dt, width, height);
+        STORE.move(dt, width, height);
+        profiler.lap(FrameProfiler.Phase.MOVEMENT);
+
+        // Rebuild the broad phase grid with the new asteroid positions
+        ASTEROID_GRID.clear();
+        for (int i = 0; i < ASTEROIDS.size(); i++) {
+            ASTEROID_GRID.insert(ASTEROIDS.get(i), ASTEROIDS.getX(i), ASTEROIDS.getY(i), ASTEROIDS.getRadius(i));
+        }
+
+        // End game if ship hits an asteroid, only asteroids sharing a grid cell with the ship need to be checked
+        NEARBY_ASTEROIDS.clear();
+        ASTEROID_GRID.query(SHIP.getX(), SHIP.getY(), SHIP.getBoundingRadius(), NEARBY_ASTEROIDS);
+        for (int j = 0; j < NEARBY_ASTEROIDS.size(); j++) {
+            Asteroid asteroid = NEARBY_ASTEROIDS.get(j);
+            if (!invincible && SHIP.collide(asteroid)) {
+                shipDestroyed = true;
+                spreadShot = false; // Disable cheat on death
+                profiler.lap(FrameProfiler.Phase.COLLISION);
+                listener.shipDestroyed();
+                return;
+            }
+        }
+
+        // Check for collisions between projectiles and the asteroids near them
+        for (int i = 0; i < PROJECTILES.size(); i++) {
+            Projectile proj = PROJECTILES.get(i);
+
+            NEARBY_ASTEROIDS.clear();
+            ASTEROID_GRID.query(PROJECTILES.getX(i), PROJECTILES.getY(i), PROJECTILES.getRadius(i), NEARBY_ASTEROIDS);
+            for (int j = 0; j < NEARBY_ASTEROIDS.size(); j++) {
+                Asteroid asteroid = NEARBY_ASTEROIDS.get(j);
+                // An asteroid can only be destroyed once
+                if (!ASTEROIDS.isAlive(asteroid) || !proj.collide(asteroid)) {
+                    continue;
+                }
+                ASTEROIDS.kill(asteroid);
+                listener.asteroidDestroyed(asteroid);
+
+                // Sub asteroids spawn after the animation finishes
+                addPendingSplit(asteroid, simTime + ASTEROID_BREAK_TIME);
+
+                // Points given decrease with the asteroid level, since higher levels split into lower ones anyway
+                points += (int) (SCR_MULT / pow(2, asteroid.getLevel() - 1));
+                listener.scoreChanged(points);
+
+                PROJECTILES.kill(proj);
+                listener.projectileDestroyed(proj);
+                break;
+            }
+        }
+
+        // Remove off-screen projectiles
+        PROJECTILES.cullOutside(width, height, DESPAWN);
+
+        // This isn't on the animation, since otherwise you could still hit the asteroid until it finishes
+        ASTEROIDS.removeDead();
+        PROJECTILES.removeDead(STORE::releaseProjectile);
+        profiler.lap(FrameProfiler.Phase.COLLISION);
+    }
+
+    /**
+     * Adds the resulting {@link Asteroid Asteroids} after splitting one main Asteroid to a list.
+     * <p>
+     * L1 asteroids don't split, so in that case nothing is added. For any other level, the logic for generating
+     * asteroids is as follows: for an asteroid of level {@code n}, {@code n} asteroids will be generated. Of those,
+     * half will be L1 asteroids. The other half may also consist of L1s, however each asteroid will have a chance of
+     * {@code 1/n} of being an L(n-1) instead.
+     * <p>
+     * The asteroids will move in a random direction, and be slightly offset from their parent's original position.
+     * They're taken from the entity store's pools, but not added to the asteroid table. The list is passed in so it can
+     * be reused, since asteroids split constantly during a game.
+     *
+     * @param origin       the Asteroid to split.
+     * @param newAsteroids the list the resulting Asteroids are added to.
+     */
+    public void splitAsteroid(Asteroid origin, List<Asteroid> newAsteroids) {
+        if (origin.getLevel() > 1) {
+            for (int i = 0; i < origin.getLevel(); i++) {
+                int asteroidLvl = (i < origin.getLevel() / 2 && splitRand.nextDouble() < (double) 1 / origin.getLevel())
+                        ? origin.getLevel() - 1 : 1;
+                Asteroid asteroid = makeAsteroid(
+                        origin.getX() + splitRand.nextDouble() * 30 - 15,
+                        origin.getY() + splitRand.nextDouble() * 30 - 15,
+                        asteroidLvl,
+                        1,
+                        splitRand
+                );
+                newAsteroids.add(asteroid);
+            }
+        }
+    }
+
+    /**
+     * Returns the player ship.
+     *
+     * @return the {@link Ship}.
+     */
+    public Ship getShip() {
+        return SHIP;
+    }
+
+    /**
+     * Returns the table of asteroids currently in the game.
+     *
+     * @return the asteroid {@link ArchetypeTable}.
+     */
+    public ArchetypeTable<Asteroid> getAsteroids() {
+        return ASTEROIDS;
+    }
+
+    /**
+     * Returns the table of projectiles currently in the game.
+     *
+     * @return the projectile {@link ArchetypeTable}.
+     */
+    public ArchetypeTable<Projectile> getProjectiles() {
+        return PROJECTILES;
+    }
+
+    /**
+     * Returns the store holding the entity tables and pools.
+     *
+     * @return the {@link EntityStore}.
+     */
+    public EntityStore getStore() {
+        return STORE;
+    }
+
+    /**
+     * Returns the broad phase grid, as it was built on the last step.
+     *
+     * @return the asteroid {@link SpatialGrid}.
+     */
+    public SpatialGrid<Asteroid> getAsteroidGrid() {
+        return ASTEROID_GRID;
+    }
+
+    /**
+     * Returns the player's score in the current game.
+     *
+     * @return the number of points.
+     */
+    public int getPoints() {
+        return points;
+    }
+
+    /**
+     * Returns the width of the screen the current game was started with.
+     *
+     * @return the width in pixels.
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the screen the current game was started with.
+     *
+     * @return the height in pixels.
+     */
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the seed the current game was started with.
+     *
+     * @return the seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns a hash of the state of the simulation: the position, rotation and velocity of every entity, the score
+     * and the simulated time. Two worlds with the same hash are, for all practical purposes, in the same state.
+     * <p>
+     * Every entity is visited, so this is meant to be called every few steps rather than on every one.
+     *
+     * @return a 64-bit hash of the world state.
+     */
+    public long getStateHash() {
+        long hash = mix(0xCBF29CE484222325L, hashEntity(0, SHIP));
+        for (int i = 0; i < ASTEROIDS.size(); i++) {
+            hash = mix(hash, hashEntity(ASTEROIDS.getLevel(i), ASTEROIDS.get(i)));
+        }
+        for (int i = 0; i < PROJECTILES.size(); i++) {
+            hash = mix(hash, hashEntity(0, PROJECTILES.get(i)));
+        }
+        hash = mix(hash, pendingCount);
+        hash = mix(hash, points);
+        hash = mix(hash, spreadShot ? 1 : 0);
+        return mix(hash, Double.doubleToLongBits(simTime));
+    }
+
+    /**
+     * Returns the time simulated since the game started.
+     *
+     * @return the simulated time in seconds.
+     */
+    public double getSimTime() {
+        return simTime;
+    }
+
+    /**
+     * Returns whether the ship has hit an asteroid.
+     *
+     * @return {@code true} if the game is over, {@code false} otherwise.
+     */
+    public boolean isShipDestroyed() {
+        return shipDestroyed;
+    }
+
+    /**
+     * Returns whether the spread shot cheat is active.
+     *
+     * @return {@code true} if the ship fires 3 projectiles at a time, {@code false} otherwise.
+     */
+    public boolean isSpreadShot() {
+        return spreadShot;
+    }
+
+    /**
+     * Turns the spread shot cheat on or off. It's also turned off when the ship is destroyed.
+     *
+     * @param spreadShot whether the ship fires 3 projectiles at a time.
+     */
+    public void setSpreadShot(boolean spreadShot) {
+        this.spreadShot = spreadShot;
+    }
+
+    /**
+     * Makes the ship survive hitting asteroids, so the game never ends. The collision test still runs as usual, which
+     * is useful for benchmarks that need the world to keep going.
+     *
+     * @param invincible whether the ship can be destroyed.
+     */
+    public void setInvincible(boolean invincible) {
+        this.invincible = invincible;
+    }
+
+    /**
+     * Returns the cell size for the collision grid, so that the biggest asteroids fit in a single cell.
+     *
+     * @return the width and height of each cell in pixels.
+     */
+    public static double getGridCellSize() {
+        // The shape library knows the bounding radius of every asteroid shape, see PolygonFactory
+        return 2 * PolygonFactory.getMaxAsteroidRadius();
+    }
+
+    /**
+     * Fires 1 projectile from the ship, or 3 if spread shot is active.
+     */
+    private void fire() {
+        /* "i" represents the angle of the shot, using a loop here avoids code repetition for the additional
+           projectiles, since they're the same thing with different starting angles. */
+        for (int i = -15; i <= 15; i += 15) {
+            if (spreadShot || i == 0) {
+                Projectile proj = STORE.acquireProjectile(SHIP.getX(), SHIP.getY());
+                proj.setRotation(SHIP.getRotation() + i);
+
+                // Projectiles always move at the same speed in the direction they're facing, plus the ship's velocity
+                double angle = Math.toRadians(proj.getRotation());
+                double speed = 180;
+                proj.setVelocity(Math.cos(angle) * speed + SHIP.getVelocityX(),
+                        Math.sin(angle) * speed + SHIP.getVelocityY());
+
+                PROJECTILES.add(proj);
+                listener.entitySpawned(proj);
+            }
+        }
+
+        listener.shotFired(spreadShot);
+        cooldown += FIRE_COOLDOWN;
+    }
+
+    /**
+     * Schedules an asteroid that was hit to split once its break animation finishes.
+     *
+     * @param origin    the Asteroid that was hit.
+     * @param splitTime the simulation time at which it splits, in seconds.
+     */
+    private void addPendingSplit(Asteroid origin, double splitTime) {
+        if (pendingCount == pendingOrigins.length) {
+            pendingOrigins = Arrays.copyOf(pendingOrigins, pendingCount * 2);
+            pendingTimes = Arrays.copyOf(pendingTimes, pendingCount * 2);
+        }
+        pendingOrigins[pendingCount] = origin;
+        pendingTimes[pendingCount] = splitTime;
+        pendingCount++;
+    }
+
+    /**
+     * Spawns an asteroid at a random position outside the ship's safe zone.
+     *
+     * @param level   the level of the asteroid.
+     * @param velMult multiplier for the asteroid velocity.
+     */
+    private void spawnAsteroid(int level, double velMult) {
+        /* Pick a position outside the safe zone before creating anything, leaving room for the biggest asteroid shape of
+           this level, so the asteroid can never overlap the zone */
+        double spawnRadius = SHIP.getSafeZoneRadius() + PolygonFactory.getMaxAsteroidRadius(level);
+        if (spawnSampler.sample(width, height, SHIP.getX(), SHIP.getY(), spawnRadius)) {
+            Asteroid asteroid = makeAsteroid(spawnSampler.getX(), spawnSampler.getY(), level, velMult, spawnRand);
+            ASTEROIDS.add(asteroid);
+            listener.entitySpawned(asteroid);
+        }
+    }
+
+    /**
+     * Creates an {@link Asteroid} of the specified level at the given X and Y coordinates, with a random shape and
+     * movement.
+     * <p>
+     * Asteroids are taken from the entity store's pools, so the returned Asteroid must either be added to the asteroid
+     * table or given back with {@link EntityStore#releaseAsteroid(Asteroid)}.
+     *
+     * @param x       x coordinate for the Asteroid.
+     * @param y       y coordinate for the Asteroid.
+     * @param level   the Asteroid level.
+     * @param velMult multiplier for the asteroid velocity.
+     * @param rand    the random stream used for the asteroid's movement.
+     * @return        the created Asteroid.
+     */
+    private Asteroid makeAsteroid(double x, double y, int level, double velMult, RandomGenerator rand) {
+        Asteroid asteroid = STORE.acquireAsteroid(x, y, level);
+        asteroid.randomize(shapeRand, rand);
+        asteroid.setVelocity(asteroid.getVelocityX() * velMult / sqrt(level), asteroid.getVelocityY() * velMult / sqrt(level));
+        return asteroid;
+    }
+
+    /**
+     * Hashes the state of a single entity.
+     */
+    private static long hashEntity(int kind, Entity entity) {
+        long hash = mix(kind, Double.doubleToLongBits(entity.getX()));
+        hash = mix(hash, Double.doubleToLongBits(entity.getY()));
+        hash = mix(hash, Double.doubleToLongBits(entity.getRotation()));
+        hash = mix(hash, Double.doubleToLongBits(entity.getVelocityX()));
+        return mix(hash, Double.doubleToLongBits(entity.getVelocityY()));
+    }
+
+    /**
+     * Combines a value into a hash, FNV-1a style but a whole {@code long} at a time.
+     */
+    private static long mix(long hash, long value) {
+        return (hash ^ value) * 0x100000001B3L;
+    }
+
+    /**
+     * Receives everything that happens in a {@link GameWorld}. All methods do nothing by default.
+     */
+    public interface Listener {
+
+        /**
+         * Called when an {@link Entity} is added to the world.
+         *
+         * @param entity the new Entity.
+         */
+        default void entitySpawned(Entity entity) {
+        }
+
+        /**
+         * Called when an {@link Entity} leaves the screen and is removed from the world.
+         *
+         * @param entity the removed Entity.
+         */
+        default void entityDespawned(Entity entity) {
+        }
+
+        /**
+         * Called when an {@link Asteroid} is hit by a projectile. It splits {@link #ASTEROID_BREAK_TIME} seconds later.
+         *
+         * @param asteroid the Asteroid that was hit.
+         */
+        default void asteroidDestroyed(Asteroid asteroid) {
+        }
+
+        /**
+         * Called when a {@link Projectile} hits an asteroid and is removed from the world.
+         *
+         * @param projectile the Projectile that hit.
+         */
+        default void projectileDestroyed(Projectile projectile) {
+        }
+
+        /**
+         * Called when the ship fires.
+         *
+         * @param spreadShot whether 3 projectiles were fired instead of 1.
+         */
+        default void shotFired(boolean spreadShot) {
+        }
+
+        /**
+         * Called when the score changes.
+         *
+         * @param points the new score.
+         */
+        default void scoreChanged(int points) {
+        }
+
+        /**
+         * Called when the ship hits an asteroid. The world stops changing after this.
+         */
+        default void shipDestroyed() {
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package dev.apolonio.asteroids;
+
+import dev.apolonio.asteroids.domain.Asteroid;
+import dev.apolonio.asteroids.domain.Entity;
+import dev.apolonio.asteroids.domain.Projectile;
+import javafx.animation.KeyFrame;
+import javafx.animation.KeyValue;
+import javafx.animation.Timeline;
+import javafx.scene.Node;
+import javafx.scene.layout.Pane;
+import javafx.scene.shape.Polygon;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Draws each {@link Entity} as its own {@link Polygon} node, styled with CSS.
+ * <p>
+ * Nodes are created when an entity is added, and {@link #render(long)} copies the position, rotation and scale of every
+ * entity to its node. Stars aren't drawn here, see {@link Starfield}.
+ * <p>
+ * When an entity is removed its node is kept for a while, so if the same entity is added again, like entities taken
+ * from a pool, the node is reused instead of being created again. Its vertices are only replaced if the entity's shape
+ * changed in the meantime.
+ * <p>
+ * Destroy animations are kept track of while they play, so clearing the renderer stops them and removes their nodes
+ * right away, instead of leaving them to finish on their own after a new game has started.
+ */
+public class NodeRenderer implements EntityRenderer {
+
+    // Maximum number of unused nodes kept for reuse
+    private static final int MAX_SPARE_NODES = 128;
+
+    private final Map<Entity, Polygon> NODES = new HashMap<>();
+
+    // Nodes of removed entities, the least recently removed one is dropped when there are too many
+    private final Map<Entity, Polygon> SPARE_NODES = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Entity, Polygon> eldest) {
+            return size() > MAX_SPARE_NODES;
+        }
+    };
+
+    // Destroy animations still playing
+    private final List<Timeline> ANIMATIONS = new ArrayList<>();
+
+    // Separate layers are used for each kind of entity, so spawning more of them won't mess with the drawing order
+    private final Pane VIEW;
+    private final Pane SHIP_LAYER;
+    private final Pane ASTEROID_LAYER;
+    private final Pane PROJECTILE_LAYER;
+
+    /**
+     * Creates a new renderer with no entities.
+     */
+    public NodeRenderer() {
+        SHIP_LAYER = new Pane();
+        ASTEROID_LAYER = new Pane();
+        PROJECTILE_LAYER = new Pane();
+        VIEW = new Pane(SHIP_LAYER, ASTEROID_LAYER, PROJECTILE_LAYER);
+        VIEW.setMouseTransparent(true);
+    }
+
+    @Override
+    public Node getView() {
+        return VIEW;
+    }
+
+    @Override
+    public void add(Entity entity) {
+        Polygon node = SPARE_NODES.remove(entity);
+        if (node != null) {
+            node.setOpacity(1);
+            if (node.getUserData() != entity.getShape()) {
+                setPoints(entity, node);
+            }
+            sync(entity, node);
+        } else {
+            node = createNode(entity);
+        }
+
+        NODES.put(entity, node);
+        getLayer(entity).getChildren().add(node);
+    }
+
+    @Override
+    public void remove(Entity entity) {
+        Polygon node = NODES.remove(entity);
+        if (node != null) {
+            getLayer(entity).getChildren().remove(node);
+            SPARE_NODES.put(entity, node);
+        }
+    }
+
+    @Override
+    public void destroy(Entity entity, double factor, double duration, Runnable onFinished) {
+        // Nodes stop being updated, so that the scale can change for the animation
+        Polygon node = NODES.remove(entity);
+        if (node == null) {
+            // Nothing to animate, so it's already finished
+            onFinished.run();
+            return;
+        }
+
+        Pane layer = getLayer(entity);
+        Timeline timeline = getScaleAnimation(node, factor, duration);
+        timeline.setOnFinished(event -> {
+            ANIMATIONS.remove(timeline);
+            layer.getChildren().remove(node);
+            // The entity may have been added again with another node while this one was animating
+            if (!NODES.containsKey(entity)) {
+                SPARE_NODES.put(entity, node);
+            }
+            onFinished.run();
+        });
+        ANIMATIONS.add(timeline);
+        timeline.play();
+    }
+
+    @Override
+    public void setOpacity(Entity entity, double opacity) {
+        Polygon node = NODES.get(entity);
+        if (node != null) {
+            node.setOpacity(opacity);
+        }
+    }
+
+    @Override
+    public void clear() {
+        SPARE_NODES.putAll(NODES);
+        NODES.clear();
+
+        // Stopping doesn't run the finish handlers, the nodes being animated are removed with the rest and dropped
+        ANIMATIONS.forEach(Timeline::stop);
+        ANIMATIONS.clear();
+
+        SHIP_LAYER.getChildren().clear();
+        ASTEROID_LAYER.getChildren().clear();
+        PROJECTILE_LAYER.getChildren().clear();
+    }
+
+    @Override
+    public void resize(double width, double height, double pixelScale) {
+        // Nodes are positioned individually and scaled as vectors, so there's nothing to resize
+    }
+
+    @Override
+    public void render(long now) {
+        for (Map.Entry<Entity, Polygon> entry : NODES.entrySet()) {
+            sync(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Returns the layer nodes for the specified {@link Entity} are added to.
+     *
+     * @param entity an Entity.
+     * @return       the {@link Pane} for the Entity's kind.
+     */
+    private Pane getLayer(Entity entity) {
+        if (entity instanceof Asteroid) {
+            return ASTEROID_LAYER;
+        } else if (entity instanceof Projectile) {
+            return PROJECTILE_LAYER;
+        }
+        return SHIP_LAYER;
+    }
+
+    /**
+     * Creates a node for the specified {@link Entity}.
+     *
+     * @param entity the Entity to create a node for.
+     * @return       a {@link Polygon} showing the Entity in its current state.
+     */
+    private static Polygon createNode(Entity entity) {
+        Polygon node = new Polygon();
+        node.getStyleClass().add(entity.getStyleClass());
+        setPoints(entity, node);
+        sync(entity, node);
+        return node;
+    }
+
+    /**
+     * Replaces the vertices of a node with those of an {@link Entity}'s shape, and remembers which shape they came from.
+     *
+     * @param entity the Entity to read from.
+     * @param node   the {@link Polygon} to update.
+     */
+    private static void setPoints(Entity entity, Polygon node) {
+        double[] points = entity.getPoints();
+        Double[] boxed = new Double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            boxed[i] = points[i];
+        }
+        node.getPoints().setAll(boxed);
+        node.setUserData(entity.getShape());
+    }
+
+    /**
+     * Copies the position, rotation and scale of an {@link Entity} to a node.
+     *
+     * @param entity the Entity to read from.
+     * @param node   the {@link Polygon} to update.
+     */
+    private static void sync(Entity entity, Polygon node) {
+        node.setTranslateX(entity.getX());
+        node.setTranslateY(entity.getY());
+        node.setRotate(entity.getRotation());
+        node.setScaleX(entity.getScale());
+        node.setScaleY(entity.getScale());
+    }
+
+    /**
+     * Creates an animation where a {@link Polygon} changes size then disappears.
+     *
+     * @param polygon  the Polygon used in the animation.
+     * @param factor   the scale factor used in the animation.
+     * @param duration how long the duration will last, in milliseconds.
+     * @return         a {@link Timeline} with the animation.
+     */
+    private static Timeline getScaleAnimation(Polygon polygon, double factor, double duration) {
+        KeyValue scaleX = new KeyValue(polygon.scaleXProperty(), polygon.getScaleX() * factor);
+        KeyValue scaleY = new KeyValue(polygon.scaleYProperty(), polygon.getScaleY() * factor);
+        KeyValue opacity = new KeyValue(polygon.opacityProperty(), 0);
+
+        KeyFrame frame = new KeyFrame(Duration.millis(duration), scaleX, scaleY, opacity);
+
+        return new Timeline(frame);
+    }
+}
@@ -0,0 +1,296 @@
+package dev.apolonio.asteroids;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.transform.Scale;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Draws a dense background of stars in several layers that drift against the ship's movement, the far ones slower
+ * than the near ones, onto a single {@link Canvas}.
+ * <p>
+ * Each layer is one image the size of the screen, holding thousands of stars, which wraps around at the edges so it
+ * can be repeated in every direction. The images have as many pixels as the area they cover on the screen, so they
+ * stay sharp when the world is scaled up to fit the window. They're drawn pixel by pixel on background threads, one
+ * layer per thread, when the starfield is first sized and whenever its size on the screen changes, and only copied to
+ * the JavaFX thread once they're done. Drawing a frame then takes at most four image copies per layer, no matter how
+ * many stars there are, and nothing here runs during simulation steps.
+ * <p>
+ * Until the images for a new size are ready, the old ones keep being drawn, repeated to cover the screen.
+ */
+public class ParallaxStarfield {
+
+    // Fraction of the ship's velocity each layer moves at, from the farthest layer to the nearest one
+    private static final double[] DEPTHS = {0.04, 0.1, 0.22};
+
+    // Fraction of the stars in each layer, the far layers have the most
+    private static final double[] STAR_SHARES = {0.6, 0.28, 0.12};
+
+    // Radius of the stars in each layer in world units, and how bright they are at most
+    private static final double[] RADII = {0.55, 0.8, 1.15};
+    private static final double[] BRIGHTNESS = {0.5, 0.75, 1.0};
+
+    // World area the star count is given for, stars are spread at the same density on other world sizes
+    private static final double REFERENCE_AREA = 800 * 600;
+
+    // Largest step the drift is advanced by, in nanoseconds, so the stars don't jump after the game was paused
+    private static final long MAX_FRAME_TIME = 100_000_000;
+
+    private final Canvas CANVAS;
+    private final int STARS;
+    private final ExecutorService EXECUTOR;
+
+    // Increased whenever new images are asked for, so images for an old size are thrown away if they finish late
+    private final AtomicInteger GENERATION = new AtomicInteger();
+
+    // Images of each layer, and what they were drawn for, only used on the JavaFX thread
+    private WritableImage[] tiles = new WritableImage[0];
+    private int requestedWidth;
+    private int requestedHeight;
+    private double requestedPixelScale;
+
+    // Size of the drawing area in world units, screen pixels per world unit, and what the stars are drawn with
+    private double width;
+    private double height;
+    private double pixelScale = 1;
+    private long seed;
+
+    // How far each layer has drifted, in screen pixels
+    private final double[] OFFSET_X = new double[DEPTHS.length];
+    private final double[] OFFSET_Y = new double[DEPTHS.length];
+
+    // Timestamps can be negative, so whether one was recorded yet is kept separately
+    private boolean started;
+    private long lastRender;
+
+    /**
+     * Creates an empty starfield. Nothing is drawn until {@link #resize(double, double, double, long)} is
+     * called.
+     *
+     * @param stars the total number of stars in all layers on a screen of 800x600 pixels.
+     */
+    public ParallaxStarfield(int stars) {
+        CANVAS = new Canvas();
+        CANVAS.setMouseTransparent(true);
+        STARS = stars;
+
+        // Leave a core for the game itself
+        int threads = Math.max(1, Math.min(DEPTHS.length, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger count = new AtomicInteger();
+        // Daemons, so they don't keep the game running if it's closed while they're drawing
+        EXECUTOR = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "Starfield tiles " + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the node the stars are drawn in, to be added to the game layout behind the entities.
+     *
+     * @return the {@link Canvas}.
+     */
+    public Node getView() {
+        return CANVAS;
+    }
+
+    /**
+     * Changes the size of the area the stars are drawn in, and starts drawing new images for the layers in the
+     * background if their size on the screen changed. This must be called from the JavaFX thread.
+     *
+     * @param width      the width of the drawing area in world units.
+     * @param height     the height of the drawing area in world units.
+     * @param pixelScale the number of screen pixels per world unit.
+     * @param seed       the seed for placing the stars.
+     */
+    public void resize(double width, double height, double pixelScale, long seed) {
+        this.width = width;
+        this.height = height;
+        this.pixelScale = pixelScale;
+        this.seed = seed;
+
+        CANVAS.setWidth(Math.ceil(width * pixelScale));
+        CANVAS.setHeight(Math.ceil(height * pixelScale));
+        CANVAS.getTransforms().setAll(new Scale(1 / pixelScale, 1 / pixelScale));
+
+        int tileWidth = Math.max(1, (int) Math.ceil(width * pixelScale));
+        int tileHeight = Math.max(1, (int) Math.ceil(height * pixelScale));
+        if (tileWidth == requestedWidth && tileHeight == requestedHeight && pixelScale == requestedPixelScale) {
+            return;
+        }
+        requestedWidth = tileWidth;
+        requestedHeight = tileHeight;
+        requestedPixelScale = pixelScale;
+
+        int generation = GENERATION.incrementAndGet();
+        long start = System.nanoTime();
+        int layers = DEPTHS.length;
+        int stars = (int) (STARS * (width * height) / REFERENCE_AREA);
+
+        List<CompletableFuture<int[]>> pixels = new ArrayList<>(layers);
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (int layer = 0; layer < layers; layer++) {
+            int layerIndex = layer;
+            long layerSeed = seeds.nextLong();
+            int layerStars = (int) (stars * STAR_SHARES[layer]);
+            pixels.add(CompletableFuture.supplyAsync(() -> {
+                // Resizing the window asks for new images many times in a row, only the last ones are worth drawing
+                if (generation != GENERATION.get()) {
+                    return null;
+                }
+                return rasterize(tileWidth, tileHeight, layerStars, RADII[layerIndex] * pixelScale,
+                        BRIGHTNESS[layerIndex], layerSeed);
+            }, EXECUTOR));
+        }
+
+        CompletableFuture.allOf(pixels.toArray(CompletableFuture<?>[]::new)).whenComplete((result, error) -> {
+            if (error != null) {
+                System.err.println("[DEBUG] Failed to draw starfield: " + error.getMessage());
+                return;
+            }
+            Platform.runLater(() -> {
+                if (generation != GENERATION.get()) {
+                    return;
+                }
+
+                WritableImage[] images = new WritableImage[layers];
+                for (int layer = 0; layer < layers; layer++) {
+                    images[layer] = new WritableImage(tileWidth, tileHeight);
+                    images[layer].getPixelWriter().setPixels(0, 0, tileWidth, tileHeight,
+                            PixelFormat.getIntArgbPreInstance(), pixels.get(layer).join(), 0, tileWidth);
+                }
+                // Drift is kept in screen pixels, so it's scaled along with the images to keep the stars in place
+                for (int layer = 0; layer < tiles.length; layer++) {
+                    OFFSET_X[layer] *= tileWidth / tiles[layer].getWidth();
+                    OFFSET_Y[layer] *= tileHeight / tiles[layer].getHeight();
+                }
+                tiles = images;
+                System.out.printf("[DEBUG] Drew %d stars at %dx%d in %.1f ms%n", stars, tileWidth, tileHeight,
+                        (System.nanoTime() - start) / 1e6);
+            });
+        });
+    }
+
+    /**
+     * Changes the number of screen pixels per world unit, such as when the window is resized, drawing new images for
+     * the layers with the same stars if needed. This must be called from the JavaFX thread.
+     *
+     * @param pixelScale the number of screen pixels per world unit.
+     */
+    public void setPixelScale(double pixelScale) {
+        resize(width, height, pixelScale, seed);
+    }
+
+    /**
+     * Moves every layer against a velocity for the time since the last frame, and draws them.
+     *
+     * @param now  the timestamp of the current frame in nanoseconds, as given by an
+     *             {@link javafx.animation.AnimationTimer AnimationTimer}.
+     * @param velX the velocity the stars drift against along the X axis, in world units per second.
+     * @param velY the velocity the stars drift against along the Y axis, in world units per second.
+     */
+    public void render(long now, double velX, double velY) {
+        double elapsed = started ? Math.min(now - lastRender, MAX_FRAME_TIME) / 1e9 : 0;
+        started = true;
+        lastRender = now;
+
+        GraphicsContext gc = CANVAS.getGraphicsContext2D();
+        double canvasWidth = CANVAS.getWidth();
+        double canvasHeight = CANVAS.getHeight();
+        gc.clearRect(0, 0, canvasWidth, canvasHeight);
+
+        for (int layer = 0; layer < tiles.length; layer++) {
+            WritableImage tile = tiles[layer];
+            double tileWidth = tile.getWidth();
+            double tileHeight = tile.getHeight();
+
+            OFFSET_X[layer] = floorMod(OFFSET_X[layer] + velX * pixelScale * DEPTHS[layer] * elapsed, tileWidth);
+            OFFSET_Y[layer] = floorMod(OFFSET_Y[layer] + velY * pixelScale * DEPTHS[layer] * elapsed, tileHeight);
+
+            // Repeat the tile from the drifted position until the screen is covered, which is 4 times if it fits
+            for (double y = -OFFSET_Y[layer]; y < canvasHeight; y += tileHeight) {
+                for (double x = -OFFSET_X[layer]; x < canvasWidth; x += tileWidth) {
+                    gc.drawImage(tile, x, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts the drift over, for when a new game starts.
+     */
+    public void reset() {
+        Arrays.fill(OFFSET_X, 0);
+        Arrays.fill(OFFSET_Y, 0);
+        started = false;
+    }
+
+    /**
+     * Draws one layer of stars, as premultiplied ARGB pixels. Stars near an edge wrap around to the opposite one, so
+     * the layer can be repeated without seams.
+     *
+     * @param width      the width of the layer in pixels.
+     * @param height     the height of the layer in pixels.
+     * @param stars      the number of stars.
+     * @param radius     the radius of the biggest stars in pixels.
+     * @param brightness the brightness of the brightest stars, from 0 to 1.
+     * @param seed       the seed for placing the stars.
+     * @return           the pixels, row by row.
+     */
+    static int[] rasterize(int width, int height, int stars, double radius, double brightness, long seed) {
+        int[] pixels = new int[width * height];
+        SplittableRandom rand = new SplittableRandom(seed);
+
+        for (int i = 0; i < stars; i++) {
+            double cx = rand.nextDouble(width);
+            double cy = rand.nextDouble(height);
+            double r = radius * (0.5 + 0.5 * rand.nextDouble());
+            double peak = brightness * (0.35 + 0.65 * rand.nextDouble());
+
+            // Cover every pixel the star touches, fading out over the last pixel of its radius
+            int extent = (int) Math.ceil(r + 0.5);
+            for (int dy = -extent; dy <= extent; dy++) {
+                int py = (int) Math.floor(cy) + dy;
+                double distY = py + 0.5 - cy;
+                int row = Math.floorMod(py, height) * width;
+                for (int dx = -extent; dx <= extent; dx++) {
+                    int px = (int) Math.floor(cx) + dx;
+                    double distX = px + 0.5 - cx;
+                    double coverage = Math.min(1, r + 0.5 - Math.sqrt(distX * distX + distY * distY));
+                    if (coverage <= 0) {
+                        continue;
+                    }
+
+                    // White, so every channel matches the alpha once premultiplied, overlapping stars keep the brighter
+                    int alpha = (int) Math.round(coverage * peak * 255);
+                    int index = row + Math.floorMod(px, width);
+                    if (alpha > (pixels[index] >>> 24)) {
+                        pixels[index] = alpha << 24 | alpha << 16 | alpha << 8 | alpha;
+                    }
+                }
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * Returns a value wrapped into the range from 0 to a limit.
+     */
+    private static double floorMod(double value, double limit) {
+        double wrapped = value % limit;
+        return wrapped < 0 ? wrapped + limit : wrapped;
+    }
+}
@@ -0,0 +1,154 @@
+package dev.apolonio.asteroids;
+
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.layout.Pane;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.transform.Scale;
+import javafx.scene.transform.Translate;
+import javafx.stage.Window;
+
+/**
+ * The area the game is played in, which maps the world's coordinates to the window.
+ * <p>
+ * The world is simulated in fixed logical units, so its size only depends on the aspect ratio of the window when a game
+ * starts, not on its resolution. Everything drawn in world coordinates goes in this pane, which has a single scale
+ * transform that fits the world in the scene, keeping its aspect ratio and centering it with black bars on the sides
+ * that don't fit. Anything drawn past the edges of the world is clipped.
+ * <p>
+ * The transform follows the size of the scene, so the window can be resized at any time, even mid-game, by changing
+ * two numbers instead of updating every entity.
+ */
+public class Playfield {
+    private final Pane VIEW;
+    private final Rectangle CLIP = new Rectangle();
+    private final Translate OFFSET = new Translate();
+    private final Scale SCALE = new Scale();
+    private final Scene SCENE;
+
+    private double width = 1;
+    private double height = 1;
+    private Runnable onRescale = () -> {};
+
+    /**
+     * Creates a playfield that fits the specified scene.
+     *
+     * @param scene the {@link Scene} the playfield is shown in.
+     */
+    public Playfield(Scene scene) {
+        SCENE = scene;
+        VIEW = new Pane();
+        VIEW.setClip(CLIP);
+        VIEW.getTransforms().setAll(OFFSET, SCALE);
+
+        scene.widthProperty().addListener((obs, oldValue, newValue) -> fit());
+        scene.heightProperty().addListener((obs, oldValue, newValue) -> fit());
+    }
+
+    /**
+     * Returns the pane nodes drawn in world coordinates are added to.
+     *
+     * @return the playfield's {@link Pane}.
+     */
+    public Pane getView() {
+        return VIEW;
+    }
+
+    /**
+     * Adds nodes drawn in world coordinates, on top of the ones already added.
+     *
+     * @param nodes the nodes to add.
+     */
+    public void add(Node... nodes) {
+        VIEW.getChildren().addAll(nodes);
+    }
+
+    /**
+     * Changes the size of the world shown, in logical units.
+     *
+     * @param width  the width of the world.
+     * @param height the height of the world.
+     */
+    public void setSize(double width, double height) {
+        this.width = width;
+        this.height = height;
+        CLIP.setWidth(width);
+        CLIP.setHeight(height);
+        fit();
+    }
+
+    /**
+     * Returns the width of the world shown.
+     *
+     * @return the width in logical units.
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the world shown.
+     *
+     * @return the height in logical units.
+     */
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the number of screen pixels per logical unit.
+     *
+     * @return the scale of the world on the screen.
+     */
+    public double getScale() {
+        return SCALE.getX();
+    }
+
+    /**
+     * Returns the width the world would have with the specified height, if it had the same aspect ratio as the scene.
+     *
+     * @param height the height of the world in logical units.
+     * @return       the width in logical units.
+     */
+    public double getWidthFor(double height) {
+        if (SCENE.getHeight() > 0) {
+            return height * SCENE.getWidth() / SCENE.getHeight();
+        }
+
+        // The scene isn't sized until its window is shown, but the window's size is close enough
+        Window window = SCENE.getWindow();
+        if (window != null && window.getHeight() > 0) {
+            return height * window.getWidth() / window.getHeight();
+        }
+        return height;
+    }
+
+    /**
+     * Sets the code run whenever the scale of the world on the screen changes, such as when the window is resized.
+     *
+     * @param onRescale the code to run.
+     */
+    public void setOnRescale(Runnable onRescale) {
+        this.onRescale = onRescale;
+    }
+
+    /**
+     * Scales the world to fit the scene, centered.
+     */
+    private void fit() {
+        double sceneWidth = SCENE.getWidth();
+        double sceneHeight = SCENE.getHeight();
+        if (sceneWidth <= 0 || sceneHeight <= 0) {
+            return;
+        }
+
+        double scale = Math.min(sceneWidth / width, sceneHeight / height);
+        OFFSET.setX((sceneWidth - width * scale) / 2);
+        OFFSET.setY((sceneHeight - height * scale) / 2);
+        if (scale != SCALE.getX()) {
+            SCALE.setX(scale);
+            SCALE.setY(scale);
+            onRescale.run();
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package dev.apolonio.asteroids;
 
-import javafx.scene.shape.Polygon;
+import dev.apolonio.asteroids.domain.Asteroid;
+import dev.apolonio.asteroids.domain.EntityShape;
 
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 import static java.lang.Math.PI;
 import static java.lang.Math.cos;
@@ -10,73 +14,178 @@ import static java.lang.Math.sin;
 import static java.lang.Math.sqrt;
 
 /**
- * This factory generates {@link Polygon Polygons} to be used in other classes.
+ * This factory generates polygon shapes to be used in other classes.
+ * <p>
+ * Shapes are returned as arrays of alternating X and Y vertex coordinates, so they can be used by the simulation
+ * without creating any JavaFX nodes.
+ * <p>
+ * Asteroid shapes are generated up front into a library with a number of variants for each level, which asteroids
+ * then share, so spawning an asteroid doesn't do any geometry work. The bounding radius and convex hull of each shape
+ * are calculated along with it.
  */
 public class PolygonFactory {
 
+    /* Number of asteroid shapes generated for each level, can be changed with the asteroids.shapeVariants system
+       property. Replays store it, since it changes which shapes asteroids get. */
+    private static final int SHAPE_VARIANTS = Math.max(1, Integer.getInteger("asteroids.shapeVariants", 8));
+
+    /* Seed for generating the shape library. It's fixed, so the library is the same in every run and a game seed is
+       enough to reproduce which shapes asteroids get. */
+    private static final long SHAPE_LIBRARY_SEED = 0x5EED_A57E_201DL;
+
+    // Asteroid shape variants, one list for each level
+    private static final List<List<EntityShape>> ASTEROID_SHAPES = createAsteroidShapes();
+
+    // Largest bounding radius of all asteroid shapes
+    private static final double MAX_ASTEROID_RADIUS = ASTEROID_SHAPES.stream()
+            .flatMap(List::stream)
+            .mapToDouble(EntityShape::getBoundingRadius)
+            .max()
+            .orElse(0);
+
+    /**
+     * Returns a random asteroid shape of the specified level from the shape library.
+     *
+     * @param level the level of the asteroid, from 1 to {@link Asteroid#MAX_LEVEL}.
+     * @param rand  the {@link RandomGenerator} used to pick the variant.
+     * @return      a shared {@link EntityShape}.
+     */
+    public static EntityShape getAsteroidShape(int level, RandomGenerator rand) {
+        List<EntityShape> variants = getAsteroidShapes(level);
+        return variants.get(rand.nextInt(variants.size()));
+    }
+
+    /**
+     * Returns every asteroid shape of the specified level in the shape library.
+     *
+     * @param level the level of the asteroid, from 1 to {@link Asteroid#MAX_LEVEL}.
+     * @return      an unmodifiable list of shared {@link EntityShape EntityShapes}.
+     */
+    public static List<EntityShape> getAsteroidShapes(int level) {
+        if (level < 1 || level > ASTEROID_SHAPES.size()) {
+            throw new IllegalArgumentException("Asteroid level must be between 1 and " + ASTEROID_SHAPES.size() + ".");
+        }
+        return ASTEROID_SHAPES.get(level - 1);
+    }
+
+    /**
+     * Returns the number of shapes in the shape library for each asteroid level. Which shape an asteroid gets depends
+     * on it, so games only play out the same way with the same number of variants.
+     *
+     * @return the number of shape variants per level.
+     */
+    public static int getShapeVariants() {
+        return SHAPE_VARIANTS;
+    }
+
+    /**
+     * Returns the largest bounding radius of all asteroid shapes in the shape library, before scaling.
+     *
+     * @return the radius of the biggest asteroid's bounding circle.
+     */
+    public static double getMaxAsteroidRadius() {
+        return MAX_ASTEROID_RADIUS;
+    }
+
+    /**
+     * Returns the largest bounding radius of the asteroid shapes of the specified level, before scaling.
+     *
+     * @param level the level of the asteroid, from 1 to {@link Asteroid#MAX_LEVEL}.
+     * @return      the radius of the biggest bounding circle for that level.
+     */
+    public static double getMaxAsteroidRadius(int level) {
+        double max = 0;
+        for (EntityShape shape : getAsteroidShapes(level)) {
+            max = Math.max(max, shape.getBoundingRadius());
+        }
+        return max;
+    }
+
     /**
-     * Creates a polygon to be used for asteroids of the specified level, using the {@link Polygon} class.
+     * Generates the shape library, with {@code SHAPE_VARIANTS} shapes for each level.
+     *
+     * @return an unmodifiable list of shapes for each level.
+     */
+    private static List<List<EntityShape>> createAsteroidShapes() {
+        PolygonFactory factory = new PolygonFactory();
+        RandomGenerator rand = new SplittableRandom(SHAPE_LIBRARY_SEED);
+        List<List<EntityShape>> shapes = new ArrayList<>();
+
+        for (int level = 1; level <= Asteroid.MAX_LEVEL; level++) {
+            List<EntityShape> variants = new ArrayList<>();
+            for (int i = 0; i < SHAPE_VARIANTS; i++) {
+                variants.add(new EntityShape(factory.createPolygon(level, rand)));
+            }
+            shapes.add(List.copyOf(variants));
+        }
+
+        return List.copyOf(shapes);
+    }
+
+    /**
+     * Creates the vertices of a polygon to be used for asteroids of the specified level.
      * <p>
      * The asteroid level must be at least 1, and polygons are generated with the following logic:
      * for an asteroid of size n, a polygon of {@code 2 * level + 1} sides will be generated.
      * <p>
      * The size of a polygon will be determined according to a normal distribution where the mean is given by
      * {@code 25 * sqrt(level)} and the standard deviation by {@code level}.
+     * <p>
+     * Asteroids take their shapes from the library instead, see {@link #getAsteroidShape(int, RandomGenerator)}.
      * @param level the level of the asteroid.
-     * @return      the generated Polygon.
+     * @param rand  the {@link RandomGenerator} used for the size and vertex positions.
+     * @return      the generated vertices, as alternating X and Y values.
      */
-    public Polygon createPolygon(int level) {
+    public double[] createPolygon(int level, RandomGenerator rand) {
         if (level < 1) {
             throw new IllegalArgumentException("Asteroid level must be greater than 0.");
         }
 
-        Random rand = new Random();
         // Please excuse all the magic numbers, I just plugged random functions into GeoGebra until things looked right.
         double size = rand.nextGaussian(25 * sqrt(level), level);
         int vertices = 2 * level + 1;
-        Polygon polygon = new Polygon();
+        double[] points = new double[2 * vertices];
 
         // This here figures out the x and y coords for an n-sided regular polygon using trigonometry, isn't math fun?
         double angleStep = 2 * PI / vertices;
         for (int i = 0; i < vertices; i++) {
-            polygon.getPoints().addAll(sin(i * angleStep) * size, -cos(i * angleStep) * size);
+            points[2 * i] = sin(i * angleStep) * size;
+            points[2 * i + 1] = -cos(i * angleStep) * size;
         }
 
         // Randomize slightly the position of each vertex
-        polygon.getPoints().replaceAll(p -> p + rand.nextDouble(10 * sqrt(level)));
-        
-        return polygon;
+        for (int i = 0; i < points.length; i++) {
+            points[i] += rand.nextDouble(10 * sqrt(level));
+        }
+
+        return points;
     }
 
     /**
-     * Creates a 4-point star to be used in the {@link dev.apolonio.asteroids.domain.Star Star} class.
+     * Creates the vertices of a 4-point star to be used in the {@link dev.apolonio.asteroids.domain.Star Star} class.
      * <p>
-     * The generated shape will be a star-shaped {@link Polygon}, with its size randomized according to a normal
-     * distribution and a proportion of {@code 1:3} for its inner size.
-     * @return the generated Polygon.
+     * The generated shape will be star-shaped, with its size randomized according to a normal distribution and a
+     * proportion of {@code 1:3} for its inner size.
+     * @param rand the {@link RandomGenerator} used for the size.
+     * @return     the generated vertices, as alternating X and Y values.
      */
-    public Polygon createStar() {
+    public double[] createStar(RandomGenerator rand) {
         // Randomize size of the star
-        Random rand = new Random();
         double size = rand.nextGaussian(5.0, 2.5);
         double innerSize = size / 3;
 
-        Polygon polygon = new Polygon();
-
         // Calculate positions of star points
         double c1 = Math.cos(Math.PI / 4);
         double s1 = Math.sin(Math.PI / 4);
 
-        // Add star vertices to polygon
-        polygon.getPoints().addAll(0.0, -size,
+        // Star vertices
+        return new double[] {0.0, -size,
                 s1 * innerSize, -c1 * innerSize,
                 size, 0.0,
                 s1 * innerSize, c1 * innerSize,
                 0.0, size,
                 -s1 * innerSize, c1 * innerSize,
                 -size, 0.0,
-                -s1 * innerSize, -c1 * innerSize);
-
-        return polygon;
+                -s1 * innerSize, -c1 * innerSize};
     }
 }
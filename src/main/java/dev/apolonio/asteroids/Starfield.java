@@ -0,0 +1,258 @@
+package dev.apolonio.asteroids;
+
+import dev.apolonio.asteroids.domain.Star;
+import javafx.animation.PauseTransition;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Polygon;
+import javafx.scene.transform.Rotate;
+import javafx.scene.transform.Scale;
+import javafx.scene.transform.Translate;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws the blinking stars in the background, all onto a single {@link Canvas}.
+ * <p>
+ * Stars never move, and blinking only changes their size a little, so each star is drawn once, at a few sizes between
+ * its full size and the smallest one it blinks down to, into a single image with the stylesheet applied. Every frame,
+ * the blink of each star is advanced from an array of phases, and the image of the star at the matching size is copied
+ * onto the canvas. That's one image copy per star, with no nodes, animations, or bounds to recalculate, and since the
+ * stars are only updated when {@link #render(long)} is called, they don't cost anything while the game is paused.
+ * <p>
+ * The canvas and the image are drawn with as many pixels as the area they cover on the screen, and the canvas is scaled
+ * back down to world units, so the stars stay sharp when the world is scaled up to fit the window. The image is drawn
+ * again once that scale stops changing, so dragging the window's edge doesn't redraw it on every step. Until then, the
+ * old image is stretched to the new scale.
+ */
+public class Starfield {
+
+    // Number of sizes each star is drawn at, more than enough for stars this small
+    private static final int BLINK_STEPS = 8;
+
+    // Stars blink down to this fraction of their size
+    private static final double BLINK_SCALE = 0.9;
+
+    // Longest time a star takes to shrink (or grow back), in nanoseconds
+    private static final double MAX_BLINK_PERIOD = 200_000_000;
+
+    // Largest step the blink is advanced by, so stars don't jump after the game was paused
+    private static final long MAX_FRAME_TIME = 100_000_000;
+
+    // Widest the image of the stars can be, wider images may not fit in a texture
+    private static final int MAX_SHEET_WIDTH = 4096;
+
+    // How long the scale has to stay the same before the image is drawn again for it
+    private static final Duration SHEET_REDRAW_DELAY = Duration.millis(200);
+
+    private final Canvas CANVAS;
+    private final List<String> STYLESHEETS;
+    private final PauseTransition SHEET_REDRAW;
+
+    // Stars being drawn, kept so the image can be drawn again at a new scale
+    private final List<Star> STARS = new ArrayList<>();
+
+    // Screen pixels per world unit
+    private double pixelScale = 1;
+
+    // Image with every star at every blink step, one row of steps per star, several stars side by side, and the number
+    // of screen pixels per world unit it was drawn for
+    private Image sheet;
+    private double sheetScale = 1;
+    private int cellSize;
+    private int starsPerRow;
+
+    // Position of each star, and how far along its blink it is, from 0 to 2, with 1 being the smallest size
+    private int starCount;
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private double[] blinkPeriods = new double[0];
+    private double[] phases = new double[0];
+
+    // Timestamps can be negative, so whether one was recorded yet is kept separately
+    private boolean started;
+    private long lastRender;
+
+    /**
+     * Creates an empty starfield.
+     *
+     * @param stylesheets the URLs of the stylesheets the star style is read from.
+     */
+    public Starfield(List<String> stylesheets) {
+        CANVAS = new Canvas();
+        CANVAS.setMouseTransparent(true);
+        STYLESHEETS = List.copyOf(stylesheets);
+        SHEET_REDRAW = new PauseTransition(SHEET_REDRAW_DELAY);
+        SHEET_REDRAW.setOnFinished(event -> drawSheet());
+    }
+
+    /**
+     * Returns the node the stars are drawn in, to be added to the game layout behind the entities.
+     *
+     * @return the {@link Canvas}.
+     */
+    public Node getView() {
+        return CANVAS;
+    }
+
+    /**
+     * Changes the size of the area the stars are drawn in, drawing the image of the stars again once the number of
+     * screen pixels per world unit stops changing. This must be called from the JavaFX thread.
+     *
+     * @param width      the width of the drawing area in world units.
+     * @param height     the height of the drawing area in world units.
+     * @param pixelScale the number of screen pixels per world unit.
+     */
+    public void resize(double width, double height, double pixelScale) {
+        CANVAS.setWidth(Math.ceil(width * pixelScale));
+        CANVAS.setHeight(Math.ceil(height * pixelScale));
+        CANVAS.getTransforms().setAll(new Scale(1 / pixelScale, 1 / pixelScale));
+
+        this.pixelScale = pixelScale;
+        if (sheet != null && pixelScale != sheetScale) {
+            SHEET_REDRAW.playFromStart();
+        }
+    }
+
+    /**
+     * Replaces the stars being drawn, and draws the images for them. This must be called from the JavaFX thread.
+     *
+     * @param stars the stars to draw.
+     * @param rand  the generator used for the speed and starting point of each star's blink.
+     */
+    public void setStars(List<Star> stars, RandomGenerator rand) {
+        STARS.clear();
+        STARS.addAll(stars);
+        starCount = stars.size();
+        if (xs.length < starCount) {
+            xs = new double[starCount];
+            ys = new double[starCount];
+            blinkPeriods = new double[starCount];
+            phases = new double[starCount];
+        }
+
+        for (int i = 0; i < starCount; i++) {
+            xs[i] = stars.get(i).getX();
+            ys[i] = stars.get(i).getY();
+            blinkPeriods[i] = Math.max(1, rand.nextDouble() * MAX_BLINK_PERIOD);
+            phases[i] = 0;
+        }
+        drawSheet();
+        started = false;
+    }
+
+    /**
+     * Stops drawing all stars.
+     */
+    public void clear() {
+        SHEET_REDRAW.stop();
+        STARS.clear();
+        starCount = 0;
+        sheet = null;
+        CANVAS.getGraphicsContext2D().clearRect(0, 0, CANVAS.getWidth(), CANVAS.getHeight());
+    }
+
+    /**
+     * Draws the image with every star at every blink step, at the current scale.
+     */
+    private void drawSheet() {
+        SHEET_REDRAW.stop();
+        sheetScale = pixelScale;
+
+        // Every star gets a cell big enough for the biggest one
+        double radius = 0;
+        for (Star star : STARS) {
+            double[] points = star.getPoints();
+            for (int i = 0; i < points.length; i += 2) {
+                radius = Math.max(radius, Math.hypot(points[i], points[i + 1]) * star.getScale() * pixelScale);
+            }
+        }
+        cellSize = (int) Math.ceil(2 * radius) + 2;
+        starsPerRow = Math.max(1, MAX_SHEET_WIDTH / (cellSize * BLINK_STEPS));
+
+        Group sprites = new Group();
+        for (int i = 0; i < starCount; i++) {
+            Star star = STARS.get(i);
+            for (int step = 0; step < BLINK_STEPS; step++) {
+                double scale = star.getScale() * pixelScale * (1 - (1 - BLINK_SCALE) * step / (BLINK_STEPS - 1));
+                Polygon sprite = new Polygon(star.getPoints());
+                sprite.getStyleClass().add(star.getStyleClass());
+                sprite.getTransforms().addAll(
+                        new Translate(getCellX(i, step) + cellSize / 2.0, getCellY(i) + cellSize / 2.0),
+                        new Rotate(star.getRotation()),
+                        new Scale(scale, scale));
+                sprites.getChildren().add(sprite);
+            }
+        }
+
+        if (starCount == 0) {
+            sheet = null;
+        } else {
+            // Snapshot the sprites in a scene that's never shown, so the stylesheet is applied to them
+            Scene scene = new Scene(sprites);
+            scene.getStylesheets().addAll(STYLESHEETS);
+            SnapshotParameters params = new SnapshotParameters();
+            params.setFill(Color.TRANSPARENT);
+            int rows = (starCount + starsPerRow - 1) / starsPerRow;
+            params.setViewport(new Rectangle2D(0, 0, Math.min(starCount, starsPerRow) * BLINK_STEPS * cellSize,
+                    rows * cellSize));
+            sheet = sprites.snapshot(params, null);
+        }
+    }
+
+    /**
+     * Advances the blink of every star to the current frame and draws them.
+     *
+     * @param now the timestamp of the current frame in nanoseconds, as given by an
+     *            {@link javafx.animation.AnimationTimer AnimationTimer}.
+     */
+    public void render(long now) {
+        long elapsed = started ? Math.min(now - lastRender, MAX_FRAME_TIME) : 0;
+        started = true;
+        lastRender = now;
+
+        GraphicsContext gc = CANVAS.getGraphicsContext2D();
+        gc.clearRect(0, 0, CANVAS.getWidth(), CANVAS.getHeight());
+        if (sheet == null) {
+            return;
+        }
+
+        // The image may have been drawn for another scale, if the window is still being resized
+        double size = cellSize * pixelScale / sheetScale;
+        double half = size / 2;
+        for (int i = 0; i < starCount; i++) {
+            // Goes from 0 to 2 and wraps around, shrinking for the first half and growing back for the second
+            double phase = (phases[i] + elapsed / blinkPeriods[i]) % 2;
+            phases[i] = phase;
+            double shrink = phase < 1 ? phase : 2 - phase;
+            int step = (int) Math.round(shrink * (BLINK_STEPS - 1));
+
+            gc.drawImage(sheet, getCellX(i, step), getCellY(i), cellSize, cellSize,
+                    xs[i] * pixelScale - half, ys[i] * pixelScale - half, size, size);
+        }
+    }
+
+    /**
+     * Returns the X coordinate of a star's image at a blink step, in the image of all stars.
+     */
+    private int getCellX(int star, int step) {
+        return ((star % starsPerRow) * BLINK_STEPS + step) * cellSize;
+    }
+
+    /**
+     * Returns the Y coordinate of a star's images, in the image of all stars.
+     */
+    private int getCellY(int star) {
+        return (star / starsPerRow) * cellSize;
+    }
+}
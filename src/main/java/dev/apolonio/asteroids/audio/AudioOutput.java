@@ -0,0 +1,24 @@
+package dev.apolonio.asteroids.audio;
+
+/**
+ * Where the {@link SoundMixer} sends the audio it mixes.
+ * <p>
+ * Audio is given as bytes in the {@link SoundMixer#FORMAT} format. An output must take it at the rate it's played, by
+ * blocking in {@link #write(byte[], int)} until there's room for more, since that is what keeps the mixer from running
+ * ahead of the speakers.
+ */
+public interface AudioOutput {
+
+    /**
+     * Writes audio to the output, blocking until all of it has been accepted.
+     *
+     * @param data   the buffer with the audio.
+     * @param length the number of bytes to write, from the start of the buffer.
+     */
+    void write(byte[] data, int length);
+
+    /**
+     * Stops the output and releases any device it uses.
+     */
+    void close();
+}
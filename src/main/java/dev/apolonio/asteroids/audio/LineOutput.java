@@ -0,0 +1,41 @@
+package dev.apolonio.asteroids.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Plays audio on the system's default sound device, through a {@link SourceDataLine}.
+ * <p>
+ * The line's buffer is kept small, since anything waiting in it delays every sound that starts after it.
+ */
+public class LineOutput implements AudioOutput {
+    private final SourceDataLine LINE;
+
+    /**
+     * Opens and starts a line on the default device.
+     *
+     * @param format       the format of the audio that will be written.
+     * @param bufferFrames the size of the line's buffer, in frames.
+     * @throws LineUnavailableException if the device is in use or can't be opened.
+     * @throws IllegalArgumentException if there is no device that supports the format.
+     */
+    public LineOutput(AudioFormat format, int bufferFrames) throws LineUnavailableException {
+        LINE = AudioSystem.getSourceDataLine(format);
+        LINE.open(format, bufferFrames * format.getFrameSize());
+        LINE.start();
+    }
+
+    @Override
+    public void write(byte[] data, int length) {
+        LINE.write(data, 0, length);
+    }
+
+    @Override
+    public void close() {
+        LINE.stop();
+        LINE.flush();
+        LINE.close();
+    }
+}
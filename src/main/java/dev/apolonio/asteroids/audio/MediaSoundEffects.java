@@ -0,0 +1,53 @@
+package dev.apolonio.asteroids.audio;
+
+import javafx.scene.media.Media;
+import javafx.scene.media.MediaPlayer;
+import javafx.util.Duration;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plays sound effects with a JavaFX {@link MediaPlayer} for each one.
+ * <p>
+ * This is what the game falls back to when the {@link SoundMixer} can't be used, for example if the sounds can't be
+ * decoded. Each sound can only play once at a time, since starting it again rewinds its player, and there's a short
+ * delay before a player starts.
+ */
+public class MediaSoundEffects implements SoundEffects {
+    private final List<MediaPlayer> PLAYERS = new ArrayList<>();
+
+    /**
+     * Creates a player for each sound.
+     *
+     * @param sounds the location of each sound file, indexed by sound number.
+     */
+    public MediaSoundEffects(List<URL> sounds) {
+        for (URL sound : sounds) {
+            PLAYERS.add(new MediaPlayer(new Media(sound.toExternalForm())));
+        }
+
+        // The fire sounds are much louder than the rest, and players can't normalize them like the mixer does
+        PLAYERS.get(FIRE).setVolume(0.20);
+        PLAYERS.get(SPREAD_FIRE).setVolume(0.20);
+
+        // Preload menu confirm sound. This is done so there isn't a delay when you first open the main menu.
+        PLAYERS.get(MENU_CONFIRM).play();
+        PLAYERS.get(MENU_CONFIRM).stop();
+    }
+
+    @Override
+    public void play(int sound) {
+        MediaPlayer player = PLAYERS.get(sound);
+        player.seek(Duration.ZERO);
+        player.play();
+    }
+
+    @Override
+    public void close() {
+        for (MediaPlayer player : PLAYERS) {
+            player.dispose();
+        }
+    }
+}
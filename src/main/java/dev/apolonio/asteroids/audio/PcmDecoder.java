@@ -0,0 +1,127 @@
+package dev.apolonio.asteroids.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+
+/**
+ * Decodes sound files into mono samples the {@link SoundMixer} can play.
+ * <p>
+ * Files are read with {@link AudioSystem}, so any format it has a reader for works. MP3 files need an MP3 service
+ * provider on the classpath, since the JDK doesn't come with one.
+ */
+public final class PcmDecoder {
+
+    private PcmDecoder() {
+    }
+
+    /**
+     * Decodes a sound file. Every channel is mixed into one, and the sound is resampled to the specified rate.
+     *
+     * @param url        the location of the file.
+     * @param sampleRate the sample rate to convert to, in Hz.
+     * @return           the samples, between -1 and 1.
+     * @throws IOException                   if the file can't be read.
+     * @throws UnsupportedAudioFileException if there's no reader for the file's format.
+     */
+    public static float[] decode(URL url, float sampleRate) throws IOException, UnsupportedAudioFileException {
+        try (InputStream in = new BufferedInputStream(url.openStream());
+             AudioInputStream source = AudioSystem.getAudioInputStream(in)) {
+            AudioFormat sourceFormat = source.getFormat();
+            int channels = sourceFormat.getChannels();
+            float sourceRate = sourceFormat.getSampleRate();
+
+            // Decode to 16-bit little-endian PCM, then convert that to floats
+            AudioFormat pcmFormat = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, sourceRate, 16, channels,
+                    channels * 2, sourceRate, false);
+            byte[] bytes;
+            try (AudioInputStream pcm = AudioSystem.getAudioInputStream(pcmFormat, source)) {
+                bytes = pcm.readAllBytes();
+            }
+
+            int frames = bytes.length / (channels * 2);
+            float[] samples = new float[frames];
+            for (int i = 0; i < frames; i++) {
+                float sum = 0;
+                for (int c = 0; c < channels; c++) {
+                    int at = (i * channels + c) * 2;
+                    sum += (short) ((bytes[at] & 0xFF) | (bytes[at + 1] << 8)) / 32768f;
+                }
+                samples[i] = sum / channels;
+            }
+
+            return sourceRate == sampleRate ? samples : resample(samples, sourceRate, sampleRate);
+        }
+    }
+
+    /**
+     * Changes the sample rate of a sound with linear interpolation. This isn't filtered, but the game's sounds are
+     * short and already close to the target rate, so it's good enough.
+     *
+     * @param samples the samples to convert.
+     * @param from    the current sample rate.
+     * @param to      the sample rate to convert to.
+     * @return        the converted samples.
+     */
+    private static float[] resample(float[] samples, float from, float to) {
+        int length = (int) ((long) samples.length * to / from);
+        float[] result = new float[length];
+        double step = from / (double) to;
+        for (int i = 0; i < length; i++) {
+            double pos = i * step;
+            int index = (int) pos;
+            float frac = (float) (pos - index);
+            float a = samples[Math.min(index, samples.length - 1)];
+            float b = samples[Math.min(index + 1, samples.length - 1)];
+            result[i] = a + (b - a) * frac;
+        }
+        return result;
+    }
+
+    /**
+     * Scales a sound so its loudest part has the specified volume, as long as that doesn't make it clip.
+     * <p>
+     * Loudness is measured as the RMS of the loudest 50 ms of the sound, which is closer to how loud it sounds than
+     * the peak is, so sounds that are short but loud end up as loud as sounds that are long but quiet.
+     *
+     * @param samples    the samples to scale, changed in place.
+     * @param sampleRate the sample rate of the sound.
+     * @param targetRms  the RMS the loudest part should have.
+     * @param maxPeak    the highest any sample may end up.
+     * @return           the gain that was applied.
+     */
+    public static float normalize(float[] samples, float sampleRate, float targetRms, float maxPeak) {
+        int window = Math.max(1, Math.min(samples.length, (int) (sampleRate * 0.05f)));
+
+        double sum = 0;
+        for (int i = 0; i < window; i++) {
+            sum += samples[i] * samples[i];
+        }
+        double loudest = sum;
+        for (int i = window; i < samples.length; i++) {
+            sum += samples[i] * samples[i] - samples[i - window] * samples[i - window];
+            loudest = Math.max(loudest, sum);
+        }
+
+        float peak = 0;
+        for (float sample : samples) {
+            peak = Math.max(peak, Math.abs(sample));
+        }
+
+        double rms = Math.sqrt(Math.max(loudest, 0) / window);
+        if (rms == 0 || peak == 0) {
+            return 1;
+        }
+
+        float gain = (float) Math.min(targetRms / rms, maxPeak / peak);
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] *= gain;
+        }
+        return gain;
+    }
+}
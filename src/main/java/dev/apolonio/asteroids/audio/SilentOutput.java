@@ -0,0 +1,59 @@
+package dev.apolonio.asteroids.audio;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An output that discards audio, but takes it at the same rate a sound device would.
+ * <p>
+ * This lets the mixer run exactly like it does with a real device on machines without one, such as build servers, or
+ * when sound is turned off with {@code -Dasteroids.audio=silent}.
+ */
+public class SilentOutput implements AudioOutput {
+    private final int FRAME_SIZE;
+    private final double NANOS_PER_FRAME;
+
+    // When the audio written so far would finish playing
+    private long playedUntil;
+    private volatile long bytesWritten;
+
+    /**
+     * Creates a silent output.
+     *
+     * @param format the format of the audio that will be written, used to tell how long it would take to play.
+     */
+    public SilentOutput(AudioFormat format) {
+        FRAME_SIZE = format.getFrameSize();
+        NANOS_PER_FRAME = 1e9 / format.getFrameRate();
+        playedUntil = System.nanoTime();
+    }
+
+    @Override
+    public void write(byte[] data, int length) {
+        long now = System.nanoTime();
+        // After a gap, start from now, like a device that ran out of audio
+        if (playedUntil < now) {
+            playedUntil = now;
+        }
+        playedUntil += (long) (length / FRAME_SIZE * NANOS_PER_FRAME);
+        bytesWritten += length;
+
+        long wait = playedUntil - System.nanoTime();
+        if (wait > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    /**
+     * Returns how much audio was written so far.
+     *
+     * @return the number of bytes written.
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void close() {
+    }
+}
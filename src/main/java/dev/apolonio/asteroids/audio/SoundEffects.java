@@ -0,0 +1,53 @@
+package dev.apolonio.asteroids.audio;
+
+/**
+ * Plays the game's sound effects.
+ * <p>
+ * Calls are fire-and-forget: they return right away, without waiting for the sound to start, so they can be made from
+ * the game loop. Sounds are identified by the number in their file name, {@code /sounds/snd<n>.mp3}, which the
+ * constants in this interface give names to.
+ */
+public interface SoundEffects {
+
+    /** Menu selection. */
+    int MENU_SELECT = 0;
+    /** Menu confirmation. */
+    int MENU_CONFIRM = 1;
+    /** Game paused. */
+    int PAUSE = 2;
+    /** Game unpaused. */
+    int UNPAUSE = 3;
+    /** Ship fire. */
+    int FIRE = 4;
+    /** Spread shot fire. */
+    int SPREAD_FIRE = 5;
+    /** Power up. */
+    int POWER_UP = 6;
+    /** Asteroid break. */
+    int ASTEROID_BREAK = 7;
+    /** Ship destroyed. */
+    int SHIP_DESTROYED = 8;
+
+    /**
+     * The number of sound effects.
+     */
+    int COUNT = 9;
+
+    /**
+     * Sound effects that don't play anything, used until the real ones are loaded.
+     */
+    SoundEffects NONE = sound -> {};
+
+    /**
+     * Starts playing a sound effect from the beginning.
+     *
+     * @param sound the number of the sound, one of the constants in this interface.
+     */
+    void play(int sound);
+
+    /**
+     * Stops every sound and releases the resources used for playing them. Nothing plays after this is called.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,246 @@
+package dev.apolonio.asteroids.audio;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays sound effects by mixing them on a thread of its own, from samples decoded up front.
+ * <p>
+ * There's a fixed number of voices, each playing one sound at its own gain. Starting a sound only adds a request to a
+ * lock-free queue and wakes the mixer thread, so {@link #play(int)} never blocks the thread calling it. If every voice
+ * is busy when a sound starts, the voice that has been playing the longest is taken over, since the end of a sound is
+ * usually its quietest part.
+ * <p>
+ * The mixer thread mixes small blocks and writes them to an {@link AudioOutput}, which blocks until the device has
+ * room for them. While nothing is playing, the thread sleeps and the device is left to run out of audio, so a new sound
+ * doesn't have to wait behind a buffer full of silence.
+ * <p>
+ * Sounds are given to the mixer with {@link #setSound(int, float[])}, which can happen while it's already running, so
+ * the sounds needed first can be decoded first. Playing a sound that isn't set yet does nothing.
+ */
+public class SoundMixer implements SoundEffects {
+
+    /**
+     * The format of the mixed audio: 44.1 kHz, 16-bit signed, mono, little-endian.
+     */
+    public static final AudioFormat FORMAT = new AudioFormat(44100, 16, 1, true, false);
+
+    /**
+     * The number of frames mixed at once, about 6 ms.
+     */
+    public static final int BLOCK_FRAMES = 256;
+
+    private record PlayRequest(int sound, float gain) {
+    }
+
+    private final AtomicReferenceArray<float[]> SOUNDS;
+    private final AudioOutput OUTPUT;
+    private final Queue<PlayRequest> REQUESTS = new ConcurrentLinkedQueue<>();
+    private final Thread MIXER_THREAD;
+
+    // Voice state, indexed by voice, a sound of -1 means the voice is free. Only used by the mixer thread.
+    private final int[] VOICE_SOUND;
+    private final float[][] VOICE_SAMPLES;
+    private final int[] VOICE_POSITION;
+    private final float[] VOICE_GAIN;
+    private final long[] VOICE_STARTED;
+    private long voicesStarted;
+
+    private volatile boolean running = true;
+    private volatile int activeVoices;
+    private volatile long stolenVoices;
+
+    /**
+     * Creates a mixer and starts its thread.
+     *
+     * @param sounds the number of sounds.
+     * @param output where to send the mixed audio.
+     * @param voices the maximum number of sounds that play at once.
+     * @throws IllegalArgumentException if there are no voices.
+     */
+    public SoundMixer(int sounds, AudioOutput output, int voices) {
+        if (voices < 1) {
+            throw new IllegalArgumentException("The mixer needs at least one voice.");
+        }
+
+        SOUNDS = new AtomicReferenceArray<>(sounds);
+        OUTPUT = output;
+
+        VOICE_SOUND = new int[voices];
+        VOICE_SAMPLES = new float[voices][];
+        VOICE_POSITION = new int[voices];
+        VOICE_GAIN = new float[voices];
+        VOICE_STARTED = new long[voices];
+        Arrays.fill(VOICE_SOUND, -1);
+
+        MIXER_THREAD = new Thread(this::run, "Sound mixer");
+        MIXER_THREAD.setDaemon(true);
+        MIXER_THREAD.setPriority(Thread.MAX_PRIORITY);
+        MIXER_THREAD.start();
+    }
+
+    /**
+     * Sets the samples of a sound, replacing any it had before. Voices already playing the sound keep playing the old
+     * samples.
+     *
+     * @param sound   the number of the sound.
+     * @param samples the samples, in the {@link #FORMAT} sample rate.
+     * @throws IndexOutOfBoundsException if there's no sound with that number.
+     */
+    public void setSound(int sound, float[] samples) {
+        SOUNDS.set(sound, Objects.requireNonNull(samples));
+    }
+
+    @Override
+    public void play(int sound) {
+        play(sound, 1);
+    }
+
+    /**
+     * Starts playing a sound effect from the beginning, at the specified volume.
+     *
+     * @param sound the number of the sound.
+     * @param gain  the volume, 1 being the sound's normal volume.
+     * @throws IndexOutOfBoundsException if there's no sound with that number.
+     */
+    public void play(int sound, float gain) {
+        Objects.checkIndex(sound, SOUNDS.length());
+        if (running) {
+            REQUESTS.offer(new PlayRequest(sound, gain));
+            LockSupport.unpark(MIXER_THREAD);
+        }
+    }
+
+    /**
+     * Returns the number of sounds playing.
+     *
+     * @return the number of busy voices, as of the last block mixed.
+     */
+    public int getActiveVoices() {
+        return activeVoices;
+    }
+
+    /**
+     * Returns how many times a sound was cut off to make room for a new one.
+     *
+     * @return the number of voices taken over.
+     */
+    public long getStolenVoices() {
+        return stolenVoices;
+    }
+
+    /**
+     * Stops the mixer thread, which closes the output once it's done with the block it's mixing.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(MIXER_THREAD);
+    }
+
+    /**
+     * The mixer thread's loop.
+     */
+    private void run() {
+        float[] mix = new float[BLOCK_FRAMES];
+        byte[] block = new byte[BLOCK_FRAMES * FORMAT.getFrameSize()];
+
+        try {
+            while (running) {
+                startRequested();
+                if (activeVoices == 0) {
+                    // Sleep until the next request, which unparks this thread
+                    LockSupport.park(this);
+                    continue;
+                }
+
+                Arrays.fill(mix, 0);
+                mixVoices(mix);
+
+                // Convert to 16-bit samples, clipping anything that adds up to more than full scale
+                for (int i = 0; i < BLOCK_FRAMES; i++) {
+                    float sample = Math.max(-1, Math.min(1, mix[i]));
+                    int value = (int) (sample * 32767);
+                    block[i * 2] = (byte) value;
+                    block[i * 2 + 1] = (byte) (value >> 8);
+                }
+                OUTPUT.write(block, block.length);
+            }
+        } finally {
+            OUTPUT.close();
+        }
+    }
+
+    /**
+     * Assigns a voice to every sound requested since the last block.
+     */
+    private void startRequested() {
+        PlayRequest request;
+        while ((request = REQUESTS.poll()) != null) {
+            float[] samples = SOUNDS.get(request.sound());
+            if (samples == null) {
+                continue;
+            }
+
+            int voice = -1;
+            int oldest = 0;
+            for (int i = 0; i < VOICE_SOUND.length; i++) {
+                if (VOICE_SOUND[i] < 0) {
+                    voice = i;
+                    break;
+                }
+                if (VOICE_STARTED[i] < VOICE_STARTED[oldest]) {
+                    oldest = i;
+                }
+            }
+            if (voice < 0) {
+                voice = oldest;
+                stolenVoices++;
+            } else {
+                activeVoices++;
+            }
+
+            VOICE_SOUND[voice] = request.sound();
+            VOICE_SAMPLES[voice] = samples;
+            VOICE_POSITION[voice] = 0;
+            VOICE_GAIN[voice] = request.gain();
+            VOICE_STARTED[voice] = voicesStarted++;
+        }
+    }
+
+    /**
+     * Adds the next block of every busy voice to the mix, and frees the voices that reach the end of their sound.
+     *
+     * @param mix the block to add to.
+     */
+    private void mixVoices(float[] mix) {
+        int active = 0;
+        for (int v = 0; v < VOICE_SOUND.length; v++) {
+            if (VOICE_SOUND[v] < 0) {
+                continue;
+            }
+
+            float[] samples = VOICE_SAMPLES[v];
+            int position = VOICE_POSITION[v];
+            int count = Math.min(BLOCK_FRAMES, samples.length - position);
+            float gain = VOICE_GAIN[v];
+            for (int i = 0; i < count; i++) {
+                mix[i] += samples[position + i] * gain;
+            }
+
+            if (position + count >= samples.length) {
+                VOICE_SOUND[v] = -1;
+                VOICE_SAMPLES[v] = null;
+            } else {
+                VOICE_POSITION[v] = position + count;
+                active++;
+            }
+        }
+        activeVoices = active;
+    }
+}
@@ -0,0 +1,224 @@
+package dev.apolonio.asteroids.batch;
+
+import dev.apolonio.asteroids.GameWorld;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Command line entry point that plays many headless games in parallel and prints statistics about them, for tuning the
+ * game's difficulty without having to play it.
+ * <p>
+ * Each game runs on its own {@link GameWorld}, driven by an {@link InputPolicy} instead of a player, on a fork-join pool
+ * with one thread per core by default. Games are independent and seeded from a single batch seed, so running the same
+ * batch twice gives the same statistics. Nothing here uses JavaFX, so it runs without a display:
+ * <pre>
+ * java -cp asteroids.jar dev.apolonio.asteroids.batch.BatchRunner --games 5000 --policy aim
+ * </pre>
+ * Options are {@code --games}, {@code --threads}, {@code --policy} (see {@link InputPolicy#NAMES}), {@code --seed},
+ * {@code --max-time} (simulated seconds before a game is stopped) and {@code --aspect} (the window's aspect ratio, as
+ * a number or like {@code 16:9}). The tick rate is read from the {@code asteroids.tickRate} system property, like in
+ * the game.
+ * <p>
+ * Games are played in a world of the same size the game uses: always {@link GameWorld#WORLD_HEIGHT} units high, only
+ * its width changes with the aspect ratio, so the results match games played in any window.
+ */
+public class BatchRunner {
+
+    // Number of simulation steps per second, the same property the game reads
+    private static final int TICK_RATE = Integer.getInteger("asteroids.tickRate", 60);
+
+    private int games = 1000;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private String policy = "random";
+    private long seed = 0;
+    private double maxTime = 600;
+    private double aspect = 4.0 / 3;
+
+    /**
+     * Runs a batch of games with the options given on the command line.
+     *
+     * @param args the command line options.
+     */
+    public static void main(String[] args) {
+        BatchRunner runner = new BatchRunner();
+        try {
+            runner.parseArgs(args);
+            // Fail early on a bad policy name, instead of in every task
+            InputPolicy.create(runner.policy, new SplittableRandom());
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: BatchRunner [--games n] [--threads n] [--policy " + String.join("|", InputPolicy.NAMES)
+                    + "] [--seed n] [--max-time seconds] [--aspect width:height]");
+            System.exit(1);
+        }
+
+        runner.run();
+    }
+
+    /**
+     * Reads the command line options.
+     *
+     * @param args the command line arguments.
+     * @throws IllegalArgumentException if an option is unknown, is missing its value, or has an invalid value.
+     */
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            try {
+                switch (option) {
+                    case "--games" -> games = Integer.parseInt(value);
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    case "--policy" -> policy = value;
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--max-time" -> maxTime = Double.parseDouble(value);
+                    case "--aspect" -> aspect = parseAspect(value);
+                    default -> throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+            }
+        }
+
+        if (games < 1 || threads < 1 || maxTime <= 0 || !(aspect > 0)) {
+            throw new IllegalArgumentException("Games, threads, max time and aspect ratio must be greater than 0.");
+        }
+    }
+
+    /**
+     * Reads an aspect ratio, either as a single number or as a width and a height separated by a colon.
+     *
+     * @param value the aspect ratio, like {@code 1.78} or {@code 16:9}.
+     * @return      the width divided by the height.
+     * @throws NumberFormatException if either part isn't a number.
+     */
+    private static double parseAspect(String value) {
+        int colon = value.indexOf(':');
+        if (colon < 0) {
+            return Double.parseDouble(value);
+        }
+        return Double.parseDouble(value.substring(0, colon)) / Double.parseDouble(value.substring(colon + 1));
+    }
+
+    /**
+     * Plays every game and prints the statistics.
+     */
+    private void run() {
+        // Game seeds are picked up front, so results don't depend on which thread runs which game
+        SplittableRandom seeds = new SplittableRandom(seed);
+        long[] gameSeeds = new long[games];
+        for (int i = 0; i < games; i++) {
+            gameSeeds[i] = seeds.nextLong();
+        }
+
+        System.out.println("Running " + games + " games with the " + policy + " policy on " + threads + " threads (seed "
+                + seed + ", " + TICK_RATE + " ticks per second, " + Math.round(GameWorld.WORLD_HEIGHT * aspect) + "x"
+                + Math.round(GameWorld.WORLD_HEIGHT) + " world)");
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        List<GameResult> results = new ArrayList<>(games);
+        try {
+            List<Future<GameResult>> futures = new ArrayList<>(games);
+            for (long gameSeed : gameSeeds) {
+                futures.add(pool.submit(() -> play(gameSeed)));
+            }
+            for (Future<GameResult> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupted, results are incomplete");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A game failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        printStats(results, elapsed);
+    }
+
+    /**
+     * Plays a single game until the ship is destroyed or the time limit is reached.
+     *
+     * @param gameSeed the seed for the game.
+     * @return         the result of the game.
+     */
+    private GameResult play(long gameSeed) {
+        GameWorld world = new GameWorld();
+        world.start(GameWorld.WORLD_HEIGHT * aspect, GameWorld.WORLD_HEIGHT, gameSeed);
+
+        // The policy gets a stream of its own, so its choices don't change the world's randomness
+        InputPolicy inputPolicy = InputPolicy.create(policy, new SplittableRandom(~gameSeed));
+
+        double dt = 1.0 / TICK_RATE;
+        long maxTicks = (long) (maxTime * TICK_RATE);
+        long ticks = 0;
+        int peakAsteroids = 0;
+        int peakProjectiles = 0;
+        while (!world.isShipDestroyed() && ticks < maxTicks) {
+            world.tick(dt, inputPolicy.nextInput(world));
+            ticks++;
+
+            peakAsteroids = Math.max(peakAsteroids, world.getAsteroids().size());
+            peakProjectiles = Math.max(peakProjectiles, world.getProjectiles().size());
+        }
+
+        return new GameResult(gameSeed, ticks, world.getSimTime(), world.isShipDestroyed(), world.getPoints(),
+                peakAsteroids, peakProjectiles);
+    }
+
+    /**
+     * Prints aggregate statistics for a batch of games.
+     *
+     * @param results the results of every game.
+     * @param elapsed the real time the batch took, in seconds.
+     */
+    private void printStats(List<GameResult> results, double elapsed) {
+        if (results.isEmpty()) {
+            return;
+        }
+
+        long totalTicks = results.stream().mapToLong(GameResult::ticks).sum();
+        long survived = results.stream().filter(r -> !r.destroyed()).count();
+        double simulated = totalTicks / (double) TICK_RATE;
+
+        System.out.printf("Simulated %.1f hours of play in %.2f s, %.0f ticks per second%n",
+                simulated / 3600, elapsed, totalTicks / elapsed);
+        System.out.printf("%d of %d games reached the %.0f s time limit%n", survived, results.size(), maxTime);
+        System.out.println();
+        System.out.println("                      mean       p10       p50       p90       max");
+        printRow("Survival time (s)", results, GameResult::survivalTime);
+        printRow("Score", results, GameResult::points);
+        printRow("Peak asteroids", results, GameResult::peakAsteroids);
+        printRow("Peak projectiles", results, GameResult::peakProjectiles);
+    }
+
+    /**
+     * Prints the mean, some percentiles and the maximum of one value across all games.
+     */
+    private static void printRow(String label, List<GameResult> results, ToDoubleFunction<GameResult> value) {
+        double[] values = results.stream().mapToDouble(value).sorted().toArray();
+        System.out.printf("%-18s%10.1f%10.1f%10.1f%10.1f%10.1f%n", label, Arrays.stream(values).average().orElse(0),
+                percentile(values, 0.1), percentile(values, 0.5), percentile(values, 0.9), values[values.length - 1]);
+    }
+
+    /**
+     * Returns a percentile of sorted values, using the nearest rank.
+     */
+    private static double percentile(double[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
@@ -0,0 +1,16 @@
+package dev.apolonio.asteroids.batch;
+
+/**
+ * The outcome of a single headless game.
+ *
+ * @param seed            the seed the game was started with.
+ * @param ticks           the number of steps simulated.
+ * @param survivalTime    the simulated time until the ship was destroyed, or until the game was stopped, in seconds.
+ * @param destroyed       whether the ship was destroyed, {@code false} if the game hit the time limit first.
+ * @param points          the final score.
+ * @param peakAsteroids   the most asteroids on the screen at once.
+ * @param peakProjectiles the most projectiles on the screen at once.
+ */
+public record GameResult(long seed, long ticks, double survivalTime, boolean destroyed, int points,
+                         int peakAsteroids, int peakProjectiles) {
+}
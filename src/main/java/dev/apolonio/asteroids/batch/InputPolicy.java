@@ -0,0 +1,105 @@
+package dev.apolonio.asteroids.batch;
+
+import dev.apolonio.asteroids.GameWorld;
+import dev.apolonio.asteroids.domain.ArchetypeTable;
+import dev.apolonio.asteroids.domain.Asteroid;
+import dev.apolonio.asteroids.domain.Ship;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Decides which keys are held on each step of a headless game, standing in for a player.
+ * <p>
+ * Policies may keep state between steps, so each game needs its own instance, see {@link #create(String,
+ * RandomGenerator)}.
+ */
+@FunctionalInterface
+public interface InputPolicy {
+
+    /**
+     * The names of the built-in policies.
+     */
+    String[] NAMES = {"idle", "spin", "random", "aim"};
+
+    /**
+     * Returns the input for the next step.
+     *
+     * @param world the world being played, as it is before the step.
+     * @return      the {@code INPUT_} flags from {@link GameWorld} to hold during the step.
+     */
+    int nextInput(GameWorld world);
+
+    /**
+     * Creates a new instance of a built-in policy:
+     * <ul>
+     *     <li>{@code idle} never presses anything, which shows how long the safe zone and spawn rules alone keep the
+     *     ship alive.</li>
+     *     <li>{@code spin} turns and fires all the time.</li>
+     *     <li>{@code random} holds a random set of keys for a random number of steps, then picks again.</li>
+     *     <li>{@code aim} turns towards the closest asteroid and fires once it's lined up.</li>
+     * </ul>
+     *
+     * @param name the name of the policy, one of {@link #NAMES}.
+     * @param rand the generator used by policies that make random choices.
+     * @return     a new policy.
+     * @throws IllegalArgumentException if there's no policy with that name.
+     */
+    static InputPolicy create(String name, RandomGenerator rand) {
+        return switch (name) {
+            case "idle" -> world -> 0;
+            case "spin" -> world -> GameWorld.INPUT_LEFT | GameWorld.INPUT_FIRE;
+            case "random" -> new InputPolicy() {
+                private int input;
+                private int stepsLeft;
+
+                @Override
+                public int nextInput(GameWorld world) {
+                    if (stepsLeft-- <= 0) {
+                        // Any combination of turning, thrusting and firing
+                        input = rand.nextInt(GameWorld.INPUT_SPREAD_SHOT);
+                        stepsLeft = 5 + rand.nextInt(55);
+                    }
+                    return input;
+                }
+            };
+            case "aim" -> InputPolicy::aimAtClosest;
+            default -> throw new IllegalArgumentException("Unknown input policy: " + name);
+        };
+    }
+
+    /**
+     * Turns the ship towards the closest asteroid, and fires if it's within a few degrees of where the ship is facing.
+     *
+     * @param world the world being played.
+     * @return      the input flags for the step.
+     */
+    private static int aimAtClosest(GameWorld world) {
+        Ship ship = world.getShip();
+        ArchetypeTable<Asteroid> asteroids = world.getAsteroids();
+
+        int closest = -1;
+        double closestDist = Double.MAX_VALUE;
+        for (int i = 0; i < asteroids.size(); i++) {
+            double dx = asteroids.getX(i) - ship.getX();
+            double dy = asteroids.getY(i) - ship.getY();
+            double dist = dx * dx + dy * dy;
+            if (dist < closestDist) {
+                closestDist = dist;
+                closest = i;
+            }
+        }
+        if (closest < 0) {
+            return 0;
+        }
+
+        // Angle to the asteroid relative to the ship's rotation, between -180 and 180 degrees
+        double target = Math.toDegrees(Math.atan2(asteroids.getY(closest) - ship.getY(), asteroids.getX(closest) - ship.getX()));
+        double diff = ((target - ship.getRotation()) % 360 + 540) % 360 - 180;
+
+        int input = diff < 0 ? GameWorld.INPUT_LEFT : GameWorld.INPUT_RIGHT;
+        if (Math.abs(diff) < 10) {
+            input |= GameWorld.INPUT_FIRE;
+        }
+        return input;
+    }
+}
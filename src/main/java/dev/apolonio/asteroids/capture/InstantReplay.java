@@ -0,0 +1,279 @@
+package dev.apolonio.asteroids.capture;
+
+import dev.apolonio.asteroids.GameWorld;
+import dev.apolonio.asteroids.domain.ArchetypeTable;
+import dev.apolonio.asteroids.domain.Asteroid;
+import dev.apolonio.asteroids.domain.Entity;
+import dev.apolonio.asteroids.domain.EntityShape;
+import dev.apolonio.asteroids.domain.Projectile;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the last few seconds of a game, so they can be saved as a clip after something worth keeping happens.
+ * <p>
+ * Instead of images, each frame keeps what's needed to draw it again: the shape, position, rotation, scale and opacity
+ * of every entity on the screen. Frames go into a ring buffer that is allocated once, with room for a fixed number of
+ * frames and of entities per frame, so recording a frame only copies numbers into arrays, and the memory used never
+ * changes. The ship is always kept, it's stored first, and asteroids and projectiles past the limit in a crowded frame
+ * are left out of it.
+ * <p>
+ * Exporting copies the buffer into a second one of the same size, also allocated up front, and a background thread
+ * draws each frame with a {@link WorldPainter} and saves it as a PNG file, while the game keeps recording into the
+ * first buffer. Only one clip can be exported at a time.
+ */
+public class InstantReplay {
+    private final int FRAMES;
+    private final int MAX_ENTITIES;
+    private final Frames RECORDED;
+    private final Frames EXPORTED;
+    private final AtomicBoolean EXPORTING = new AtomicBoolean();
+    private final ExecutorService EXPORTER;
+
+    // Slot the next frame goes into, and the number of frames recorded
+    private int head;
+    private int count;
+
+    /**
+     * A ring of frames, stored as flat arrays indexed by frame, and by frame and entity.
+     */
+    private static class Frames {
+        final float[] WIDTH;
+        final float[] HEIGHT;
+        final int[] ENTITY_COUNT;
+        final byte[] KIND;
+        final EntityShape[] SHAPE;
+        final float[] X;
+        final float[] Y;
+        final float[] ROTATION;
+        final float[] SCALE;
+        final float[] OPACITY;
+
+        Frames(int frames, int maxEntities) {
+            int slots = frames * maxEntities;
+            WIDTH = new float[frames];
+            HEIGHT = new float[frames];
+            ENTITY_COUNT = new int[frames];
+            KIND = new byte[slots];
+            SHAPE = new EntityShape[slots];
+            X = new float[slots];
+            Y = new float[slots];
+            ROTATION = new float[slots];
+            SCALE = new float[slots];
+            OPACITY = new float[slots];
+        }
+
+        /**
+         * Copies frames from another ring of the same size.
+         */
+        void copy(Frames from, int fromFrame, int toFrame, int frames, int maxEntities) {
+            System.arraycopy(from.WIDTH, fromFrame, WIDTH, toFrame, frames);
+            System.arraycopy(from.HEIGHT, fromFrame, HEIGHT, toFrame, frames);
+            System.arraycopy(from.ENTITY_COUNT, fromFrame, ENTITY_COUNT, toFrame, frames);
+
+            int fromSlot = fromFrame * maxEntities;
+            int toSlot = toFrame * maxEntities;
+            int slots = frames * maxEntities;
+            System.arraycopy(from.KIND, fromSlot, KIND, toSlot, slots);
+            System.arraycopy(from.SHAPE, fromSlot, SHAPE, toSlot, slots);
+            System.arraycopy(from.X, fromSlot, X, toSlot, slots);
+            System.arraycopy(from.Y, fromSlot, Y, toSlot, slots);
+            System.arraycopy(from.ROTATION, fromSlot, ROTATION, toSlot, slots);
+            System.arraycopy(from.SCALE, fromSlot, SCALE, toSlot, slots);
+            System.arraycopy(from.OPACITY, fromSlot, OPACITY, toSlot, slots);
+        }
+    }
+
+    /**
+     * Creates an instant replay buffer. Both buffers are allocated right away.
+     *
+     * @param frames      the number of frames kept.
+     * @param maxEntities the most entities kept in a single frame.
+     */
+    public InstantReplay(int frames, int maxEntities) {
+        if (frames < 1 || maxEntities < 1) {
+            throw new IllegalArgumentException("Frames and entities per frame must be greater than 0.");
+        }
+
+        FRAMES = frames;
+        MAX_ENTITIES = maxEntities;
+        RECORDED = new Frames(frames, maxEntities);
+        EXPORTED = new Frames(frames, maxEntities);
+        EXPORTER = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "Instant replay exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Forgets every recorded frame, for when a new game starts.
+     */
+    public void clear() {
+        head = 0;
+        count = 0;
+    }
+
+    /**
+     * Records the current state of a world as the newest frame, replacing the oldest one if the buffer is full.
+     *
+     * @param world       the {@link GameWorld} to record.
+     * @param shipOpacity the opacity of the ship, which fades away after it's destroyed.
+     */
+    public void record(GameWorld world, double shipOpacity) {
+        Frames frames = RECORDED;
+        int frame = head;
+        int slot = frame * MAX_ENTITIES;
+        int end = slot + MAX_ENTITIES;
+
+        frames.WIDTH[frame] = (float) world.getWidth();
+        frames.HEIGHT[frame] = (float) world.getHeight();
+
+        // Clips are mostly saved for the ship's death, so it takes the first slot, which also matches the game's layers
+        slot = put(frames, slot, WorldPainter.SHIP, world.getShip(), shipOpacity);
+        ArchetypeTable<Asteroid> asteroids = world.getAsteroids();
+        for (int i = 0; i < asteroids.size() && slot < end; i++) {
+            slot = put(frames, slot, WorldPainter.ASTEROID, asteroids.get(i), 1);
+        }
+        ArchetypeTable<Projectile> projectiles = world.getProjectiles();
+        for (int i = 0; i < projectiles.size() && slot < end; i++) {
+            slot = put(frames, slot, WorldPainter.PROJECTILE, projectiles.get(i), 1);
+        }
+
+        frames.ENTITY_COUNT[frame] = slot - frame * MAX_ENTITIES;
+        head = (head + 1) % FRAMES;
+        count = Math.min(count + 1, FRAMES);
+    }
+
+    /**
+     * Returns the number of frames recorded, up to the size of the buffer.
+     *
+     * @return the frame count.
+     */
+    public int getFrameCount() {
+        return count;
+    }
+
+    /**
+     * Returns whether a clip is being exported.
+     *
+     * @return {@code true} if an export is running, {@code false} otherwise.
+     */
+    public boolean isExporting() {
+        return EXPORTING.get();
+    }
+
+    /**
+     * Saves the recorded frames as a sequence of PNG files in the background, oldest first. The frames are copied
+     * before this returns, so recording can go on right away.
+     *
+     * @param folder the folder to save the frames to, which is created if needed.
+     * @param scale  the size of the saved frames relative to the screen, for example 0.5 for half size.
+     * @return       {@code true} if the export started, {@code false} if there are no frames or another clip is
+     *               still being exported.
+     */
+    public boolean export(Path folder, double scale) {
+        if (count == 0 || !EXPORTING.compareAndSet(false, true)) {
+            return false;
+        }
+
+        // Unroll the ring so the oldest frame comes first
+        int oldest = (head - count + FRAMES) % FRAMES;
+        int firstPart = Math.min(count, FRAMES - oldest);
+        EXPORTED.copy(RECORDED, oldest, 0, firstPart, MAX_ENTITIES);
+        if (firstPart < count) {
+            EXPORTED.copy(RECORDED, 0, firstPart, count - firstPart, MAX_ENTITIES);
+        }
+        int frames = count;
+
+        EXPORTER.execute(() -> {
+            try {
+                write(folder, frames, scale);
+            } catch (IOException e) {
+                System.err.println("[DEBUG] Failed to save clip: " + e.getMessage());
+            } finally {
+                // The shapes are shared with the game, so they're not kept alive by an old clip
+                Arrays.fill(EXPORTED.SHAPE, null);
+                EXPORTING.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Waits up to a few seconds for a clip being exported, then stops the exporter thread.
+     */
+    public void close() {
+        EXPORTER.shutdown();
+        try {
+            if (!EXPORTER.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.err.println("[DEBUG] Timed out saving clip");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Draws the exported frames and writes them to files named {@code frame_0000.png}, {@code frame_0001.png}, etc.
+     */
+    private void write(Path folder, int frames, double scale) throws IOException {
+        Files.createDirectories(folder);
+
+        int width = Math.max(1, (int) (EXPORTED.WIDTH[0] * scale));
+        int height = Math.max(1, (int) (EXPORTED.HEIGHT[0] * scale));
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        WorldPainter painter = new WorldPainter();
+        AffineTransform identity = new AffineTransform();
+        AffineTransform toImage = new AffineTransform();
+
+        try {
+            for (int frame = 0; frame < frames; frame++) {
+                painter.clear(g, width, height);
+                // The window may have been resized during the clip, so every frame is scaled to fit the image
+                toImage.setToScale(width / (double) EXPORTED.WIDTH[frame], height / (double) EXPORTED.HEIGHT[frame]);
+                g.setTransform(toImage);
+
+                int first = frame * MAX_ENTITIES;
+                for (int slot = first; slot < first + EXPORTED.ENTITY_COUNT[frame]; slot++) {
+                    painter.paint(g, EXPORTED.KIND[slot], EXPORTED.SHAPE[slot], EXPORTED.X[slot], EXPORTED.Y[slot],
+                            EXPORTED.ROTATION[slot], EXPORTED.SCALE[slot], EXPORTED.OPACITY[slot]);
+                }
+                g.setTransform(identity);
+
+                ImageIO.write(image, "png", folder.resolve(String.format("frame_%04d.png", frame)).toFile());
+            }
+        } finally {
+            g.dispose();
+        }
+        System.out.println("[DEBUG] Clip saved: " + folder.toAbsolutePath() + " (" + frames + " frames)");
+    }
+
+    /**
+     * Stores an entity in a slot of a frame.
+     *
+     * @return the next slot.
+     */
+    private static int put(Frames frames, int slot, byte kind, Entity entity, double opacity) {
+        frames.KIND[slot] = kind;
+        frames.SHAPE[slot] = entity.getShape();
+        frames.X[slot] = (float) entity.getX();
+        frames.Y[slot] = (float) entity.getY();
+        frames.ROTATION[slot] = (float) entity.getRotation();
+        frames.SCALE[slot] = (float) entity.getScale();
+        frames.OPACITY[slot] = (float) opacity;
+        return slot + 1;
+    }
+}
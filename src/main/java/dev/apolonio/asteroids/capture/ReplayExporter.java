@@ -0,0 +1,257 @@
+package dev.apolonio.asteroids.capture;
+
+import dev.apolonio.asteroids.GameWorld;
+import dev.apolonio.asteroids.replay.Replay;
+import dev.apolonio.asteroids.replay.ReplayPlayer;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Command line entry point that renders a recorded game to a sequence of PNG files, one per simulation step, at any
+ * resolution and much faster than the game could play it.
+ * <p>
+ * Nothing is recorded but the seed and the input, so the game is simulated again on a headless {@link GameWorld} and
+ * drawn with a {@link WorldPainter}, which uses the game's shapes and colors. The frames are split into chunks that are
+ * rendered in parallel, one per core by default. Worlds can't be copied, so each chunk simulates the game from the
+ * start up to its first frame without drawing anything, which takes a tiny fraction of the time drawing and encoding
+ * the frames does, then draws its frames into a single image it reuses.
+ * <pre>
+ * java -cp asteroids.jar dev.apolonio.asteroids.capture.ReplayExporter --replay game.replay --out frames --width 1920
+ * </pre>
+ * Options are {@code --replay} (required), {@code --out} (the folder for the frames, {@code frames} by default),
+ * {@code --width}/{@code --height} (the size of the frames, the recorded screen size by default, the other one follows
+ * the screen's aspect ratio when only one is given), {@code --from}/{@code --to} (the part of the game to render, in
+ * seconds) and {@code --threads}. Frame {@code n} shows the game after {@code n} steps, and if the ship was destroyed
+ * the frames end with it fading away, like in the game.
+ */
+public class ReplayExporter {
+
+    // Time the ship takes to fade away after being hit, in seconds, the same as in the game
+    private static final double DEATH_FADE_TIME = 1.0;
+
+    // Number of chunks per thread, more chunks even out the work between threads but simulate more steps overall
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private Path replayPath;
+    private Path out = Path.of("frames");
+    private int width;
+    private int height;
+    private double from = 0;
+    private double to = Double.POSITIVE_INFINITY;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    private Replay replay;
+    private final AtomicInteger framesDone = new AtomicInteger();
+
+    /**
+     * Renders a replay with the options given on the command line.
+     *
+     * @param args the command line options.
+     */
+    public static void main(String[] args) {
+        ReplayExporter exporter = new ReplayExporter();
+        try {
+            exporter.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: ReplayExporter --replay file [--out folder] [--width px] [--height px]"
+                    + " [--from seconds] [--to seconds] [--threads n]");
+            System.exit(1);
+        }
+
+        try {
+            exporter.replay = Replay.read(exporter.replayPath);
+            exporter.run();
+        } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+            System.err.println("Export failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads the command line options.
+     *
+     * @param args the command line arguments.
+     * @throws IllegalArgumentException if an option is unknown, is missing its value, or has an invalid value.
+     */
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            try {
+                switch (option) {
+                    case "--replay" -> replayPath = Path.of(value);
+                    case "--out" -> out = Path.of(value);
+                    case "--width" -> width = Integer.parseInt(value);
+                    case "--height" -> height = Integer.parseInt(value);
+                    case "--from" -> from = Double.parseDouble(value);
+                    case "--to" -> to = Double.parseDouble(value);
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    default -> throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+            }
+        }
+
+        if (replayPath == null) {
+            throw new IllegalArgumentException("Missing --replay");
+        }
+        if (width < 0 || height < 0 || threads < 1 || from < 0 || to <= from) {
+            throw new IllegalArgumentException("Size, threads and times must be positive, and --to after --from.");
+        }
+    }
+
+    /**
+     * Renders every frame in the range and prints how long it took.
+     */
+    private void run() throws IOException {
+        // Steps recorded, plus the fade after the last one if the ship was destroyed on it
+        int tickRate = replay.getTickRate();
+        long ticks = replay.getTickCount();
+        int fadeFrames = endsWithDeath() ? (int) Math.ceil(DEATH_FADE_TIME * tickRate) - 1 : 0;
+        long lastFrame = ticks + fadeFrames;
+
+        long first = Math.min((long) (from * tickRate), lastFrame);
+        long end = Math.min(to == Double.POSITIVE_INFINITY ? Long.MAX_VALUE : (long) Math.ceil(to * tickRate),
+                lastFrame) + 1;
+        long frames = end - first;
+
+        // Fill in the missing side from the screen's aspect ratio
+        if (width == 0 && height == 0) {
+            width = (int) replay.getWidth();
+            height = (int) replay.getHeight();
+        } else if (width == 0) {
+            width = Math.max(1, (int) Math.round(height * replay.getWidth() / replay.getHeight()));
+        } else if (height == 0) {
+            height = Math.max(1, (int) Math.round(width * replay.getHeight() / replay.getWidth()));
+        }
+
+        Files.createDirectories(out);
+        System.out.println("Rendering " + frames + " frames at " + width + "x" + height + " on " + threads
+                + " threads to " + out.toAbsolutePath());
+
+        long start = System.nanoTime();
+        int chunks = (int) Math.min(frames, (long) threads * CHUNKS_PER_THREAD);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long desyncTick = -1;
+        try {
+            List<Future<Long>> futures = new ArrayList<>(chunks);
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                long chunkFirst = first + frames * chunk / chunks;
+                long chunkEnd = first + frames * (chunk + 1) / chunks;
+                futures.add(pool.submit(() -> renderChunk(chunkFirst, chunkEnd, ticks)));
+            }
+            for (Future<Long> future : futures) {
+                long chunkDesync = future.get();
+                if (chunkDesync >= 0 && (desyncTick < 0 || chunkDesync < desyncTick)) {
+                    desyncTick = chunkDesync;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupted, frames are incomplete");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IllegalStateException("A chunk failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        if (desyncTick >= 0) {
+            System.err.println("Replay desynced at step " + desyncTick + ", frames after it don't match the recorded game");
+        }
+        System.out.printf("Rendered %d frames in %.2f s, %.1f frames per second%n", framesDone.get(), elapsed,
+                framesDone.get() / elapsed);
+    }
+
+    /**
+     * Renders a range of frames, simulating the game up to the first one without drawing.
+     *
+     * @param first the first frame to render.
+     * @param end   the frame after the last one to render.
+     * @param ticks the number of recorded steps.
+     * @return      the first step where the world didn't match the replay, or -1 if it always did.
+     */
+    private long renderChunk(long first, long end, long ticks) {
+        GameWorld world = new GameWorld();
+        ReplayPlayer player = new ReplayPlayer(replay);
+        player.start(world);
+        double dt = 1.0 / replay.getTickRate();
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        WorldPainter painter = new WorldPainter();
+
+        // Fit the screen in the image without stretching it, centered with black bars if the aspect ratio differs
+        double scale = Math.min(width / replay.getWidth(), height / replay.getHeight());
+        AffineTransform identity = new AffineTransform();
+        AffineTransform toImage = new AffineTransform();
+        toImage.translate((width - replay.getWidth() * scale) / 2, (height - replay.getHeight() * scale) / 2);
+        toImage.scale(scale, scale);
+
+        try {
+            for (long frame = 0; frame < end; frame++) {
+                // Frame 0 is the world as it started, each frame after it is one step later
+                if (frame > 0 && frame <= ticks) {
+                    world.tick(dt, player.nextInput());
+                    player.check(world);
+                }
+                if (frame < first) {
+                    continue;
+                }
+
+                double shipOpacity = frame <= ticks ? 1 : Math.max(0, 1 - (frame - ticks) * dt / DEATH_FADE_TIME);
+                painter.clear(g, width, height);
+                g.setTransform(toImage);
+                painter.paint(g, world, shipOpacity);
+                g.setTransform(identity);
+
+                ImageIO.write(image, "png", out.resolve(String.format("frame_%06d.png", frame)).toFile());
+                int done = framesDone.incrementAndGet();
+                if (done % 1000 == 0) {
+                    System.out.println(done + " frames rendered");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            g.dispose();
+        }
+        return player.getDesyncTick();
+    }
+
+    /**
+     * Returns whether the ship was destroyed on the last recorded step.
+     */
+    private boolean endsWithDeath() {
+        GameWorld world = new GameWorld();
+        ReplayPlayer player = new ReplayPlayer(replay);
+        player.start(world);
+        double dt = 1.0 / replay.getTickRate();
+        while (!player.isFinished()) {
+            world.tick(dt, player.nextInput());
+            player.check(world);
+        }
+        return world.isShipDestroyed();
+    }
+}
@@ -0,0 +1,147 @@
+package dev.apolonio.asteroids.capture;
+
+import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.Scene;
+import javafx.scene.image.WritableImage;
+
+import javax.imageio.ImageIO;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Saves screenshots of a scene as PNG files, without making the game wait for them.
+ * <p>
+ * The only work done on the JavaFX thread is asking for a snapshot of the scene, which JavaFX renders during the next
+ * pulse. The finished snapshot is then handed to a background thread, which converts it, encodes it and writes it to
+ * the disk.
+ * <p>
+ * Each screenshot waiting to be written holds a full copy of the screen, so only a few can be pending at once. Any
+ * taken while that many are pending are skipped. Files are named {@code screenshot_<n>.png}, numbered after the
+ * highest one in the folder, which is only looked up once, before the first screenshot is written.
+ */
+public class ScreenshotWriter {
+    private static final Pattern FILE_NAME = Pattern.compile("screenshot_(\\d+)\\.png");
+
+    private final Path FOLDER;
+    private final int MAX_PENDING;
+    private final AtomicInteger PENDING = new AtomicInteger();
+    private final ExecutorService WRITER;
+
+    // Number of the next screenshot, -1 until the folder is looked up. Only used by the writer thread.
+    private int nextNumber = -1;
+
+    /**
+     * Creates a writer that saves screenshots to the specified folder.
+     *
+     * @param folder     the folder to save screenshots to, created when the first one is saved.
+     * @param maxPending the most screenshots that can be waiting to be written at once.
+     */
+    public ScreenshotWriter(Path folder, int maxPending) {
+        FOLDER = folder;
+        MAX_PENDING = maxPending;
+        WRITER = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "Screenshot writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Takes a screenshot of a scene, to be saved in the background. This must be called from the JavaFX thread.
+     *
+     * @param scene  the {@link Scene} to take a screenshot of.
+     * @param width  the width of the screenshot in pixels.
+     * @param height the height of the screenshot in pixels.
+     * @return       {@code true} if the screenshot was taken, {@code false} if it was skipped because too many are
+     *               waiting to be written, or the writer is closed.
+     */
+    public boolean capture(Scene scene, int width, int height) {
+        if (WRITER.isShutdown()) {
+            return false;
+        }
+        if (PENDING.incrementAndGet() > MAX_PENDING) {
+            PENDING.decrementAndGet();
+            System.err.println("[DEBUG] Screenshot skipped, " + MAX_PENDING + " are still being saved");
+            return false;
+        }
+
+        scene.snapshot(result -> {
+            WritableImage image = result.getImage();
+            try {
+                WRITER.execute(() -> {
+                    try {
+                        write(image);
+                    } finally {
+                        PENDING.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Closed while the snapshot was being taken
+                PENDING.decrementAndGet();
+            }
+            return null;
+        }, new WritableImage(width, height));
+        return true;
+    }
+
+    /**
+     * Waits up to a few seconds for the pending screenshots to be written, then stops the writer thread.
+     */
+    public void close() {
+        WRITER.shutdown();
+        try {
+            if (!WRITER.awaitTermination(5, TimeUnit.SECONDS)) {
+                System.err.println("[DEBUG] Timed out saving screenshots");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Encodes a snapshot and writes it to the next file.
+     */
+    private void write(WritableImage image) {
+        try {
+            Files.createDirectories(FOLDER);
+            if (nextNumber < 0) {
+                nextNumber = findNextNumber();
+            }
+
+            Path file = FOLDER.resolve("screenshot_" + nextNumber++ + ".png");
+            ImageIO.write(SwingFXUtils.fromFXImage(image, null), "png", file.toFile());
+            System.out.println("[DEBUG] Screenshot saved: " + file.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("[DEBUG] Failed to save screenshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the number after the highest one used by a screenshot in the folder.
+     */
+    private int findNextNumber() throws IOException {
+        int highest = -1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(FOLDER, "screenshot_*.png")) {
+            for (Path file : files) {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    try {
+                        highest = Math.max(highest, Integer.parseInt(matcher.group(1)));
+                    } catch (NumberFormatException e) {
+                        // Too big to be one of ours
+                    }
+                }
+            }
+        }
+        return highest + 1;
+    }
+}
@@ -0,0 +1,236 @@
+package dev.apolonio.asteroids.capture;
+
+import dev.apolonio.asteroids.GameWorld;
+import dev.apolonio.asteroids.domain.ArchetypeTable;
+import dev.apolonio.asteroids.domain.Asteroid;
+import dev.apolonio.asteroids.domain.EntityShape;
+import dev.apolonio.asteroids.domain.Projectile;
+import dev.apolonio.asteroids.domain.Ship;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Path2D;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Draws entities with Java2D, for saving frames of a game outside the JavaFX scene.
+ * <p>
+ * Entities are drawn as filled, outlined polygons, with the same colors and stroke widths the stylesheet gives them in
+ * the game, so saved frames look like the game without needing the scene graph or the JavaFX thread. The colors are
+ * read from the rules for each entity's style class in {@code styles.css} when the class loads. Only what those rules
+ * use is understood: fills, strokes and opacity, with colors written in hex. Each painter reuses its path between
+ * entities, so it should only be used by one thread at a time.
+ */
+public class WorldPainter {
+
+    /** An asteroid, drawn gray. */
+    public static final byte ASTEROID = 0;
+    /** The ship, drawn white. */
+    public static final byte SHIP = 1;
+    /** A projectile, drawn white without an outline. */
+    public static final byte PROJECTILE = 2;
+
+    private static final String STYLESHEET = "/css/styles.css";
+
+    // Style class of each kind, the same ones the entities are given in the game
+    private static final String[] STYLE_CLASSES = {"asteroid", "ship", "ship-bullet"};
+
+    // Fill, stroke, stroke width and opacity of each kind, read from the stylesheet. Until a rule sets them, they're
+    // the same as on a JavaFX polygon: a black fill, no stroke, a stroke width of 1 and full opacity.
+    private static final Color[] FILLS = new Color[STYLE_CLASSES.length];
+    private static final Color[] STROKES = new Color[STYLE_CLASSES.length];
+    private static final float[] STROKE_WIDTHS = new float[STYLE_CLASSES.length];
+    private static final float[] OPACITIES = new float[STYLE_CLASSES.length];
+
+    private static final Pattern COMMENT = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern RULE = Pattern.compile("([^{}]+)\\{([^}]*)}");
+
+    static {
+        readStyles();
+    }
+
+    private final Path2D.Double PATH = new Path2D.Double();
+
+    /**
+     * Clears an image to the background color and prepares it for drawing entities.
+     *
+     * @param g      the graphics of the image.
+     * @param width  the width of the image in pixels.
+     * @param height the height of the image in pixels.
+     */
+    public void clear(Graphics2D g, int width, int height) {
+        g.setComposite(AlphaComposite.SrcOver);
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, width, height);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    }
+
+    /**
+     * Draws every entity in a world in the same order as the game: the ship first, then asteroids, then projectiles.
+     *
+     * @param g           the graphics to draw with, already scaled from screen to image coordinates.
+     * @param world       the {@link GameWorld} to draw.
+     * @param shipOpacity the opacity of the ship, between 0 and 1.
+     */
+    public void paint(Graphics2D g, GameWorld world, double shipOpacity) {
+        Ship ship = world.getShip();
+        paint(g, SHIP, ship.getShape(), ship.getX(), ship.getY(), ship.getRotation(), ship.getScale(), shipOpacity);
+
+        ArchetypeTable<Asteroid> asteroids = world.getAsteroids();
+        for (int i = 0; i < asteroids.size(); i++) {
+            Asteroid asteroid = asteroids.get(i);
+            paint(g, ASTEROID, asteroid.getShape(), asteroids.getX(i), asteroids.getY(i), asteroid.getRotation(),
+                    asteroid.getScale(), 1);
+        }
+        ArchetypeTable<Projectile> projectiles = world.getProjectiles();
+        for (int i = 0; i < projectiles.size(); i++) {
+            Projectile projectile = projectiles.get(i);
+            paint(g, PROJECTILE, projectile.getShape(), projectiles.getX(i), projectiles.getY(i),
+                    projectile.getRotation(), projectile.getScale(), 1);
+        }
+    }
+
+    /**
+     * Draws an entity.
+     *
+     * @param g        the graphics to draw with, already scaled from screen to image coordinates.
+     * @param kind     the kind of entity, one of the constants in this class.
+     * @param shape    the {@link EntityShape} of the entity.
+     * @param x        the X coordinate of the entity.
+     * @param y        the Y coordinate of the entity.
+     * @param rotation the rotation of the entity in degrees.
+     * @param scale    the scale of the entity.
+     * @param opacity  the opacity of the entity, between 0 and 1.
+     */
+    public void paint(Graphics2D g, byte kind, EntityShape shape, double x, double y, double rotation, double scale,
+                      double opacity) {
+        if (opacity <= 0) {
+            return;
+        }
+
+        // Same transform as Entity.getWorldPoints()
+        double angleInRadians = Math.toRadians(rotation);
+        double cos = Math.cos(angleInRadians) * scale;
+        double sin = Math.sin(angleInRadians) * scale;
+        double[] points = shape.getPoints();
+
+        PATH.reset();
+        for (int i = 0; i < points.length; i += 2) {
+            double px = x + points[i] * cos - points[i + 1] * sin;
+            double py = y + points[i] * sin + points[i + 1] * cos;
+            if (i == 0) {
+                PATH.moveTo(px, py);
+            } else {
+                PATH.lineTo(px, py);
+            }
+        }
+        PATH.closePath();
+
+        Composite composite = g.getComposite();
+        double alpha = opacity * OPACITIES[kind];
+        if (alpha < 1) {
+            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) alpha));
+        }
+
+        if (FILLS[kind] != null) {
+            g.setColor(FILLS[kind]);
+            g.fill(PATH);
+        }
+        if (STROKES[kind] != null && STROKE_WIDTHS[kind] > 0) {
+            g.setColor(STROKES[kind]);
+            g.setStroke(new BasicStroke((float) (STROKE_WIDTHS[kind] * scale)));
+            g.draw(PATH);
+        }
+
+        g.setComposite(composite);
+    }
+
+    /**
+     * Reads the style of every kind of entity from the game stylesheet. Rules later in the file win, as they do in the
+     * game.
+     */
+    private static void readStyles() {
+        String css;
+        try (InputStream in = Objects.requireNonNull(WorldPainter.class.getResourceAsStream(STYLESHEET))) {
+            css = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't read " + STYLESHEET, e);
+        }
+
+        for (int kind = 0; kind < STYLE_CLASSES.length; kind++) {
+            FILLS[kind] = Color.BLACK;
+            STROKE_WIDTHS[kind] = 1;
+            OPACITIES[kind] = 1;
+        }
+
+        Matcher rule = RULE.matcher(COMMENT.matcher(css).replaceAll(""));
+        while (rule.find()) {
+            for (String selector : rule.group(1).split(",")) {
+                for (int kind = 0; kind < STYLE_CLASSES.length; kind++) {
+                    if (selector.strip().equals("." + STYLE_CLASSES[kind])) {
+                        applyDeclarations(kind, rule.group(2));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the declarations in the body of a rule to the style of a kind of entity, ignoring the properties and
+     * values that aren't understood.
+     */
+    private static void applyDeclarations(int kind, String declarations) {
+        for (String declaration : declarations.split(";")) {
+            int colon = declaration.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String property = declaration.substring(0, colon).strip();
+            String value = declaration.substring(colon + 1).strip();
+
+            try {
+                switch (property) {
+                    case "-fx-fill" -> FILLS[kind] = parseColor(value);
+                    case "-fx-stroke" -> STROKES[kind] = parseColor(value);
+                    case "-fx-stroke-width" -> STROKE_WIDTHS[kind] = Float.parseFloat(value);
+                    case "-fx-opacity" -> OPACITIES[kind] = Float.parseFloat(value);
+                    default -> {
+                        // Doesn't change how entities are painted
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                System.err.println("[DEBUG] Can't paint ." + STYLE_CLASSES[kind] + " with " + property + ": " + value);
+            }
+        }
+    }
+
+    /**
+     * Returns the color for a CSS value written as {@code #rgb} or {@code #rrggbb}, or {@code null} for
+     * {@code transparent}.
+     *
+     * @throws IllegalArgumentException if the value isn't written that way.
+     */
+    private static Color parseColor(String value) {
+        if (value.equalsIgnoreCase("transparent")) {
+            return null;
+        }
+        if (value.matches("#\\p{XDigit}{3}")) {
+            value = "#" + value.charAt(1) + value.charAt(1) + value.charAt(2) + value.charAt(2)
+                    + value.charAt(3) + value.charAt(3);
+        }
+        if (!value.matches("#\\p{XDigit}{6}")) {
+            throw new IllegalArgumentException("Not a hex color: " + value);
+        }
+        return new Color(Integer.parseInt(value.substring(1), 16));
+    }
+}
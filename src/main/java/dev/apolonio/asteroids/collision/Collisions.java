@@ -0,0 +1,292 @@
+package dev.apolonio.asteroids.collision;
+
+import java.util.Arrays;
+
+/**
+ * Geometry tests used for detecting collisions between entities.
+ * <p>
+ * All polygons are given as arrays of alternating X and Y vertex coordinates, in the same space for both shapes being
+ * tested. None of the tests allocate memory, so they're safe to call for every pair of entities on every frame.
+ * <p>
+ * Tests are meant to be used in stages, from cheapest to most expensive: first {@link #circlesOverlap} with the
+ * bounding circles of both shapes, then {@link #convexPolygonsIntersect} if both shapes are convex, or
+ * {@link #polygonsIntersect} otherwise. Concave shapes can also have their {@link #convexHull convex hulls} tested
+ * first, since two shapes can't touch if their hulls don't.
+ */
+public final class Collisions {
+
+    private Collisions() {
+    }
+
+    /**
+     * Returns whether two circles overlap.
+     *
+     * @param x1 the X coordinate of the center of the first circle.
+     * @param y1 the Y coordinate of the center of the first circle.
+     * @param r1 the radius of the first circle.
+     * @param x2 the X coordinate of the center of the second circle.
+     * @param y2 the Y coordinate of the center of the second circle.
+     * @param r2 the radius of the second circle.
+     * @return   {@code true} if the circles overlap, {@code false} otherwise.
+     */
+    public static boolean circlesOverlap(double x1, double y1, double r1, double x2, double y2, double r2) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double r = r1 + r2;
+        return dx * dx + dy * dy <= r * r;
+    }
+
+    /**
+     * Returns whether two convex polygons intersect, using the separating axis theorem.
+     * <p>
+     * Two convex polygons don't intersect if and only if there's a line, perpendicular to one of their edges, on which
+     * their projections don't overlap. The result is undefined if either polygon is concave.
+     *
+     * @param a the vertices of the first polygon.
+     * @param b the vertices of the second polygon.
+     * @return  {@code true} if the polygons intersect, {@code false} otherwise.
+     */
+    public static boolean convexPolygonsIntersect(double[] a, double[] b) {
+        return !hasSeparatingAxis(a, b) && !hasSeparatingAxis(b, a);
+    }
+
+    /**
+     * Returns whether two simple polygons intersect. The polygons may be concave.
+     * <p>
+     * Two polygons intersect if any of their edges cross, or if one of them is entirely inside the other, in which case
+     * any of its vertices is inside the other polygon.
+     *
+     * @param a the vertices of the first polygon.
+     * @param b the vertices of the second polygon.
+     * @return  {@code true} if the polygons intersect, {@code false} otherwise.
+     */
+    public static boolean polygonsIntersect(double[] a, double[] b) {
+        for (int i = 0; i < a.length; i += 2) {
+            int next = (i + 2) % a.length;
+            for (int j = 0; j < b.length; j += 2) {
+                int nextB = (j + 2) % b.length;
+                if (segmentsIntersect(a[i], a[i + 1], a[next], a[next + 1], b[j], b[j + 1], b[nextB], b[nextB + 1])) {
+                    return true;
+                }
+            }
+        }
+
+        return containsPoint(a, b[0], b[1]) || containsPoint(b, a[0], a[1]);
+    }
+
+    /**
+     * Returns whether a circle intersects a simple polygon. The polygon may be concave.
+     * <p>
+     * This is the case if the center of the circle is inside the polygon, or if any edge of the polygon is closer to
+     * the center than the radius.
+     *
+     * @param cx      the X coordinate of the center of the circle.
+     * @param cy      the Y coordinate of the center of the circle.
+     * @param r       the radius of the circle.
+     * @param polygon the vertices of the polygon.
+     * @return        {@code true} if the circle and polygon intersect, {@code false} otherwise.
+     */
+    public static boolean circleIntersectsPolygon(double cx, double cy, double r, double[] polygon) {
+        double rSquared = r * r;
+
+        for (int i = 0; i < polygon.length; i += 2) {
+            int next = (i + 2) % polygon.length;
+            if (segmentDistanceSquared(cx, cy, polygon[i], polygon[i + 1], polygon[next], polygon[next + 1]) <= rSquared) {
+                return true;
+            }
+        }
+
+        return containsPoint(polygon, cx, cy);
+    }
+
+    /**
+     * Returns whether a point is inside a simple polygon, using the even-odd rule.
+     *
+     * @param polygon the vertices of the polygon.
+     * @param px      the X coordinate of the point.
+     * @param py      the Y coordinate of the point.
+     * @return        {@code true} if the point is inside the polygon, {@code false} otherwise.
+     */
+    public static boolean containsPoint(double[] polygon, double px, double py) {
+        boolean inside = false;
+
+        // Count how many edges a horizontal ray going right from the point crosses
+        for (int i = 0, j = polygon.length - 2; i < polygon.length; j = i, i += 2) {
+            double xi = polygon[i], yi = polygon[i + 1];
+            double xj = polygon[j], yj = polygon[j + 1];
+
+            if ((yi > py) != (yj > py) && px < (xj - xi) * (py - yi) / (yj - yi) + xi) {
+                inside = !inside;
+            }
+        }
+
+        return inside;
+    }
+
+    /**
+     * Returns whether a polygon is convex.
+     * <p>
+     * Convexity doesn't change when a polygon is moved, rotated or scaled, so this only needs to be checked once for
+     * each shape.
+     *
+     * @param polygon the vertices of the polygon.
+     * @return        {@code true} if the polygon is convex, {@code false} otherwise.
+     */
+    public static boolean isConvex(double[] polygon) {
+        int sign = 0;
+
+        // A polygon is convex if all turns between consecutive edges go the same way
+        for (int i = 0; i < polygon.length; i += 2) {
+            int next = (i + 2) % polygon.length;
+            int afterNext = (i + 4) % polygon.length;
+
+            double cross = (polygon[next] - polygon[i]) * (polygon[afterNext + 1] - polygon[next + 1])
+                    - (polygon[next + 1] - polygon[i + 1]) * (polygon[afterNext] - polygon[next]);
+
+            if (cross != 0) {
+                int turn = cross > 0 ? 1 : -1;
+                if (sign != 0 && turn != sign) {
+                    return false;
+                }
+                sign = turn;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the convex hull of a polygon, using Andrew's monotone chain algorithm.
+     * <p>
+     * Unlike the collision tests, this allocates a new array, so it's meant to be called once per shape and kept.
+     *
+     * @param polygon the vertices of the polygon.
+     * @return        the vertices of the hull in clockwise order on the screen, as alternating X and Y values.
+     */
+    public static double[] convexHull(double[] polygon) {
+        int count = polygon.length / 2;
+
+        // Sort the vertices by X, then by Y
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> polygon[2 * a] != polygon[2 * b]
+                ? Double.compare(polygon[2 * a], polygon[2 * b])
+                : Double.compare(polygon[2 * a + 1], polygon[2 * b + 1]));
+
+        // Build the lower and upper halves of the hull, dropping vertices that don't make a turn the same way
+        int[] hull = new int[2 * count];
+        int size = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            int start = size;
+            for (int k = 0; k < count; k++) {
+                int i = order[pass == 0 ? k : count - 1 - k];
+                while (size >= start + 2 && cross(polygon[2 * hull[size - 2]], polygon[2 * hull[size - 2] + 1],
+                        polygon[2 * hull[size - 1]], polygon[2 * hull[size - 1] + 1],
+                        polygon[2 * i], polygon[2 * i + 1]) <= 0) {
+                    size--;
+                }
+                hull[size++] = i;
+            }
+            // The last vertex of each half is the first of the other one
+            size--;
+        }
+
+        double[] result = new double[2 * size];
+        for (int i = 0; i < size; i++) {
+            result[2 * i] = polygon[2 * hull[i]];
+            result[2 * i + 1] = polygon[2 * hull[i] + 1];
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether any edge normal of {@code axes} separates the two polygons.
+     *
+     * @param axes  the polygon whose edges are used as axes.
+     * @param other the other polygon.
+     * @return      {@code true} if a separating axis was found, {@code false} otherwise.
+     */
+    private static boolean hasSeparatingAxis(double[] axes, double[] other) {
+        for (int i = 0; i < axes.length; i += 2) {
+            int next = (i + 2) % axes.length;
+
+            // The axis is perpendicular to the edge, it doesn't need to be normalized since only overlap matters
+            double axisX = axes[i + 1] - axes[next + 1];
+            double axisY = axes[next] - axes[i];
+
+            double minA = Double.MAX_VALUE, maxA = -Double.MAX_VALUE;
+            for (int j = 0; j < axes.length; j += 2) {
+                double p = axes[j] * axisX + axes[j + 1] * axisY;
+                minA = Math.min(minA, p);
+                maxA = Math.max(maxA, p);
+            }
+
+            double minB = Double.MAX_VALUE, maxB = -Double.MAX_VALUE;
+            for (int j = 0; j < other.length; j += 2) {
+                double p = other[j] * axisX + other[j + 1] * axisY;
+                minB = Math.min(minB, p);
+                maxB = Math.max(maxB, p);
+            }
+
+            if (maxA < minB || maxB < minA) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns whether segment AB intersects segment CD, including when they only touch.
+     */
+    private static boolean segmentsIntersect(double ax, double ay, double bx, double by,
+                                             double cx, double cy, double dx, double dy) {
+        double d1 = cross(cx, cy, dx, dy, ax, ay);
+        double d2 = cross(cx, cy, dx, dy, bx, by);
+        double d3 = cross(ax, ay, bx, by, cx, cy);
+        double d4 = cross(ax, ay, bx, by, dx, dy);
+
+        if (((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0)) && ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0))) {
+            return true;
+        }
+
+        // Handle collinear cases, where a point of one segment lies on the other
+        return (d1 == 0 && onSegment(cx, cy, dx, dy, ax, ay))
+                || (d2 == 0 && onSegment(cx, cy, dx, dy, bx, by))
+                || (d3 == 0 && onSegment(ax, ay, bx, by, cx, cy))
+                || (d4 == 0 && onSegment(ax, ay, bx, by, dx, dy));
+    }
+
+    /**
+     * Returns the cross product of vectors PQ and PR, which tells on what side of line PQ the point R is.
+     */
+    private static double cross(double px, double py, double qx, double qy, double rx, double ry) {
+        return (qx - px) * (ry - py) - (qy - py) * (rx - px);
+    }
+
+    /**
+     * Returns whether point R, known to be collinear with segment PQ, is within that segment's bounding box.
+     */
+    private static boolean onSegment(double px, double py, double qx, double qy, double rx, double ry) {
+        return Math.min(px, qx) <= rx && rx <= Math.max(px, qx) && Math.min(py, qy) <= ry && ry <= Math.max(py, qy);
+    }
+
+    /**
+     * Returns the squared distance from point P to segment AB.
+     */
+    private static double segmentDistanceSquared(double px, double py, double ax, double ay, double bx, double by) {
+        double abX = bx - ax;
+        double abY = by - ay;
+        double lengthSquared = abX * abX + abY * abY;
+
+        // Find the closest point on the segment, clamping the projection of P onto the line to the segment's ends
+        double t = lengthSquared == 0 ? 0 : ((px - ax) * abX + (py - ay) * abY) / lengthSquared;
+        t = Math.max(0, Math.min(1, t));
+
+        double dx = px - (ax + t * abX);
+        double dy = py - (ay + t * abY);
+        return dx * dx + dy * dy;
+    }
+}
@@ -0,0 +1,216 @@
+package dev.apolonio.asteroids.collision;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A uniform grid used as a broad phase for collision detection.
+ * <p>
+ * The screen is divided into square cells, and each item is added to every cell its bounding circle touches. Looking up
+ * the items near some position then only needs to check a few cells, instead of every item in the game, so only pairs
+ * that share a cell go through the more expensive exact collision tests.
+ * <p>
+ * Cell coordinates wrap around the edges of the grid, the same way entities wrap around the edges of the screen, so
+ * items partially outside the screen are still stored in valid cells.
+ * <p>
+ * The grid is meant to be cleared and filled again every frame. All storage is kept between frames and only grows when
+ * more items are added than ever before, so rebuilding it doesn't allocate memory.
+ *
+ * @param <T> the type of the items stored in the grid.
+ */
+public class SpatialGrid<T> {
+    private double cellSize;
+    private int columns;
+    private int rows;
+
+    // Index of the first entry in each cell, or -1 if the cell is empty
+    private int[] cellHeads;
+
+    // Entries form a linked list for each cell, storing the index of the item and of the next entry in the same cell
+    private int[] entryItems;
+    private int[] entryNext;
+    private int entryCount;
+
+    private Object[] items;
+    private int itemCount;
+
+    // Used to avoid returning the same item more than once in a query, since it can be in more than one cell
+    private int[] itemMarks;
+    private int queryMark;
+
+    /**
+     * Creates a new grid with the specified cell size, covering an area of the specified width and height.
+     *
+     * @param cellSize the width and height of each cell.
+     * @param width    the width of the area covered by the grid.
+     * @param height   the height of the area covered by the grid.
+     */
+    public SpatialGrid(double cellSize, double width, double height) {
+        entryItems = new int[64];
+        entryNext = new int[64];
+        items = new Object[32];
+        itemMarks = new int[32];
+        resize(cellSize, width, height);
+    }
+
+    /**
+     * Changes the cell size and the area covered by the grid. This also removes all items from it.
+     *
+     * @param cellSize the width and height of each cell.
+     * @param width    the width of the area covered by the grid.
+     * @param height   the height of the area covered by the grid.
+     */
+    public void resize(double cellSize, double width, double height) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be greater than 0.");
+        }
+
+        this.cellSize = cellSize;
+        columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        cellHeads = new int[columns * rows];
+        clear();
+    }
+
+    /**
+     * Removes all items from the grid.
+     */
+    public void clear() {
+        Arrays.fill(cellHeads, -1);
+        Arrays.fill(items, 0, itemCount, null);
+        entryCount = 0;
+        itemCount = 0;
+    }
+
+    /**
+     * Adds an item to every cell touched by the specified bounding circle.
+     *
+     * @param item   the item to add.
+     * @param x      the X coordinate of the center of the item.
+     * @param y      the Y coordinate of the center of the item.
+     * @param radius the radius of the item's bounding circle.
+     */
+    public void insert(T item, double x, double y, double radius) {
+        if (itemCount == items.length) {
+            items = Arrays.copyOf(items, itemCount * 2);
+            itemMarks = Arrays.copyOf(itemMarks, itemCount * 2);
+        }
+        int itemIndex = itemCount++;
+        items[itemIndex] = item;
+        itemMarks[itemIndex] = queryMark;
+
+        int minCol = cellCoord(x - radius), maxCol = cellCoord(x + radius);
+        int minRow = cellCoord(y - radius), maxRow = cellCoord(y + radius);
+
+        // Don't visit the same wrapped cell twice for items bigger than the whole grid
+        maxCol = Math.min(maxCol, minCol + columns - 1);
+        maxRow = Math.min(maxRow, minRow + rows - 1);
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                int cell = cellIndex(col, row);
+
+                if (entryCount == entryItems.length) {
+                    entryItems = Arrays.copyOf(entryItems, entryCount * 2);
+                    entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+                }
+                entryItems[entryCount] = itemIndex;
+                entryNext[entryCount] = cellHeads[cell];
+                cellHeads[cell] = entryCount;
+                entryCount++;
+            }
+        }
+    }
+
+    /**
+     * Adds to a list every item sharing at least one cell with the specified bounding circle.
+     * <p>
+     * Each item is added only once, even if it shares more than one cell with the circle. Items returned are only
+     * candidates, and should still be checked with an exact collision test.
+     *
+     * @param x      the X coordinate of the center of the circle.
+     * @param y      the Y coordinate of the center of the circle.
+     * @param radius the radius of the circle.
+     * @param result the {@link List} the items will be added to.
+     */
+    @SuppressWarnings("unchecked")
+    public void query(double x, double y, double radius, List<T> result) {
+        queryMark++;
+
+        int minCol = cellCoord(x - radius), maxCol = Math.min(cellCoord(x + radius), minCol + columns - 1);
+        int minRow = cellCoord(y - radius), maxRow = Math.min(cellCoord(y + radius), minRow + rows - 1);
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                for (int entry = cellHeads[cellIndex(col, row)]; entry != -1; entry = entryNext[entry]) {
+                    int itemIndex = entryItems[entry];
+                    if (itemMarks[itemIndex] != queryMark) {
+                        itemMarks[itemIndex] = queryMark;
+                        result.add((T) items[itemIndex]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether the cell at the specified column and row contains any item.
+     *
+     * @param col the column of the cell.
+     * @param row the row of the cell.
+     * @return    {@code true} if the cell has at least one item, {@code false} otherwise.
+     */
+    public boolean isOccupied(int col, int row) {
+        return cellHeads[cellIndex(col, row)] != -1;
+    }
+
+    /**
+     * Returns the width and height of each cell.
+     *
+     * @return the cell size.
+     */
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Returns the number of columns in the grid.
+     *
+     * @return the number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the number of rows in the grid.
+     *
+     * @return the number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of items currently in the grid.
+     *
+     * @return the number of items.
+     */
+    public int size() {
+        return itemCount;
+    }
+
+    /**
+     * Converts a coordinate to the (unwrapped) index of the cell containing it.
+     */
+    private int cellCoord(double coord) {
+        return (int) Math.floor(coord / cellSize);
+    }
+
+    /**
+     * Returns the position of a cell in the cell array, wrapping its column and row around the grid edges.
+     */
+    private int cellIndex(int col, int row) {
+        return Math.floorMod(row, rows) * columns + Math.floorMod(col, columns);
+    }
+}
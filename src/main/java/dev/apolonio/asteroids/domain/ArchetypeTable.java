@@ -0,0 +1,320 @@
+package dev.apolonio.asteroids.domain;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Stores the state of many entities of the same kind in parallel arrays, one per field.
+ * <p>
+ * Updating entities one object at a time means following a reference to each of them, and their fields end up spread
+ * all over memory. A table keeps each field in a primitive array instead, so moving, wrapping and culling every entity
+ * is a simple loop over a few arrays that sit next to each other in memory.
+ * <p>
+ * Entities added to a table become handles to their slot: their getters and setters read and write the table's arrays,
+ * so the rest of the game can keep using them as usual. Removing entities swaps the last one into the freed slot, so
+ * the arrays never have gaps, which means slots aren't stable and shouldn't be kept between frames.
+ *
+ * @param <T> the type of the entities stored in the table.
+ */
+public class ArchetypeTable<T extends Entity> {
+    private final ToIntFunction<? super T> LEVEL_OF;
+
+    // Columns, with one element for each entity in the table
+    double[] x;
+    double[] y;
+    double[] velX;
+    double[] velY;
+    double[] rotation;
+    double[] angularVel;
+    double[] radius;
+    private int[] level;
+    private boolean[] alive;
+
+    private Entity[] entities;
+    private int size;
+
+    /**
+     * Creates a new empty table.
+     *
+     * @param capacity the number of entities the table can hold before it needs to grow.
+     * @param levelOf  a function returning the level stored for each entity.
+     */
+    public ArchetypeTable(int capacity, ToIntFunction<? super T> levelOf) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be greater than 0.");
+        }
+
+        LEVEL_OF = levelOf;
+        x = new double[capacity];
+        y = new double[capacity];
+        velX = new double[capacity];
+        velY = new double[capacity];
+        rotation = new double[capacity];
+        angularVel = new double[capacity];
+        radius = new double[capacity];
+        level = new int[capacity];
+        alive = new boolean[capacity];
+        entities = new Entity[capacity];
+    }
+
+    /**
+     * Adds an {@link Entity} to the end of the table, moving its state into the table's arrays.
+     *
+     * @param entity the Entity to add.
+     * @throws IllegalStateException if the Entity is already in a table.
+     */
+    public void add(T entity) {
+        if (entity.table != null) {
+            throw new IllegalStateException("The entity is already in a table.");
+        }
+        if (size == entities.length) {
+            grow();
+        }
+
+        int slot = size++;
+        x[slot] = entity.getX();
+        y[slot] = entity.getY();
+        velX[slot] = entity.getVelocityX();
+        velY[slot] = entity.getVelocityY();
+        rotation[slot] = entity.getRotation();
+        angularVel[slot] = entity.getAngularVelocity();
+        radius[slot] = entity.getBoundingRadius();
+        level[slot] = LEVEL_OF.applyAsInt(entity);
+        alive[slot] = true;
+        entities[slot] = entity;
+
+        entity.table = this;
+        entity.slot = slot;
+    }
+
+    /**
+     * Returns the {@link Entity} in the specified slot.
+     *
+     * @param slot a slot from 0 to {@code size() - 1}.
+     * @return     the Entity in that slot.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int slot) {
+        return (T) entities[slot];
+    }
+
+    /**
+     * Returns the number of entities in the table, including those killed since the last call to
+     * {@link #removeDead()}.
+     *
+     * @return the number of entities.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the X coordinate of the entity in the specified slot.
+     *
+     * @param slot a slot from 0 to {@code size() - 1}.
+     * @return     the X coordinate of the center of the entity.
+     */
+    public double getX(int slot) {
+        return x[slot];
+    }
+
+    /**
+     * Returns the Y coordinate of the entity in the specified slot.
+     *
+     * @param slot a slot from 0 to {@code size() - 1}.
+     * @return     the Y coordinate of the center of the entity.
+     */
+    public double getY(int slot) {
+        return y[slot];
+    }
+
+    /**
+     * Returns the bounding radius of the entity in the specified slot.
+     *
+     * @param slot a slot from 0 to {@code size() - 1}.
+     * @return     the radius of the entity's bounding circle.
+     */
+    public double getRadius(int slot) {
+        return radius[slot];
+    }
+
+    /**
+     * Returns the level of the entity in the specified slot.
+     *
+     * @param slot a slot from 0 to {@code size() - 1}.
+     * @return     the level stored when the entity was added.
+     */
+    public int getLevel(int slot) {
+        return level[slot];
+    }
+
+    /**
+     * Returns whether an {@link Entity} is in this table and hasn't been killed.
+     *
+     * @param entity an Entity.
+     * @return       {@code true} if the Entity is alive in this table, {@code false} otherwise.
+     */
+    public boolean isAlive(T entity) {
+        return entity.table == this && alive[entity.slot];
+    }
+
+    /**
+     * Marks an {@link Entity} as dead. It stays in the table until {@link #removeDead()} is called, so slots don't
+     * change while the table is being iterated.
+     *
+     * @param entity the Entity to kill.
+     */
+    public void kill(T entity) {
+        if (entity.table == this) {
+            alive[entity.slot] = false;
+        }
+    }
+
+    /**
+     * Moves every entity by its velocity and rotates it by its angular velocity.
+     *
+     * @param dt the time the entities spend moving, in seconds.
+     */
+    public void move(double dt) {
+        for (int i = 0; i < size; i++) {
+            x[i] += velX[i] * dt;
+            y[i] += velY[i] * dt;
+            rotation[i] += angularVel[i] * dt;
+        }
+    }
+
+    /**
+     * Teleports every entity that left the screen to the opposite side, the same way {@link Entity#move} does.
+     *
+     * @param scrWidth  the width of the screen in pixels.
+     * @param scrHeight the height of the screen in pixels.
+     */
+    public void wrap(double scrWidth, double scrHeight) {
+        for (int i = 0; i < size; i++) {
+            double r = radius[i];
+
+            // Entities are only moved if they're also moving towards the side they left
+            if (x[i] + r < 0 && velX[i] < 0) {
+                x[i] = scrWidth + r;
+            } else if (x[i] - r > scrWidth && velX[i] > 0) {
+                x[i] = -r;
+            }
+
+            if (y[i] + r < 0 && velY[i] < 0) {
+                y[i] = scrHeight + r;
+            } else if (y[i] - r > scrHeight && velY[i] > 0) {
+                y[i] = -r;
+            }
+        }
+    }
+
+    /**
+     * Kills every entity whose center is outside the screen.
+     *
+     * @param scrWidth  the width of the screen in pixels.
+     * @param scrHeight the height of the screen in pixels.
+     * @param onCulled  called with each entity killed.
+     */
+    public void cullOutside(double scrWidth, double scrHeight, Consumer<? super T> onCulled) {
+        for (int i = 0; i < size; i++) {
+            if (alive[i] && (x[i] < 0 || x[i] > scrWidth || y[i] < 0 || y[i] > scrHeight)) {
+                alive[i] = false;
+                onCulled.accept(get(i));
+            }
+        }
+    }
+
+    /**
+     * Removes every killed entity from the table. Each one keeps the state it had when it was removed.
+     */
+    public void removeDead() {
+        removeDead(null);
+    }
+
+    /**
+     * Removes every killed entity from the table, passing each one to a consumer after it's removed, for example to give
+     * it back to an {@link EntityPool}. Each one keeps the state it had when it was removed.
+     *
+     * @param onRemoved called with each entity removed, or {@code null} to do nothing.
+     */
+    @SuppressWarnings("unchecked")
+    public void removeDead(Consumer<? super T> onRemoved) {
+        // Going backwards means the entity swapped into a freed slot has already been checked
+        for (int i = size - 1; i >= 0; i--) {
+            if (!alive[i]) {
+                T entity = (T) entities[i];
+                entity.leaveTable();
+                swapRemove(i);
+
+                if (onRemoved != null) {
+                    onRemoved.accept(entity);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every entity from the table.
+     */
+    public void clear() {
+        clear(null);
+    }
+
+    /**
+     * Removes every entity from the table, passing each one to a consumer after it's removed.
+     *
+     * @param onRemoved called with each entity removed, or {@code null} to do nothing.
+     */
+    @SuppressWarnings("unchecked")
+    public void clear(Consumer<? super T> onRemoved) {
+        for (int i = 0; i < size; i++) {
+            T entity = (T) entities[i];
+            entity.leaveTable();
+
+            if (onRemoved != null) {
+                onRemoved.accept(entity);
+            }
+        }
+        Arrays.fill(entities, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Moves the last entity into the specified slot, shrinking the table by one.
+     */
+    private void swapRemove(int slot) {
+        int last = --size;
+        if (slot != last) {
+            x[slot] = x[last];
+            y[slot] = y[last];
+            velX[slot] = velX[last];
+            velY[slot] = velY[last];
+            rotation[slot] = rotation[last];
+            angularVel[slot] = angularVel[last];
+            radius[slot] = radius[last];
+            level[slot] = level[last];
+            alive[slot] = alive[last];
+            entities[slot] = entities[last];
+            entities[slot].slot = slot;
+        }
+        entities[last] = null;
+    }
+
+    /**
+     * Doubles the capacity of every column.
+     */
+    private void grow() {
+        int capacity = entities.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        velX = Arrays.copyOf(velX, capacity);
+        velY = Arrays.copyOf(velY, capacity);
+        rotation = Arrays.copyOf(rotation, capacity);
+        angularVel = Arrays.copyOf(angularVel, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        level = Arrays.copyOf(level, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+        entities = Arrays.copyOf(entities, capacity);
+    }
+}
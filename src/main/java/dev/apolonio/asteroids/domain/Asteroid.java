@@ -2,57 +2,77 @@ package dev.apolonio.asteroids.domain;
 
 import dev.apolonio.asteroids.PolygonFactory;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents an asteroid in the game.
  * <p>
  * Asteroids move around randomly in the screen, slowly rotating. They can collide with the player ship but not with
- * one another. Their shape and size is defined by their level.
+ * one another. Their shape and size is defined by their level, with the shape being one of a few variants shared by
+ * all asteroids of the same level.
+ * <p>
+ * Asteroids don't keep a random generator of their own, the generators used for their shape and movement are passed in
+ * whenever they're randomized, so the game decides which random stream each asteroid draws from.
  */
 public class Asteroid extends Entity {
-    
-    private final double ROTATIONAL_MVT;
+
+    /**
+     * The highest level an asteroid can spawn with.
+     */
+    public static final int MAX_LEVEL = 3;
+
     private final int LEVEL;
 
     /**
-     * Creates a new asteroid at position X, Y.
+     * Creates a new asteroid that doesn't move, at the origin and with the first shape in the PolygonFactory library for
+     * its level. This is how pooled asteroids are created, since they're randomized when taken from the pool anyway.
+     *
+     * @param level the level of the asteroid
+     */
+    public Asteroid(int level) {
+        super(PolygonFactory.getAsteroidShapes(level).get(0), 0, 0);
+        LEVEL = level;
+    }
+
+    /**
+     * Creates a new asteroid at position X, Y, with a random shape and movement.
      *
      * @param x     the X coordinate for the asteroid position
      * @param y     the Y coordinate for the asteroid position
      * @param level the level of the asteroid
+     * @param rand  the generator used for the asteroid's shape and movement
      */
-    public Asteroid(double x, double y, int level) {
-        // Creates a new Entity using a polygon from PolygonFactory
-        super(new PolygonFactory().createPolygon(level), x, y);
-        LEVEL = level;
+    public Asteroid(double x, double y, int level, RandomGenerator rand) {
+        this(level);
+        reset(x, y);
+        randomize(rand, rand);
+    }
 
-        // Randomize initial rotation
-        Random rand = new Random();
-        super.getCharacter().setRotate(rand.nextInt(360));
+    /**
+     * Gives the asteroid a random shape from the PolygonFactory library for its level, along with a random rotation,
+     * velocity and rotation speed. Its level and position stay the same.
+     *
+     * @param shapeRand    the generator used to pick the shape.
+     * @param movementRand the generator used for rotation, velocity and rotation speed.
+     */
+    public void randomize(RandomGenerator shapeRand, RandomGenerator movementRand) {
+        setShape(PolygonFactory.getAsteroidShape(LEVEL, shapeRand));
 
-        // Randomize acceleration
-        int acceleration = 4 + rand.nextInt(10);
-        
-        for (int i = 0; i < acceleration; i++) {
-            accelerate();
-        }
+        // Randomize initial rotation
+        setRotation(movementRand.nextInt(360));
 
-        ROTATIONAL_MVT = 0.5 - rand.nextDouble();
+        // Randomize speed, from 14.4 to 46.8 pixels per second in the direction the asteroid is facing
+        double speed = (4 + movementRand.nextInt(10)) * 3.6;
+        double angle = Math.toRadians(getRotation());
+        setVelocity(Math.cos(angle) * speed, Math.sin(angle) * speed);
 
-        getCharacter().getStyleClass().add("asteroid");
+        // Randomize rotation speed, up to 30 degrees per second either way
+        setAngularVelocity((0.5 - movementRand.nextDouble()) * 60);
     }
 
-    /**
-     * Moves the asteroid in the direction it's facing and rotates it, teleporting it if it goes past the screen bounds.
-     *
-     * @param scrWidth the width of the screen in pixels
-     * @param scrHeight the height of the screen in pixels
-     */
     @Override
-    public void move(double scrWidth, double scrHeight) {
-        super.move(scrWidth, scrHeight);
-        super.getCharacter().setRotate(super.getCharacter().getRotate() + ROTATIONAL_MVT);
+    public String getStyleClass() {
+        return "asteroid";
     }
 
     /**
@@ -1,130 +1,362 @@
 package dev.apolonio.asteroids.domain;
 
-import javafx.beans.property.DoubleProperty;
-import javafx.beans.property.SimpleDoubleProperty;
-import javafx.geometry.Point2D;
-import javafx.scene.shape.Polygon;
-import javafx.scene.shape.Shape;
+import dev.apolonio.asteroids.collision.Collisions;
 
 /**
  * This is the base class for all entities in the game, containing methods for moving around
  * the screen and detecting collisions with other entities.
+ * <p>
+ * Entities only hold plain simulation state (position, velocity, rotation, scale and the local vertices of their
+ * shape), so they can be updated without a JavaFX stage. Showing them on the screen is done by
+ * {@link dev.apolonio.asteroids.EntityRenderer EntityRenderer}, which copies this state to scene graph nodes.
+ * <p>
+ * While an entity is in an {@link ArchetypeTable}, its position, velocity and rotation are stored in the table's arrays
+ * instead of its own fields, so the table can update many entities at once. The methods of this class work the same
+ * either way.
  */
 public abstract class Entity {
-    private final Polygon CHARACTER;
-    private Point2D movement;
-    private DoubleProperty velScale;
+
+    // How fast entities turn, in degrees per second
+    private static final double TURN_SPEED = 300;
+
+    // How fast entities speed up when accelerating, in pixels per second squared
+    private static final double ACCELERATION = 216;
+
+    private EntityShape shape;
+    private double[] worldPoints;
+    private double[] worldHull;
+
+    // Transform the cached world space vertices were calculated with
+    private double worldX = Double.NaN;
+    private double worldY;
+    private double worldRotation;
+    private double worldScale;
+
+    // State used while the entity isn't in a table
+    private double x;
+    private double y;
+    private double velX;
+    private double velY;
+    private double rotation;
+    private double angularVel;
+
+    private double scale;
+    private double velScale;
+
+    // Table holding this entity's state and its slot in that table, or null if it isn't in one
+    ArchetypeTable<?> table;
+    int slot;
+
+    // Whether the entity was given back to an EntityPool and not taken out again
+    boolean pooled;
+
+    /**
+     * Creates a new Entity at the specified X and Y coordinates, with a shape of its own.
+     *
+     * @param points the local vertices of the Entity's shape, as alternating X and Y values.
+     * @param x      the X coordinate for the Entity's initial position.
+     * @param y      the Y coordinate for the Entity's initial position.
+     * @see          EntityShape
+     */
+    public Entity(double[] points, double x, double y) {
+        this(new EntityShape(points), x, y);
+    }
+
+    /**
+     * Creates a new Entity at the specified X and Y coordinates, using a shape that may be shared with other entities.
+     *
+     * @param shape the Entity's shape.
+     * @param x     the X coordinate for the Entity's initial position.
+     * @param y     the Y coordinate for the Entity's initial position.
+     */
+    public Entity(EntityShape shape, double x, double y) {
+        setShape(shape);
+
+        this.x = x;
+        this.y = y;
+        scale = 1.0;
+        velScale = 1.0;
+    }
+
+    /**
+     * Returns the local vertices of the Entity's shape, centered around the origin.
+     * <p>
+     * The returned array is shared and must not be modified.
+     *
+     * @return the vertices as alternating X and Y values.
+     */
+    public double[] getPoints() {
+        return shape.getPoints();
+    }
+
+    /**
+     * Returns the shape of the Entity, which may be shared with other entities.
+     *
+     * @return the Entity's {@link EntityShape}.
+     */
+    public EntityShape getShape() {
+        return shape;
+    }
+
+    /**
+     * Changes the shape of the Entity. This is used when reusing entities whose shape is picked at random.
+     * <p>
+     * The arrays for the world space vertices are only created again if the new shape has a different number of
+     * vertices, so switching between shapes of the same kind doesn't allocate.
+     *
+     * @param shape the Entity's new shape.
+     */
+    protected final void setShape(EntityShape shape) {
+        if (worldPoints == null || worldPoints.length != shape.getPoints().length) {
+            worldPoints = new double[shape.getPoints().length];
+        }
+        if (shape.isConvex()) {
+            worldHull = worldPoints;
+        } else if (worldHull == null || worldHull == worldPoints || worldHull.length != shape.getHull().length) {
+            worldHull = new double[shape.getHull().length];
+        }
+        this.shape = shape;
+
+        // The cached vertices belong to the old shape
+        worldX = Double.NaN;
+        if (table != null) {
+            table.radius[slot] = getBoundingRadius();
+        }
+    }
+
+    /**
+     * Returns the style class used when drawing this Entity.
+     *
+     * @return the name of a style class from the game stylesheet.
+     */
+    public abstract String getStyleClass();
+
+    /**
+     * Returns the X coordinate of the Entity.
+     *
+     * @return the X coordinate of the center of the Entity.
+     */
+    public double getX() {
+        return table == null ? x : table.x[slot];
+    }
+
+    /**
+     * Returns the Y coordinate of the Entity.
+     *
+     * @return the Y coordinate of the center of the Entity.
+     */
+    public double getY() {
+        return table == null ? y : table.y[slot];
+    }
+
+    /**
+     * Moves the Entity to the specified coordinates.
+     *
+     * @param x the new X coordinate.
+     * @param y the new Y coordinate.
+     */
+    public void setPosition(double x, double y) {
+        if (table == null) {
+            this.x = x;
+            this.y = y;
+        } else {
+            table.x[slot] = x;
+            table.y[slot] = y;
+        }
+    }
+
+    /**
+     * Returns the rotation of the Entity.
+     *
+     * @return the rotation in degrees, clockwise.
+     */
+    public double getRotation() {
+        return table == null ? rotation : table.rotation[slot];
+    }
+
+    /**
+     * Sets the rotation of the Entity.
+     *
+     * @param rotation the rotation in degrees, clockwise.
+     */
+    public void setRotation(double rotation) {
+        if (table == null) {
+            this.rotation = rotation;
+        } else {
+            table.rotation[slot] = rotation;
+        }
+    }
+
+    /**
+     * Returns how fast the Entity spins on its own.
+     *
+     * @return the angular velocity in degrees per second, clockwise.
+     */
+    public double getAngularVelocity() {
+        return table == null ? angularVel : table.angularVel[slot];
+    }
 
     /**
-     * Creates a new Entity at the specified X and Y coordinates.
+     * Sets how fast the Entity spins on its own.
      *
-     * @param polygon the {@link Polygon} that will visually represent the class.
-     * @param x       the X coordinate for the Entity's initial position.
-     * @param y       the Y coordinate for the Entity's initial position.
+     * @param angularVel the angular velocity in degrees per second, clockwise.
      */
-    public Entity(Polygon polygon, double x, double y) {
-        CHARACTER = polygon;
-        CHARACTER.setTranslateX(x);
-        CHARACTER.setTranslateY(y);
-        
-        movement = new Point2D(0, 0);
+    public void setAngularVelocity(double angularVel) {
+        if (table == null) {
+            this.angularVel = angularVel;
+        } else {
+            table.angularVel[slot] = angularVel;
+        }
+    }
 
-        velScale = new SimpleDoubleProperty(1.0);
+    /**
+     * Returns the size multiplier of the Entity.
+     *
+     * @return the current scale.
+     */
+    public double getScale() {
+        return scale;
     }
 
     /**
-     * Returns a visual representation of the Entity that can be shown on the screen.
+     * Sets the size multiplier of the Entity.
      *
-     * @return a {@link Polygon} representing the Entity visually.
+     * @param scale the new scale.
      */
-    public Polygon getCharacter() {
-        return CHARACTER;
+    public void setScale(double scale) {
+        this.scale = scale;
+
+        // The table keeps the bounding radius for wrapping entities around the screen
+        if (table != null) {
+            table.radius[slot] = getBoundingRadius();
+        }
     }
 
     /**
-     * Rotates the Entity by 5 degrees counterclockwise.
+     * Returns the distance from the center of the Entity to its farthest vertex, taking its scale into account.
+     *
+     * @return the radius of the Entity's bounding circle.
      */
-    public void turnLeft() {
-        CHARACTER.setRotate(CHARACTER.getRotate() - 5);
+    public double getBoundingRadius() {
+        return shape.getBoundingRadius() * scale;
     }
 
     /**
-     * Rotates the Entity by 5 degrees clockwise.
+     * Rotates the Entity counterclockwise at 300 degrees per second.
+     *
+     * @param dt the time the Entity spends turning, in seconds.
      */
-    public void turnRight() {
-        CHARACTER.setRotate(CHARACTER.getRotate() + 5);
+    public void turnLeft(double dt) {
+        setRotation(getRotation() - TURN_SPEED * dt);
     }
 
     /**
-     * Moves the Entity forwards.
+     * Rotates the Entity clockwise at 300 degrees per second.
+     *
+     * @param dt the time the Entity spends turning, in seconds.
+     */
+    public void turnRight(double dt) {
+        setRotation(getRotation() + TURN_SPEED * dt);
+    }
+
+    /**
+     * Moves the Entity forwards, and rotates it by its angular velocity.
      * <p>
      * In case moving the Entity places it outside the screen bounds, it will be teleported to the
      * other side of the screen, maintaining its current direction and velocity.
+     * <p>
+     * Entities in an {@link ArchetypeTable} are normally moved all at once by the table instead.
      *
-     * @param scrWidth the width of the screen in pixels
+     * @param dt        the time the Entity spends moving, in seconds.
+     * @param scrWidth  the width of the screen in pixels
      * @param scrHeight the height of the screen in pixels
      */
-    public void move(double scrWidth, double scrHeight) {
-        CHARACTER.setTranslateX(CHARACTER.getTranslateX() + movement.getX());
-        CHARACTER.setTranslateY(CHARACTER.getTranslateY() + movement.getY());
+    public void move(double dt, double scrWidth, double scrHeight) {
+        double velX = getVelocityX();
+        double velY = getVelocityY();
+        double x = getX() + velX * dt;
+        double y = getY() + velY * dt;
+        setRotation(getRotation() + getAngularVelocity() * dt);
 
-        /* This code checks if the entity is outside the screen bounds. If it is, the entity is moved into the screen
-           on the opposite side. However, the entity is only moved if it is moving in the direction of the bound it has
+        /* This code checks if the entity is outside the screen bounds. If it is, the entity is moved to just outside
+           the opposite side. However, the entity is only moved if it is moving in the direction of the bound it has
            left (i.e. if it's outside the left side of the screen, the entity must also be moving towards the left to be
            teleported). This is done because when the entity is moved, it is actually slightly outside the screen, and so
            would be teleported again and again, from one side to the other, if there wasn't also a check for direction. */
-        if (CHARACTER.getBoundsInParent().getMaxX() < 0 && movement.getX() < 0) {
-            CHARACTER.setTranslateX(CHARACTER.getLayoutBounds().getMaxX() + scrWidth);
+        double radius = getBoundingRadius();
+
+        if (x + radius < 0 && velX < 0) {
+            x = scrWidth + radius;
         }
-        
-        if (CHARACTER.getBoundsInParent().getMinX() > scrWidth && movement.getX() > 0) {
-            CHARACTER.setTranslateX(CHARACTER.getLayoutBounds().getMinX() % scrWidth);
+
+        if (x - radius > scrWidth && velX > 0) {
+            x = -radius;
         }
 
-        if (CHARACTER.getBoundsInParent().getMaxY() < 0 && movement.getY() < 0) {
-            CHARACTER.setTranslateY(CHARACTER.getLayoutBounds().getMaxY() + scrHeight);
+        if (y + radius < 0 && velY < 0) {
+            y = scrHeight + radius;
         }
 
-        if (CHARACTER.getBoundsInParent().getMinY() > scrHeight && movement.getY() > 0) {
-            CHARACTER.setTranslateY(CHARACTER.getLayoutBounds().getMinY() % scrHeight);
+        if (y - radius > scrHeight && velY > 0) {
+            y = -radius;
         }
+
+        setPosition(x, y);
     }
 
     /**
-     * Returns the current X and Y velocity of the Entity.
+     * Returns the current X velocity of the Entity.
      *
-     * @return the Entity's X and Y velocity as a {@link Point2D} .
+     * @return the velocity along the X axis, in pixels per second.
      */
-    public Point2D getMovement() {
-        return movement;
+    public double getVelocityX() {
+        return table == null ? velX : table.velX[slot];
+    }
+
+    /**
+     * Returns the current Y velocity of the Entity.
+     *
+     * @return the velocity along the Y axis, in pixels per second.
+     */
+    public double getVelocityY() {
+        return table == null ? velY : table.velY[slot];
     }
 
     /**
      * Sets the X and Y velocity of the Entity.
      *
-     * @param movement a {@link Point2D} representing the X and Y velocity.
+     * @param velX the velocity along the X axis, in pixels per second.
+     * @param velY the velocity along the Y axis, in pixels per second.
      */
-    public void setMovement(Point2D movement) {
-        this.movement = movement;
+    public void setVelocity(double velX, double velY) {
+        if (table == null) {
+            this.velX = velX;
+            this.velY = velY;
+        } else {
+            table.velX[slot] = velX;
+            table.velY[slot] = velY;
+        }
     }
 
     /**
      * Accelerates the Entity in the direction it is facing.
+     *
+     * @param dt the time the Entity spends accelerating, in seconds.
      */
-    public void accelerate() {
+    public void accelerate(double dt) {
         // Convert angle from degree to radians, to be used with Math.sin() and Math.cos()
-        double angleInRadians = Math.toRadians(CHARACTER.getRotate());
+        double angleInRadians = Math.toRadians(getRotation());
 
         // Calculate the change in X and Y velocity using the cosine and sine of the angles
         double dx = Math.cos(angleInRadians);
         double dy = Math.sin(angleInRadians);
 
-        // Lower dx and dy to 6% of the original value
-        dx *= 0.06 * velScale.get();
-        dy *= 0.06 * velScale.get();
+        // Scale the change by how long the Entity has been accelerating for
+        dx *= ACCELERATION * velScale * dt;
+        dy *= ACCELERATION * velScale * dt;
 
         // Apply change in velocity
-        movement = movement.add(dx, dy);
+        setVelocity(getVelocityX() + dx, getVelocityY() + dy);
     }
 
     /**
@@ -132,27 +364,154 @@ public abstract class Entity {
      *
      * @return a {@code double} representing the current velocity scale.
      */
-    public DoubleProperty getVelocityScale() {
+    public double getVelocityScale() {
         return velScale;
     }
 
     /**
      * Sets this entity's velocity multiplier.
      *
-     * @param scale a {@link DoubleProperty} value for the multiplier.
+     * @param scale the new value for the multiplier.
      */
-    public void setVelScale(DoubleProperty scale) {
+    public void setVelocityScale(double scale) {
         this.velScale = scale;
     }
 
+    /**
+     * Returns the vertices of the Entity's shape in screen coordinates, after applying its scale, rotation and
+     * position.
+     * <p>
+     * The vertices are cached and only recalculated after the Entity is moved, rotated or scaled, so calling this
+     * repeatedly during the same frame is cheap. The returned array is shared and must not be modified.
+     *
+     * @return the vertices as alternating X and Y values.
+     */
+    public double[] getWorldPoints() {
+        updateWorldPoints();
+        return worldPoints;
+    }
+
+    /**
+     * Returns the vertices of the convex hull of the Entity's shape in screen coordinates, cached the same way as
+     * {@link #getWorldPoints()}. For convex entities, this is the same array.
+     *
+     * @return the hull vertices as alternating X and Y values.
+     */
+    public double[] getWorldHull() {
+        updateWorldPoints();
+        return worldHull;
+    }
+
+    /**
+     * Returns whether the Entity's shape is convex.
+     *
+     * @return {@code true} if the shape is convex, {@code false} otherwise.
+     */
+    public boolean isConvex() {
+        return shape.isConvex();
+    }
+
     /**
      * Returns whether this Entity has collided with the specified Entity.
+     * <p>
+     * The bounding circles of both entities are compared first, so the exact test on their vertices only runs for
+     * entities that are close to each other.
      *
      * @param other the Entity to check for a collision with.
      * @return      {@code true} if the entities have collided, {@code false} otherwise.
      */
     public boolean collide(Entity other) {
-        Shape collisionArea = Shape.intersect(CHARACTER, other.getCharacter());
-        return collisionArea.getBoundsInLocal().getWidth() != -1;
+        if (!Collisions.circlesOverlap(getX(), getY(), getBoundingRadius(), other.getX(), other.getY(), other.getBoundingRadius())) {
+            return false;
+        }
+
+        if (isConvex() && other.isConvex()) {
+            return Collisions.convexPolygonsIntersect(getWorldPoints(), other.getWorldPoints());
+        }
+
+        // The hulls contain the shapes, so if the hulls don't touch, neither can the shapes
+        if (!Collisions.convexPolygonsIntersect(getWorldHull(), other.getWorldHull())) {
+            return false;
+        }
+        return Collisions.polygonsIntersect(getWorldPoints(), other.getWorldPoints());
+    }
+
+    /**
+     * Puts the Entity back in the state it was in right after being created, at the specified coordinates. This is
+     * used when reusing entities from an {@link EntityPool}.
+     * <p>
+     * The position is set, while velocity, rotation and angular velocity are set to 0, and both scales to 1. The
+     * Entity's shape doesn't change.
+     *
+     * @param x the X coordinate for the Entity's new position.
+     * @param y the Y coordinate for the Entity's new position.
+     * @throws IllegalStateException if the Entity is in an {@link ArchetypeTable}.
+     */
+    public void reset(double x, double y) {
+        if (table != null) {
+            throw new IllegalStateException("Entities can't be reset while in a table.");
+        }
+
+        this.x = x;
+        this.y = y;
+        velX = 0;
+        velY = 0;
+        rotation = 0;
+        angularVel = 0;
+        scale = 1.0;
+        velScale = 1.0;
+    }
+
+    /**
+     * Recalculates the cached world space vertices, if the Entity was moved, rotated or scaled since the last time.
+     */
+    private void updateWorldPoints() {
+        double x = getX();
+        double y = getY();
+        double rotation = getRotation();
+
+        /* Compare against the transform used last time, instead of keeping a flag, since a table may move the entity
+           without going through its methods. */
+        if (x == worldX && y == worldY && rotation == worldRotation && scale == worldScale) {
+            return;
+        }
+
+        double angleInRadians = Math.toRadians(rotation);
+        double cos = Math.cos(angleInRadians) * scale;
+        double sin = Math.sin(angleInRadians) * scale;
+
+        transform(shape.getPoints(), worldPoints, x, y, cos, sin);
+        if (worldHull != worldPoints) {
+            transform(shape.getHull(), worldHull, x, y, cos, sin);
+        }
+
+        worldX = x;
+        worldY = y;
+        worldRotation = rotation;
+        worldScale = scale;
+    }
+
+    /**
+     * Rotates, scales and moves local vertices into screen coordinates.
+     */
+    private static void transform(double[] local, double[] world, double x, double y, double cos, double sin) {
+        for (int i = 0; i < local.length; i += 2) {
+            world[i] = x + local[i] * cos - local[i + 1] * sin;
+            world[i + 1] = y + local[i] * sin + local[i + 1] * cos;
+        }
+    }
+
+    /**
+     * Copies the entity's state out of its table before it's removed from it, so it keeps its last position.
+     */
+    void leaveTable() {
+        x = table.x[slot];
+        y = table.y[slot];
+        velX = table.velX[slot];
+        velY = table.velY[slot];
+        rotation = table.rotation[slot];
+        angularVel = table.angularVel[slot];
+        table = null;
+        slot = -1;
     }
 }
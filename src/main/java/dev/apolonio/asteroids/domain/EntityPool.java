@@ -0,0 +1,160 @@
+package dev.apolonio.asteroids.domain;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps a bounded number of unused {@link Entity Entities} around, so they can be reused instead of creating new ones.
+ * <p>
+ * Entities like projectiles and asteroids are created and thrown away constantly during a game, and all that garbage
+ * makes the garbage collector run more often, which can cause visible stutters. A pool is filled up front, and
+ * entities are given back to it once they're no longer used, so during normal play nothing needs to be allocated.
+ * <p>
+ * If the pool is empty when an entity is needed, a new one is created and counted as a miss. If it's full when an
+ * entity is given back, that entity is simply dropped and counted as well, so the pool never grows past its capacity.
+ * Giving back an entity that was already given back is logged and ignored, so it can't be handed out twice.
+ *
+ * @param <T> the type of the entities in the pool.
+ */
+public class EntityPool<T extends Entity> {
+    private final Supplier<? extends T> FACTORY;
+    private final Entity[] FREE;
+    private int freeCount;
+
+    private int inUse;
+    private long acquires;
+    private long misses;
+    private long drops;
+
+    /**
+     * Creates a new pool, filling it with some entities.
+     *
+     * @param capacity the maximum number of unused entities kept in the pool.
+     * @param prewarm  the number of entities created right away.
+     * @param factory  creates new entities when the pool is empty.
+     */
+    public EntityPool(int capacity, int prewarm, Supplier<? extends T> factory) {
+        if (capacity < 1 || prewarm < 0 || prewarm > capacity) {
+            throw new IllegalArgumentException("Capacity must be greater than 0, and prewarm between 0 and capacity.");
+        }
+
+        FACTORY = factory;
+        FREE = new Entity[capacity];
+        for (int i = 0; i < prewarm; i++) {
+            T entity = factory.get();
+            entity.pooled = true;
+            FREE[freeCount++] = entity;
+        }
+    }
+
+    /**
+     * Takes an unused {@link Entity} from the pool, or creates a new one if there are none left.
+     * <p>
+     * The Entity keeps whatever state it had when it was given back, so it should be reset before being used.
+     *
+     * @return an Entity that isn't being used anywhere else.
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        acquires++;
+        inUse++;
+
+        if (freeCount == 0) {
+            misses++;
+            return FACTORY.get();
+        }
+
+        T entity = (T) FREE[--freeCount];
+        FREE[freeCount] = null;
+        entity.pooled = false;
+        return entity;
+    }
+
+    /**
+     * Gives an {@link Entity} back to the pool once it's no longer used.
+     *
+     * @param entity the Entity to give back.
+     * @throws IllegalStateException if the Entity is still in an {@link ArchetypeTable}.
+     */
+    public void release(T entity) {
+        if (entity.table != null) {
+            throw new IllegalStateException("Entities must be removed from their table before being released.");
+        }
+
+        if (entity.pooled) {
+            System.err.println("[DEBUG] Released an entity that was already given back: " + entity.getStyleClass()
+                    + ", " + this);
+            return;
+        }
+
+        entity.pooled = true;
+        inUse--;
+        if (freeCount == FREE.length) {
+            drops++;
+            return;
+        }
+        FREE[freeCount++] = entity;
+    }
+
+    /**
+     * Returns the maximum number of unused entities kept in the pool.
+     *
+     * @return the capacity of the pool.
+     */
+    public int getCapacity() {
+        return FREE.length;
+    }
+
+    /**
+     * Returns the number of unused entities currently in the pool.
+     *
+     * @return the number of entities ready to be acquired.
+     */
+    public int getAvailable() {
+        return freeCount;
+    }
+
+    /**
+     * Returns the number of entities acquired from the pool that haven't been given back yet.
+     *
+     * @return the number of entities in use.
+     */
+    public int getInUse() {
+        return inUse;
+    }
+
+    /**
+     * Returns the total number of entities acquired from the pool.
+     *
+     * @return the number of calls to {@link #acquire()}.
+     */
+    public long getAcquires() {
+        return acquires;
+    }
+
+    /**
+     * Returns the number of times the pool was empty and a new entity had to be created.
+     *
+     * @return the number of misses.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of entities dropped because the pool was already full when they were given back.
+     *
+     * @return the number of dropped entities.
+     */
+    public long getDrops() {
+        return drops;
+    }
+
+    @Override
+    public String toString() {
+        return "available " + freeCount + "/" + FREE.length
+                + ", in use " + inUse
+                + ", acquires " + acquires
+                + ", misses " + misses
+                + ", drops " + drops;
+    }
+}
@@ -0,0 +1,98 @@
+package dev.apolonio.asteroids.domain;
+
+import dev.apolonio.asteroids.collision.Collisions;
+
+/**
+ * The shape of an {@link Entity}, along with the values derived from it that collision tests need.
+ * <p>
+ * The vertices are recentered around the center of their bounding box, which is also the point entities rotate and
+ * scale around. This matches how JavaFX transforms nodes, so entities look the same as when they were drawn as plain
+ * polygons.
+ * <p>
+ * Shapes never change once created, so the same one can be shared by any number of entities, and everything about it
+ * only has to be calculated once.
+ */
+public final class EntityShape {
+    private final double[] POINTS;
+    private final double[] HULL;
+    private final double RADIUS;
+    private final boolean CONVEX;
+
+    /**
+     * Creates a new shape from the specified vertices. The array is copied, so it can be reused afterwards.
+     *
+     * @param points the vertices of the shape, as alternating X and Y values.
+     */
+    public EntityShape(double[] points) {
+        if (points.length < 6 || points.length % 2 != 0) {
+            throw new IllegalArgumentException("A shape needs at least 3 vertices.");
+        }
+
+        // Find the center of the bounding box
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < points.length; i += 2) {
+            minX = Math.min(minX, points[i]);
+            maxX = Math.max(maxX, points[i]);
+            minY = Math.min(minY, points[i + 1]);
+            maxY = Math.max(maxY, points[i + 1]);
+        }
+        double centerX = (minX + maxX) / 2;
+        double centerY = (minY + maxY) / 2;
+
+        // Move the vertices so the center sits at the origin, keeping track of the farthest one
+        POINTS = new double[points.length];
+        double radius = 0;
+        for (int i = 0; i < points.length; i += 2) {
+            POINTS[i] = points[i] - centerX;
+            POINTS[i + 1] = points[i + 1] - centerY;
+            radius = Math.max(radius, Math.hypot(POINTS[i], POINTS[i + 1]));
+        }
+        RADIUS = radius;
+        CONVEX = Collisions.isConvex(POINTS);
+
+        // A convex shape is its own hull
+        HULL = CONVEX ? POINTS : Collisions.convexHull(POINTS);
+    }
+
+    /**
+     * Returns the vertices of the shape, centered around the origin.
+     * <p>
+     * The returned array is shared and must not be modified.
+     *
+     * @return the vertices as alternating X and Y values.
+     */
+    public double[] getPoints() {
+        return POINTS;
+    }
+
+    /**
+     * Returns the vertices of the convex hull of the shape, centered around the same origin as the shape. For convex
+     * shapes, this is the same array returned by {@link #getPoints()}.
+     * <p>
+     * The returned array is shared and must not be modified.
+     *
+     * @return the hull vertices as alternating X and Y values.
+     */
+    public double[] getHull() {
+        return HULL;
+    }
+
+    /**
+     * Returns the distance from the center of the shape to its farthest vertex.
+     *
+     * @return the radius of the shape's bounding circle, before scaling.
+     */
+    public double getBoundingRadius() {
+        return RADIUS;
+    }
+
+    /**
+     * Returns whether the shape is convex.
+     *
+     * @return {@code true} if the shape is convex, {@code false} otherwise.
+     */
+    public boolean isConvex() {
+        return CONVEX;
+    }
+}
@@ -0,0 +1,162 @@
+package dev.apolonio.asteroids.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the {@link ArchetypeTable ArchetypeTables} for the entities that move every frame, along with the
+ * {@link EntityPool EntityPools} they're taken from.
+ * <p>
+ * Asteroids and projectiles are the only entities that exist in large numbers, so they're the ones kept in tables.
+ * The ship is a single entity, and stars never move, so neither gets one.
+ * <p>
+ * Asteroids of different levels have different shapes, so each level has its own pool. Asteroids taken from a pool are
+ * randomized again by whoever takes them, so which asteroids were reused never changes how a game plays out.
+ */
+public class EntityStore {
+
+    // Pool sizes, enough for a busy game with spread shot enabled
+    private static final int PROJECTILE_POOL_SIZE = 16;
+    private static final int ASTEROID_POOL_SIZE = 64;
+    private static final int ASTEROID_POOL_PREWARM = 16;
+
+    private final ArchetypeTable<Asteroid> ASTEROIDS = new ArchetypeTable<>(64, Asteroid::getLevel);
+    private final ArchetypeTable<Projectile> PROJECTILES = new ArchetypeTable<>(16, p -> 0);
+
+    private final EntityPool<Projectile> PROJECTILE_POOL;
+    private final List<EntityPool<Asteroid>> ASTEROID_POOLS = new ArrayList<>();
+
+    /**
+     * Creates a new empty store, and fills its pools.
+     */
+    public EntityStore() {
+        PROJECTILE_POOL = new EntityPool<>(PROJECTILE_POOL_SIZE, PROJECTILE_POOL_SIZE, () -> new Projectile(0, 0));
+        for (int level = 1; level <= Asteroid.MAX_LEVEL; level++) {
+            int poolLevel = level;
+            ASTEROID_POOLS.add(new EntityPool<>(ASTEROID_POOL_SIZE, ASTEROID_POOL_PREWARM, () -> new Asteroid(poolLevel)));
+        }
+    }
+
+    /**
+     * Returns the table of {@link Asteroid Asteroids}.
+     *
+     * @return the asteroid table.
+     */
+    public ArchetypeTable<Asteroid> getAsteroids() {
+        return ASTEROIDS;
+    }
+
+    /**
+     * Returns the table of {@link Projectile Projectiles}.
+     *
+     * @return the projectile table.
+     */
+    public ArchetypeTable<Projectile> getProjectiles() {
+        return PROJECTILES;
+    }
+
+    /**
+     * Takes a {@link Projectile} from the pool, reset to the specified coordinates. It isn't added to the projectile
+     * table, so it can be set up first.
+     *
+     * @param x the X coordinate for the projectile's position.
+     * @param y the Y coordinate for the projectile's position.
+     * @return  a Projectile that isn't used anywhere else.
+     */
+    public Projectile acquireProjectile(double x, double y) {
+        Projectile projectile = PROJECTILE_POOL.acquire();
+        projectile.reset(x, y);
+        return projectile;
+    }
+
+    /**
+     * Takes an {@link Asteroid} of the specified level from the pool, reset to the specified coordinates. It isn't added
+     * to the asteroid table, so it can be set up first, usually by giving it a shape and movement with
+     * {@link Asteroid#randomize(java.util.random.RandomGenerator, java.util.random.RandomGenerator)}.
+     *
+     * @param x     the X coordinate for the asteroid's position.
+     * @param y     the Y coordinate for the asteroid's position.
+     * @param level the level of the asteroid, from 1 to {@link Asteroid#MAX_LEVEL}.
+     * @return      an Asteroid that isn't used anywhere else.
+     */
+    public Asteroid acquireAsteroid(double x, double y, int level) {
+        Asteroid asteroid = getAsteroidPool(level).acquire();
+        asteroid.reset(x, y);
+        return asteroid;
+    }
+
+    /**
+     * Gives a {@link Projectile} back to its pool. It must have been removed from the projectile table already.
+     *
+     * @param projectile the Projectile to give back.
+     */
+    public void releaseProjectile(Projectile projectile) {
+        PROJECTILE_POOL.release(projectile);
+    }
+
+    /**
+     * Gives an {@link Asteroid} back to the pool for its level. It must have been removed from the asteroid table
+     * already.
+     *
+     * @param asteroid the Asteroid to give back.
+     */
+    public void releaseAsteroid(Asteroid asteroid) {
+        getAsteroidPool(asteroid.getLevel()).release(asteroid);
+    }
+
+    /**
+     * Returns the pool {@link Projectile Projectiles} are taken from.
+     *
+     * @return the projectile pool.
+     */
+    public EntityPool<Projectile> getProjectilePool() {
+        return PROJECTILE_POOL;
+    }
+
+    /**
+     * Returns the pool {@link Asteroid Asteroids} of the specified level are taken from.
+     *
+     * @param level an asteroid level, from 1 to {@link Asteroid#MAX_LEVEL}.
+     * @return      the asteroid pool for that level.
+     */
+    public EntityPool<Asteroid> getAsteroidPool(int level) {
+        if (level < 1 || level > ASTEROID_POOLS.size()) {
+            throw new IllegalArgumentException("Asteroid level must be between 1 and " + ASTEROID_POOLS.size() + ".");
+        }
+        return ASTEROID_POOLS.get(level - 1);
+    }
+
+    /**
+     * Moves every entity in the store. Asteroids wrap around the edges of the screen, while projectiles keep going.
+     *
+     * @param dt        the time the entities spend moving, in seconds.
+     * @param scrWidth  the width of the screen in pixels.
+     * @param scrHeight the height of the screen in pixels.
+     */
+    public void move(double dt, double scrWidth, double scrHeight) {
+        ASTEROIDS.move(dt);
+        ASTEROIDS.wrap(scrWidth, scrHeight);
+        PROJECTILES.move(dt);
+    }
+
+    /**
+     * Removes every entity from the store, giving them back to their pools.
+     */
+    public void clear() {
+        ASTEROIDS.clear(this::releaseAsteroid);
+        PROJECTILES.clear(this::releaseProjectile);
+    }
+
+    /**
+     * Returns a summary of the occupancy and miss counters of every pool, for debugging.
+     *
+     * @return a line for each pool.
+     */
+    public String getPoolStats() {
+        StringBuilder sb = new StringBuilder("Projectiles: ").append(PROJECTILE_POOL);
+        for (int i = 0; i < ASTEROID_POOLS.size(); i++) {
+            sb.append(System.lineSeparator()).append("L").append(i + 1).append(" asteroids: ").append(ASTEROID_POOLS.get(i));
+        }
+        return sb.toString();
+    }
+}
@@ -1,7 +1,5 @@
 package dev.apolonio.asteroids.domain;
 
-import javafx.scene.shape.Polygon;
-
 /**
  * Represents a projectile that can move in a straight line.
  * <p>
@@ -18,19 +16,23 @@ public class Projectile extends Entity {
      */
     public Projectile(double x, double y) {
         // Creates a rectangle to represent the class
-        super(new Polygon(10, -4,
+        super(new double[] {10, -4,
                 10, 4,
                 -10, 4,
-                -10, -4), x, y);
+                -10, -4}, x, y);
+    }
 
-        getCharacter().getStyleClass().add("ship-bullet");
+    @Override
+    public String getStyleClass() {
+        return "ship-bullet";
     }
 
     /**
      * Moves the projectile in a straight line.
+     *
+     * @param dt the time the projectile spends moving, in seconds.
      */
-    public void move() {
-        getCharacter().setTranslateX(getCharacter().getTranslateX() + getMovement().getX());
-        getCharacter().setTranslateY(getCharacter().getTranslateY() + getMovement().getY());
+    public void move(double dt) {
+        setPosition(getX() + getVelocityX() * dt, getY() + getVelocityY() * dt);
     }
 }
@@ -1,18 +1,23 @@
 package dev.apolonio.asteroids.domain;
 
-import javafx.scene.shape.Circle;
-import javafx.scene.shape.Polygon;
-import javafx.scene.shape.Shape;
+import dev.apolonio.asteroids.collision.Collisions;
 
 /**
  * Represents the spaceship controlled by the player.
  * <p>
- * The spaceship can move in the screen, and has a safe zone around it where asteroids can't spawn.
+ * The spaceship can move in the screen, and has a safe zone around it where asteroids can't spawn. The safe zone is a
+ * circle centered on the ship.
  */
 public class Ship extends Entity {
 
-    // This circle moves with the ship and is used to define the area in which asteroids can't spawn.
-    private final Circle SAFE_ZONE;
+    // How fast the ship turns, in degrees per second
+    private static final double TURN_SPEED = 270;
+
+    // How fast the ship speeds up when accelerating, in pixels per second squared
+    private static final double ACCELERATION = 252;
+
+    // Radius of the area around the ship in which asteroids can't spawn.
+    private double safeZoneRadius;
 
     /**
      * Creates a new ship at given coordinates.
@@ -23,73 +28,72 @@ public class Ship extends Entity {
      */
     public Ship(double x, double y, double zoneRadius) {
         // Creates a triangle to represent the ship
-        super(new Polygon(-10, -11,
+        super(new double[] {-10, -11,
                 -5, 0,
                 -10, 11,
-                20, 0), x, y);
+                20, 0}, x, y);
 
-        // Creates the circle for the safe zone
-        SAFE_ZONE = new Circle(zoneRadius);
-        SAFE_ZONE.setCenterX(getCharacter().getTranslateX());
-        SAFE_ZONE.setCenterY(getCharacter().getTranslateY());
-        SAFE_ZONE.setVisible(false); // Safe zone is invisible during normal gameplay
+        safeZoneRadius = zoneRadius;
+    }
 
-        SAFE_ZONE.getStyleClass().add("ship-zone");
-        getCharacter().getStyleClass().add("ship");
+    @Override
+    public String getStyleClass() {
+        return "ship";
     }
 
     /**
-     * Rotates the ship counterclockwise by 4.5 degrees
+     * Rotates the ship counterclockwise at 270 degrees per second.
+     *
+     * @param dt the time the ship spends turning, in seconds.
      */
     @Override
-    public void turnLeft() {
-        getCharacter().setRotate(getCharacter().getRotate() - 4.5);
+    public void turnLeft(double dt) {
+        setRotation(getRotation() - TURN_SPEED * dt);
     }
 
     /**
-     * Rotates the ship clockwise by 4.5 degrees
+     * Rotates the ship clockwise at 270 degrees per second.
+     *
+     * @param dt the time the ship spends turning, in seconds.
      */
     @Override
-    public void turnRight() {
-        getCharacter().setRotate(getCharacter().getRotate() + 4.5);
+    public void turnRight(double dt) {
+        setRotation(getRotation() + TURN_SPEED * dt);
     }
 
     /**
      * Accelerates the ship in the direction it is facing.
+     *
+     * @param dt the time the ship spends accelerating, in seconds.
      */
     @Override
-    public void accelerate() {
+    public void accelerate(double dt) {
 
-        double changeX = Math.cos(Math.toRadians(getCharacter().getRotate()));
-        double changeY = Math.sin(Math.toRadians(getCharacter().getRotate()));
+        double changeX = Math.cos(Math.toRadians(getRotation()));
+        double changeY = Math.sin(Math.toRadians(getRotation()));
 
-        changeX *= 0.07 * getVelocityScale().get();
-        changeY *= 0.07 * getVelocityScale().get();
+        changeX *= ACCELERATION * getVelocityScale() * dt;
+        changeY *= ACCELERATION * getVelocityScale() * dt;
 
-        setMovement(getMovement().add(changeX, changeY));
+        setVelocity(getVelocityX() + changeX, getVelocityY() + changeY);
     }
 
     /**
-     * Moves the ship and its safe zone, teleporting both to the other side of the screen if they move outside it.
+     * Returns the radius of the ship's safe zone.
      *
-     * @param scrWidth the width of the screen in pixels
-     * @param scrHeight the height of the screen in pixels
+     * @return the radius of the safe zone in pixels.
      */
-    @Override
-    public void move(double scrWidth, double scrHeight) {
-        super.move(scrWidth, scrHeight);
-
-        SAFE_ZONE.setCenterX(getCharacter().getTranslateX() + getMovement().getX());
-        SAFE_ZONE.setCenterY(getCharacter().getTranslateY() + getMovement().getY());
+    public double getSafeZoneRadius() {
+        return safeZoneRadius;
     }
 
     /**
-     * Returns a {@link Circle} representing the ship's safe zone.
+     * Sets the radius of the ship's safe zone.
      *
-     * @return the Circle representing the ship's safe zone.
+     * @param radius the new radius in pixels.
      */
-    public Circle getSafeZone() {
-        return SAFE_ZONE;
+    public void setSafeZoneRadius(double radius) {
+        safeZoneRadius = radius;
     }
 
     /**
@@ -99,7 +103,9 @@ public class Ship extends Entity {
      * @return      {@code true} if the entity and the safe zone intersect, {@code false} otherwise.
      */
     public boolean inSafeZone(Entity other) {
-        Shape collisionArea = Shape.intersect(SAFE_ZONE, other.getCharacter());
-        return collisionArea.getBoundsInLocal().getWidth() != -1;
+        if (!Collisions.circlesOverlap(getX(), getY(), safeZoneRadius, other.getX(), other.getY(), other.getBoundingRadius())) {
+            return false;
+        }
+        return Collisions.circleIntersectsPolygon(getX(), getY(), safeZoneRadius, other.getWorldPoints());
     }
 }
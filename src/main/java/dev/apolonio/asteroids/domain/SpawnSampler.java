@@ -0,0 +1,93 @@
+package dev.apolonio.asteroids.domain;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Picks random spawn positions on the screen that are never inside a circular exclusion zone, like the ship's safe
+ * zone.
+ * <p>
+ * Instead of creating an entity at a random position and throwing it away if it lands too close, positions are picked
+ * directly from the area outside the zone. The zone's radius should include the bounding radius of whatever is being
+ * spawned, so a position being accepted means the entity can't touch the zone either.
+ * <p>
+ * The screen is treated as a torus, the same way entities wrap around its edges, so a zone near one side of the screen
+ * also keeps entities from spawning near the opposite side. A position is picked in two steps: first a column, skipping
+ * the columns the zone covers entirely, and then a row, skipping the rows the zone covers in that column. This always
+ * takes a single try, although columns crossing the zone end up with slightly more spawns per pixel than the others.
+ * <p>
+ * Picked coordinates are kept in the sampler instead of being returned as an object, so sampling doesn't allocate.
+ */
+public class SpawnSampler {
+    private final RandomGenerator RAND;
+
+    private double x;
+    private double y;
+
+    /**
+     * Creates a new sampler.
+     *
+     * @param rand the random generator used to pick positions.
+     */
+    public SpawnSampler(RandomGenerator rand) {
+        RAND = rand;
+    }
+
+    /**
+     * Picks a random position on the screen outside the specified zone. If it succeeds, the position can be read
+     * with {@link #getX()} and {@link #getY()}.
+     *
+     * @param width   the width of the screen in pixels.
+     * @param height  the height of the screen in pixels.
+     * @param zoneX   the X coordinate of the center of the zone.
+     * @param zoneY   the Y coordinate of the center of the zone.
+     * @param radius  the radius of the zone, plus the radius of the entity being spawned.
+     * @return        {@code true} if a position was picked, {@code false} if the zone covers the whole screen.
+     */
+    public boolean sample(double width, double height, double zoneX, double zoneY, double radius) {
+        // Columns closer to the zone's center than this are covered from top to bottom
+        double blockedHalfWidth = radius * 2 > height ? Math.sqrt(radius * radius - height * height / 4) : 0;
+        double freeWidth = width - 2 * blockedHalfWidth;
+        if (freeWidth <= 0) {
+            return false;
+        }
+
+        // Pick a column, starting just right of the blocked ones and wrapping around
+        x = wrap(zoneX + blockedHalfWidth + RAND.nextDouble() * freeWidth, width);
+
+        // Find how much of the column the zone covers, using the shortest horizontal distance around the torus
+        double dx = Math.abs(x - zoneX) % width;
+        dx = Math.min(dx, width - dx);
+        double blockedHalfHeight = dx < radius ? Math.sqrt(radius * radius - dx * dx) : 0;
+
+        // Pick a row outside the covered part, the same way
+        double freeHeight = Math.max(0, height - 2 * blockedHalfHeight);
+        y = wrap(zoneY + blockedHalfHeight + RAND.nextDouble() * freeHeight, height);
+        return true;
+    }
+
+    /**
+     * Returns the X coordinate of the last position picked.
+     *
+     * @return the X coordinate in pixels.
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Returns the Y coordinate of the last position picked.
+     *
+     * @return the Y coordinate in pixels.
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Wraps a coordinate to be between 0 (inclusive) and the specified size (exclusive).
+     */
+    private static double wrap(double coord, double size) {
+        double wrapped = coord % size;
+        return wrapped < 0 ? wrapped + size : wrapped;
+    }
+}
@@ -2,7 +2,7 @@ package dev.apolonio.asteroids.domain;
 
 import dev.apolonio.asteroids.PolygonFactory;
 
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents a star in the game.
@@ -14,16 +14,18 @@ public class Star extends Entity {
     /**
      * Creates a new Star at position X, Y.
      *
-     * @param x the X coordinate for the Star.
-     * @param y the Y coordinate for the Star.
+     * @param x    the X coordinate for the Star.
+     * @param y    the Y coordinate for the Star.
+     * @param rand the generator used for the Star's size and rotation.
      */
-    public Star(double x, double y) {
-        super(new PolygonFactory().createStar(), x, y);
+    public Star(double x, double y, RandomGenerator rand) {
+        super(new PolygonFactory().createStar(rand), x, y);
 
-        Random rand = new Random();
-
-        getCharacter().setRotate(rand.nextInt(360));
+        setRotation(rand.nextInt(360));
+    }
 
-        getCharacter().getStyleClass().add("star");
+    @Override
+    public String getStyleClass() {
+        return "star";
     }
 }
@@ -0,0 +1,328 @@
+package dev.apolonio.asteroids.replay;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A recorded game: everything needed to play it again exactly as it happened, and hashes to check that it did.
+ * <p>
+ * Games are deterministic given their seed, the screen size, the shape library and the input on every step, so that's
+ * all a replay holds. The input of each step is a small set of flags (see
+ * {@link dev.apolonio.asteroids.GameWorld GameWorld}), and the same keys are usually held for many steps in a row, so
+ * inputs are stored as runs of a value and how many steps it lasted. Every {@code hashInterval} steps the world's state
+ * hash is stored too.
+ * <p>
+ * Files start with a header holding a magic number, the format version, the seed, the screen size, the tick rate, the
+ * number of asteroid shape variants and the hash interval. After it come the number of runs, each run as one byte of
+ * input flags followed by its length as a variable-length integer, and finally the number of hashes followed by the
+ * hashes.
+ */
+public class Replay {
+
+    // "ASTR" in ASCII, so replay files can be told apart from anything else
+    private static final int MAGIC = 0x41535452;
+
+    // Largest number of runs or hashes accepted when reading, so a corrupt file can't ask for a huge array
+    private static final int MAX_COUNT = 1 << 24;
+
+    /**
+     * The version of the file format, increased whenever the format or the simulation changes in a way that would make
+     * older replays play out differently.
+     */
+    public static final short VERSION = 3;
+
+    // Version 1 didn't store the shape variants, those replays could only be played with the default library
+    private static final short VERSION_WITHOUT_VARIANTS = 1;
+    private static final int DEFAULT_SHAPE_VARIANTS = 8;
+
+    /* Versions 1 and 2 stored the resolution scale entities were sized by. The world is always the same height now, so
+       entities are never scaled, and only those replays recorded at a scale of 1 still play out the same way. */
+    private static final short LAST_VERSION_WITH_RES_SCALE = 2;
+
+    private final long SEED;
+    private final double WIDTH;
+    private final double HEIGHT;
+    private final int TICK_RATE;
+    private final int SHAPE_VARIANTS;
+    private final int HASH_INTERVAL;
+    private final byte[] RUN_INPUTS;
+    private final int[] RUN_LENGTHS;
+    private final long[] HASHES;
+
+    /**
+     * Creates a replay from recorded data. The arrays are copied.
+     *
+     * @param seed         the seed the game was started with.
+     * @param width        the width of the screen in pixels.
+     * @param height       the height of the screen in pixels.
+     * @param tickRate      the number of simulation steps per second.
+     * @param shapeVariants the number of asteroid shapes per level in the shape library the game was played with.
+     * @param hashInterval  the number of steps between hashes.
+     * @param runInputs    the input flags of each run.
+     * @param runLengths   the number of steps in each run.
+     * @param runCount     the number of runs used from the run arrays.
+     * @param hashes       the world hashes, one every {@code hashInterval} steps.
+     * @param hashCount    the number of hashes used from the hash array.
+     */
+    public Replay(long seed, double width, double height, int tickRate, int shapeVariants,
+                  int hashInterval, byte[] runInputs, int[] runLengths, int runCount, long[] hashes, int hashCount) {
+        if (tickRate < 1 || shapeVariants < 1 || hashInterval < 1) {
+            throw new IllegalArgumentException("Tick rate, shape variants and hash interval must be greater than 0.");
+        }
+
+        SEED = seed;
+        WIDTH = width;
+        HEIGHT = height;
+        TICK_RATE = tickRate;
+        SHAPE_VARIANTS = shapeVariants;
+        HASH_INTERVAL = hashInterval;
+        RUN_INPUTS = Arrays.copyOf(runInputs, runCount);
+        RUN_LENGTHS = Arrays.copyOf(runLengths, runCount);
+        HASHES = Arrays.copyOf(hashes, hashCount);
+    }
+
+    /**
+     * Reads a replay from a file.
+     *
+     * @param path the file to read.
+     * @return     the replay in the file.
+     * @throws IOException if the file can't be read, isn't a replay, or was written by a different version.
+     */
+    public static Replay read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a replay file: " + path);
+            }
+            short version = in.readShort();
+            if (version < VERSION_WITHOUT_VARIANTS || version > VERSION) {
+                throw new IOException("Unsupported replay version " + version + ", expected " + VERSION);
+            }
+
+            long seed = in.readLong();
+            double width = in.readDouble();
+            double height = in.readDouble();
+            if (version <= LAST_VERSION_WITH_RES_SCALE) {
+                double resScale = in.readDouble();
+                if (resScale != 1) {
+                    throw new IOException("Replay was recorded at resolution scale " + resScale
+                            + ", which this version can't play back");
+                }
+            }
+            int tickRate = in.readInt();
+            int shapeVariants = version == VERSION_WITHOUT_VARIANTS ? DEFAULT_SHAPE_VARIANTS : in.readInt();
+            int hashInterval = in.readInt();
+
+            int runCount = readCount(in);
+            byte[] runInputs = new byte[runCount];
+            int[] runLengths = new int[runCount];
+            for (int i = 0; i < runCount; i++) {
+                runInputs[i] = in.readByte();
+                runLengths[i] = readVarInt(in);
+            }
+
+            int hashCount = readCount(in);
+            long[] hashes = new long[hashCount];
+            for (int i = 0; i < hashCount; i++) {
+                hashes[i] = in.readLong();
+            }
+
+            try {
+                return new Replay(seed, width, height, tickRate, shapeVariants, hashInterval,
+                        runInputs, runLengths, runCount, hashes, hashCount);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid replay header: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes the replay to a file, replacing it if it already exists.
+     *
+     * @param path the file to write.
+     * @throws IOException if the file can't be written.
+     */
+    public void write(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(SEED);
+            out.writeDouble(WIDTH);
+            out.writeDouble(HEIGHT);
+            out.writeInt(TICK_RATE);
+            out.writeInt(SHAPE_VARIANTS);
+            out.writeInt(HASH_INTERVAL);
+
+            out.writeInt(RUN_INPUTS.length);
+            for (int i = 0; i < RUN_INPUTS.length; i++) {
+                out.writeByte(RUN_INPUTS[i]);
+                writeVarInt(out, RUN_LENGTHS[i]);
+            }
+
+            out.writeInt(HASHES.length);
+            for (long hash : HASHES) {
+                out.writeLong(hash);
+            }
+        }
+    }
+
+    /**
+     * Returns the seed the game was started with.
+     *
+     * @return the seed.
+     */
+    public long getSeed() {
+        return SEED;
+    }
+
+    /**
+     * Returns the width of the screen the game was played on.
+     *
+     * @return the width in pixels.
+     */
+    public double getWidth() {
+        return WIDTH;
+    }
+
+    /**
+     * Returns the height of the screen the game was played on.
+     *
+     * @return the height in pixels.
+     */
+    public double getHeight() {
+        return HEIGHT;
+    }
+
+    /**
+     * Returns the number of simulation steps per second the game ran at. Replays only play out the same way at the
+     * same tick rate.
+     *
+     * @return the tick rate.
+     */
+    public int getTickRate() {
+        return TICK_RATE;
+    }
+
+    /**
+     * Returns the number of asteroid shapes per level in the shape library the game was played with. Replays only play
+     * out the same way with the same number of variants.
+     *
+     * @return the number of shape variants.
+     */
+    public int getShapeVariants() {
+        return SHAPE_VARIANTS;
+    }
+
+    /**
+     * Returns the number of steps between recorded hashes.
+     *
+     * @return the hash interval.
+     */
+    public int getHashInterval() {
+        return HASH_INTERVAL;
+    }
+
+    /**
+     * Returns the number of input runs.
+     *
+     * @return the run count.
+     */
+    public int getRunCount() {
+        return RUN_INPUTS.length;
+    }
+
+    /**
+     * Returns the input flags held during a run.
+     *
+     * @param run the index of the run.
+     * @return    the input flags.
+     */
+    public int getRunInput(int run) {
+        return RUN_INPUTS[run] & 0xFF;
+    }
+
+    /**
+     * Returns the number of steps a run lasted.
+     *
+     * @param run the index of the run.
+     * @return    the number of steps.
+     */
+    public int getRunLength(int run) {
+        return RUN_LENGTHS[run];
+    }
+
+    /**
+     * Returns the number of hashes recorded.
+     *
+     * @return the hash count.
+     */
+    public int getHashCount() {
+        return HASHES.length;
+    }
+
+    /**
+     * Returns a recorded world hash.
+     *
+     * @param index the index of the hash, the hash at index {@code i} was taken after step
+     *              {@code (i + 1) * hashInterval}.
+     * @return      the hash.
+     */
+    public long getHash(int index) {
+        return HASHES[index];
+    }
+
+    /**
+     * Returns the total number of steps recorded.
+     *
+     * @return the step count.
+     */
+    public long getTickCount() {
+        long ticks = 0;
+        for (int length : RUN_LENGTHS) {
+            ticks += length;
+        }
+        return ticks;
+    }
+
+    /**
+     * Reads a count for an array, making sure a corrupt file can't ask for a negative or huge one.
+     */
+    private static int readCount(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > MAX_COUNT) {
+            throw new IOException("Corrupt replay file");
+        }
+        return count;
+    }
+
+    /**
+     * Writes a non-negative int using 7 bits per byte, with the high bit set on every byte but the last.
+     */
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads an int written by {@link #writeVarInt(DataOutputStream, int)}.
+     */
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt replay file");
+    }
+}
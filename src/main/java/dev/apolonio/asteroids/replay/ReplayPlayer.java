@@ -0,0 +1,146 @@
+package dev.apolonio.asteroids.replay;
+
+import dev.apolonio.asteroids.GameWorld;
+import dev.apolonio.asteroids.PolygonFactory;
+
+/**
+ * Plays a {@link Replay} back one step at a time, giving the recorded input for each step instead of the keyboard's,
+ * and checking that the world ends up in the same state it was in when the game was recorded.
+ * <p>
+ * The world must be started with the replay's seed and screen size, see {@link #start(GameWorld)}, and run at the same
+ * tick rate, with the same shape library. After each step, the world's hash is compared with the recorded one whenever
+ * one was taken, and the first step where they differ is remembered.
+ */
+public class ReplayPlayer {
+    private final Replay REPLAY;
+    private final long TOTAL_TICKS;
+
+    // Current run, and how many of its steps were played
+    private int run;
+    private int runPosition;
+
+    private long tickCount;
+    private int hashesChecked;
+    private long desyncTick = -1;
+
+    /**
+     * Creates a player for a replay.
+     *
+     * @param replay the {@link Replay} to play.
+     * @throws IllegalArgumentException if the replay was recorded with a different number of asteroid shape
+     *                                  variants, since the shape library can't be changed once the game is running.
+     */
+    public ReplayPlayer(Replay replay) {
+        if (replay.getShapeVariants() != PolygonFactory.getShapeVariants()) {
+            throw new IllegalArgumentException("Replay was recorded with " + replay.getShapeVariants() + " shape variants,"
+                    + " run with -Dasteroids.shapeVariants=" + replay.getShapeVariants() + " to play it");
+        }
+        REPLAY = replay;
+        TOTAL_TICKS = replay.getTickCount();
+    }
+
+    /**
+     * Starts a world the same way the recorded game was started, and rewinds the replay.
+     *
+     * @param world the {@link GameWorld} to play the replay on.
+     */
+    public void start(GameWorld world) {
+        world.start(REPLAY.getWidth(), REPLAY.getHeight(), REPLAY.getSeed());
+        run = 0;
+        runPosition = 0;
+        tickCount = 0;
+        hashesChecked = 0;
+        desyncTick = -1;
+    }
+
+    /**
+     * Returns the input for the next step. Once the replay is over, no keys are held.
+     *
+     * @return the input flags for the step.
+     */
+    public int nextInput() {
+        while (run < REPLAY.getRunCount() && runPosition >= REPLAY.getRunLength(run)) {
+            run++;
+            runPosition = 0;
+        }
+        if (run >= REPLAY.getRunCount()) {
+            return 0;
+        }
+        runPosition++;
+        return REPLAY.getRunInput(run);
+    }
+
+    /**
+     * Checks the world against the replay after a step. This must be called right after every
+     * {@link GameWorld#tick(double, int)}.
+     *
+     * @param world the world the replay is being played on.
+     * @return      {@code false} if a hash was taken on this step and it doesn't match the recorded one, {@code true}
+     *              otherwise.
+     */
+    public boolean check(GameWorld world) {
+        tickCount++;
+        if (tickCount % REPLAY.getHashInterval() != 0) {
+            return true;
+        }
+
+        int index = (int) (tickCount / REPLAY.getHashInterval()) - 1;
+        if (index >= REPLAY.getHashCount()) {
+            return true;
+        }
+
+        hashesChecked++;
+        if (world.getStateHash() != REPLAY.getHash(index)) {
+            if (desyncTick < 0) {
+                desyncTick = tickCount;
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether every recorded step has been played.
+     *
+     * @return {@code true} if the replay is over, {@code false} otherwise.
+     */
+    public boolean isFinished() {
+        return tickCount >= TOTAL_TICKS;
+    }
+
+    /**
+     * Returns the number of steps played so far.
+     *
+     * @return the step count.
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Returns the number of hashes compared so far.
+     *
+     * @return the number of hashes checked.
+     */
+    public int getHashesChecked() {
+        return hashesChecked;
+    }
+
+    /**
+     * Returns the first step where the world didn't match the replay.
+     *
+     * @return the step number, counting from 1, or -1 if every hash matched so far.
+     */
+    public long getDesyncTick() {
+        return desyncTick;
+    }
+
+    /**
+     * Returns the replay being played.
+     *
+     * @return the {@link Replay}.
+     */
+    public Replay getReplay() {
+        return REPLAY;
+    }
+}
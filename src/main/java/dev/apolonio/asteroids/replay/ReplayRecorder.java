@@ -0,0 +1,98 @@
+package dev.apolonio.asteroids.replay;
+
+import dev.apolonio.asteroids.GameWorld;
+import dev.apolonio.asteroids.PolygonFactory;
+
+import java.util.Arrays;
+
+/**
+ * Records the input of a game one step at a time, so it can be saved as a {@link Replay}.
+ * <p>
+ * Consecutive steps with the same input are merged into a single run as they're recorded, and a hash of the world is
+ * taken every few steps. Recording only writes to arrays, which grow rarely since most games only have a few hundred
+ * runs, so it doesn't add any noticeable work to a step.
+ */
+public class ReplayRecorder {
+
+    /**
+     * The default number of steps between world hashes, 1 second at the default tick rate.
+     */
+    public static final int DEFAULT_HASH_INTERVAL = 60;
+
+    private final long SEED;
+    private final double WIDTH;
+    private final double HEIGHT;
+    private final int TICK_RATE;
+    private final int HASH_INTERVAL;
+
+    private byte[] runInputs = new byte[256];
+    private int[] runLengths = new int[256];
+    private int runCount;
+
+    private long[] hashes = new long[256];
+    private int hashCount;
+
+    private long tickCount;
+
+    /**
+     * Creates a recorder for a game that was just started.
+     *
+     * @param world        the world, already started with {@link GameWorld#start(double, double, long)}.
+     * @param tickRate     the number of simulation steps per second.
+     * @param hashInterval the number of steps between world hashes.
+     */
+    public ReplayRecorder(GameWorld world, int tickRate, int hashInterval) {
+        SEED = world.getSeed();
+        WIDTH = world.getWidth();
+        HEIGHT = world.getHeight();
+        TICK_RATE = tickRate;
+        HASH_INTERVAL = hashInterval;
+    }
+
+    /**
+     * Records a step. This must be called right after every {@link GameWorld#tick(double, int)}, with the same input.
+     *
+     * @param input the input flags given to the step.
+     * @param world the world, used for taking a hash every {@code hashInterval} steps.
+     */
+    public void record(int input, GameWorld world) {
+        if (runCount > 0 && runInputs[runCount - 1] == (byte) input && runLengths[runCount - 1] < Integer.MAX_VALUE) {
+            runLengths[runCount - 1]++;
+        } else {
+            if (runCount == runInputs.length) {
+                runInputs = Arrays.copyOf(runInputs, runCount * 2);
+                runLengths = Arrays.copyOf(runLengths, runCount * 2);
+            }
+            runInputs[runCount] = (byte) input;
+            runLengths[runCount] = 1;
+            runCount++;
+        }
+
+        tickCount++;
+        if (tickCount % HASH_INTERVAL == 0) {
+            if (hashCount == hashes.length) {
+                hashes = Arrays.copyOf(hashes, hashCount * 2);
+            }
+            hashes[hashCount++] = world.getStateHash();
+        }
+    }
+
+    /**
+     * Returns the number of steps recorded so far.
+     *
+     * @return the step count.
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Creates a {@link Replay} with everything recorded so far.
+     *
+     * @return the recorded replay.
+     */
+    public Replay toReplay() {
+        return new Replay(SEED, WIDTH, HEIGHT, TICK_RATE, PolygonFactory.getShapeVariants(), HASH_INTERVAL,
+                runInputs, runLengths, runCount, hashes, hashCount);
+    }
+}
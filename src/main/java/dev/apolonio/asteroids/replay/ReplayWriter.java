@@ -0,0 +1,111 @@
+package dev.apolonio.asteroids.replay;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Saves {@link Replay Replays} to files on a background thread, so the game doesn't wait for the disk when a game
+ * ends.
+ * <p>
+ * Replays can't change once created, so they're simply handed to the writer thread. Files are named
+ * {@code replay_<n>.rpl}, numbered after the highest one in the folder, which is only looked up once, before the first
+ * replay is written.
+ */
+public class ReplayWriter {
+    private static final Pattern FILE_NAME = Pattern.compile("replay_(\\d+)\\.rpl");
+
+    private final Path FOLDER;
+    private final ExecutorService WRITER;
+
+    // Number of the next replay, -1 until the folder is looked up. Only used by the writer thread.
+    private int nextNumber = -1;
+
+    /**
+     * Creates a writer that saves replays to the specified folder.
+     *
+     * @param folder the folder to save replays to, created when the first one is saved.
+     */
+    public ReplayWriter(Path folder) {
+        FOLDER = folder;
+        WRITER = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "Replay writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Saves a replay in the background.
+     *
+     * @param replay the {@link Replay} to save.
+     * @return       {@code true} if the replay will be saved, {@code false} if the writer is closed.
+     */
+    public boolean save(Replay replay) {
+        try {
+            WRITER.execute(() -> write(replay));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Waits up to a few seconds for the pending replays to be written, then stops the writer thread.
+     */
+    public void close() {
+        WRITER.shutdown();
+        try {
+            if (!WRITER.awaitTermination(5, TimeUnit.SECONDS)) {
+                System.err.println("[DEBUG] Timed out saving replays");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes a replay to the next file.
+     */
+    private void write(Replay replay) {
+        try {
+            Files.createDirectories(FOLDER);
+            if (nextNumber < 0) {
+                nextNumber = findNextNumber();
+            }
+
+            Path file = FOLDER.resolve("replay_" + nextNumber++ + ".rpl");
+            replay.write(file);
+            System.out.println("[DEBUG] Replay saved: " + file.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("[DEBUG] Failed to save replay: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the number after the highest one used by a replay in the folder.
+     */
+    private int findNextNumber() throws IOException {
+        int highest = -1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(FOLDER, "replay_*.rpl")) {
+            for (Path file : files) {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    try {
+                        highest = Math.max(highest, Integer.parseInt(matcher.group(1)));
+                    } catch (NumberFormatException e) {
+                        // Too big to be one of ours
+                    }
+                }
+            }
+        }
+        return highest + 1;
+    }
+}
@@ -0,0 +1,119 @@
+package dev.apolonio.asteroids.score;
+
+import dev.apolonio.asteroids.domain.Score;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The best scores, up to a fixed number of them, in order from highest to lowest.
+ * <p>
+ * Scores are kept in a sorted array as big as the leaderboard. Adding one finds its rank with a binary search, then
+ * moves the lower scores down one place, dropping the last one if the leaderboard is full. Scores that are too low to
+ * make it are rejected by a single comparison with the last one. A score that ties with others goes below them, since
+ * they got there first.
+ * <p>
+ * This class isn't thread safe.
+ */
+public class Leaderboard {
+    private final Score[] SCORES;
+    private int size;
+
+    /**
+     * Creates an empty leaderboard.
+     *
+     * @param capacity the number of scores kept.
+     * @throws IllegalArgumentException if the capacity isn't positive.
+     */
+    public Leaderboard(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be greater than 0.");
+        }
+        SCORES = new Score[capacity];
+    }
+
+    /**
+     * Returns the rank a score with the specified number of points would get.
+     *
+     * @param points the number of points.
+     * @return       the rank, counting from 0, or -1 if the score wouldn't make it to the leaderboard.
+     */
+    public int rankOf(int points) {
+        // Scores equal to the last one don't make it either, so this also keeps full leaderboards to one comparison
+        if (size == SCORES.length && points <= SCORES[size - 1].playerPoints()) {
+            return -1;
+        }
+
+        // First rank with fewer points
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (SCORES[mid].playerPoints() >= points) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Adds a score, if it's high enough.
+     *
+     * @param score the {@link Score} to add.
+     * @return      the rank the score got, counting from 0, or -1 if it didn't make it to the leaderboard.
+     */
+    public int add(Score score) {
+        int rank = rankOf(score.playerPoints());
+        if (rank < 0) {
+            return -1;
+        }
+
+        // Move the lower scores down, the last one falls off if the leaderboard is full
+        int moved = Math.min(size, SCORES.length - 1) - rank;
+        System.arraycopy(SCORES, rank, SCORES, rank + 1, moved);
+        SCORES[rank] = score;
+        size = Math.min(size + 1, SCORES.length);
+        return rank;
+    }
+
+    /**
+     * Returns the score at a rank.
+     *
+     * @param rank the rank, counting from 0.
+     * @return     the {@link Score}.
+     * @throws IndexOutOfBoundsException if there's no score with that rank.
+     */
+    public Score get(int rank) {
+        return SCORES[Objects.checkIndex(rank, size)];
+    }
+
+    /**
+     * Returns the number of scores in the leaderboard.
+     *
+     * @return the number of scores.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the most scores the leaderboard can hold.
+     *
+     * @return the capacity.
+     */
+    public int getCapacity() {
+        return SCORES.length;
+    }
+
+    /**
+     * Returns a copy of the leaderboard as an unmodifiable list.
+     *
+     * @return the scores, highest first.
+     */
+    public List<Score> toList() {
+        return List.of(Arrays.copyOf(SCORES, size));
+    }
+}
@@ -0,0 +1,365 @@
+package dev.apolonio.asteroids.score;
+
+import dev.apolonio.asteroids.domain.Score;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps the leaderboard, and saves it in a way that survives the game crashing or being killed at any point.
+ * <p>
+ * The scores are kept in a {@link Leaderboard}, and published as an immutable, sorted list, which is replaced whenever
+ * a score is added, so it can be read from any thread without locking, see {@link #getScores()}. Adding a score never
+ * touches the disk on the thread that adds it: the score is handed to a background thread, which appends it to a
+ * journal and flushes it to the disk before moving on.
+ * <p>
+ * Every few scores, and when the store is closed, the journal is compacted: the whole leaderboard is written to a
+ * temporary file, flushed, and renamed over {@code scores.csv} in a single step, so that file is always either the old
+ * leaderboard or the new one, never half of each. The journal is only emptied after that, once the folder has been
+ * flushed too, since the rename isn't on the disk until then. Where folders can't be flushed, the journal is kept.
+ * <p>
+ * The first line of {@code scores.csv} has the same format as always, scores separated by commas, so older versions of
+ * the game can still read it. The second line holds the number of the last journal entry included in the file, so
+ * entries aren't added twice if the game stops between writing the file and emptying the journal. Journal entries hold
+ * their number, the score, and a checksum, so an entry that was only partly written when the game stopped is ignored.
+ */
+public class ScoreStore {
+
+    /**
+     * The default number of scores kept.
+     */
+    public static final int DEFAULT_CAPACITY = 10;
+
+    // Number of journal entries written before the journal is compacted
+    private static final int COMPACT_INTERVAL = 16;
+
+    private static final String SNAPSHOT_FILE = "scores.csv";
+    private static final String JOURNAL_FILE = "scores.journal";
+    private static final String JOURNAL_PREFIX = "journal:";
+
+    private final Path FOLDER;
+    private final Path SNAPSHOT;
+    private final Path JOURNAL;
+    private final ExecutorService WRITER;
+
+    // Only used while holding this store's lock
+    private final Leaderboard LEADERBOARD;
+    private long lastEntry;
+
+    // Copy of the leaderboard, never modified once published
+    private volatile List<Score> scores = List.of();
+
+    // Only used by the writer thread
+    private FileChannel journalChannel;
+    private int uncompactedEntries;
+    private boolean folderSyncFailed;
+
+    /**
+     * Creates a store for scores saved in the specified folder. Nothing is read until {@link #load()} is called.
+     *
+     * @param folder   the folder where the score files are kept, created when the first score is saved.
+     * @param capacity the number of scores kept, lower scores are dropped.
+     */
+    public ScoreStore(Path folder, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be greater than 0.");
+        }
+
+        FOLDER = folder;
+        SNAPSHOT = folder.resolve(SNAPSHOT_FILE);
+        JOURNAL = folder.resolve(JOURNAL_FILE);
+        LEADERBOARD = new Leaderboard(capacity);
+        WRITER = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "Score writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Reads the saved leaderboard and any journal entries that weren't compacted yet. This does disk I/O, so it should
+     * be called from a background thread. Entries that can't be read are skipped.
+     *
+     * @throws IOException if the score file exists but can't be read.
+     */
+    public void load() throws IOException {
+        List<Score> loaded = new ArrayList<>();
+        long snapshotEntry = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(SNAPSHOT, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line != null) {
+                for (String pair : line.split(",")) {
+                    Score score = parseScore(pair);
+                    if (score != null) {
+                        loaded.add(score);
+                    }
+                }
+            }
+
+            String journalLine = reader.readLine();
+            if (journalLine != null && journalLine.startsWith(JOURNAL_PREFIX)) {
+                snapshotEntry = Long.parseLong(journalLine.substring(JOURNAL_PREFIX.length()).strip());
+            }
+            System.out.println("[DEBUG] Loaded scores: " + SNAPSHOT.toAbsolutePath());
+        } catch (NoSuchFileException e) {
+            System.out.println("[DEBUG] Score file doesn't exist: " + SNAPSHOT.toAbsolutePath());
+        } catch (NumberFormatException e) {
+            System.err.println("[DEBUG] Invalid journal position in score file: " + e.getMessage());
+        }
+
+        // Replay the entries written after the score file
+        long last = snapshotEntry;
+        int replayed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(JOURNAL, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                long entry = parseEntryNumber(line);
+                if (entry > snapshotEntry) {
+                    Score score = parseScore(line.substring(line.indexOf(',') + 1, line.lastIndexOf(',')));
+                    if (score != null) {
+                        loaded.add(score);
+                        last = Math.max(last, entry);
+                        replayed++;
+                    }
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // No scores were added since the last compaction
+        }
+        if (replayed > 0) {
+            System.out.println("[DEBUG] Recovered " + replayed + " scores from the journal");
+        }
+
+        synchronized (this) {
+            for (Score score : loaded) {
+                LEADERBOARD.add(score);
+            }
+            scores = LEADERBOARD.toList();
+            lastEntry = Math.max(lastEntry, last);
+        }
+    }
+
+    /**
+     * Returns the leaderboard. The list can't be modified, and won't change after it's returned, so it's safe to keep
+     * and to read from any thread.
+     *
+     * @return the scores, highest first.
+     */
+    public List<Score> getScores() {
+        return scores;
+    }
+
+    /**
+     * Adds a score to the leaderboard and saves it in the background. The leaderboard is updated right away, and the
+     * score is on the disk shortly after. Scores too low for the leaderboard are ignored.
+     *
+     * @param score the {@link Score} to add.
+     * @return      the rank the score got, counting from 0, or -1 if it didn't make it to the leaderboard.
+     */
+    public int submit(Score score) {
+        long entry;
+        int rank;
+        List<Score> snapshot;
+        synchronized (this) {
+            rank = LEADERBOARD.add(score);
+            if (rank < 0) {
+                return -1;
+            }
+            snapshot = LEADERBOARD.toList();
+            scores = snapshot;
+            entry = ++lastEntry;
+        }
+        if (WRITER.isShutdown()) {
+            return rank;
+        }
+
+        WRITER.execute(() -> {
+            try {
+                appendEntry(entry, score);
+                if (++uncompactedEntries >= COMPACT_INTERVAL) {
+                    compact(snapshot, entry);
+                }
+            } catch (IOException e) {
+                System.err.println("[DEBUG] Failed to save score: " + e.getMessage());
+            }
+        });
+        return rank;
+    }
+
+    /**
+     * Compacts the journal and waits for everything to be written, for up to a second. Scores added after this aren't
+     * saved.
+     */
+    public void close() {
+        List<Score> snapshot;
+        long entry;
+        synchronized (this) {
+            snapshot = scores;
+            entry = lastEntry;
+        }
+
+        WRITER.execute(() -> {
+            try {
+                if (uncompactedEntries > 0) {
+                    compact(snapshot, entry);
+                }
+                if (journalChannel != null) {
+                    journalChannel.close();
+                }
+            } catch (IOException e) {
+                System.err.println("[DEBUG] Failed to save scores: " + e.getMessage());
+            }
+        });
+        WRITER.shutdown();
+
+        try {
+            if (!WRITER.awaitTermination(1, TimeUnit.SECONDS)) {
+                System.err.println("[DEBUG] Timed out saving scores");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Appends an entry to the journal and waits for it to reach the disk.
+     */
+    private void appendEntry(long entry, Score score) throws IOException {
+        if (journalChannel == null) {
+            Files.createDirectories(FOLDER);
+            journalChannel = FileChannel.open(JOURNAL, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            long size = journalChannel.size();
+            journalChannel.position(size);
+
+            // End an entry left incomplete by a crash, so it doesn't run into the next one
+            ByteBuffer lastByte = ByteBuffer.allocate(1);
+            if (size > 0 && journalChannel.read(lastByte, size - 1) == 1 && lastByte.get(0) != '\n') {
+                journalChannel.write(ByteBuffer.wrap(new byte[] {'\n'}));
+            }
+        }
+
+        String payload = entry + "," + score;
+        String line = payload + "," + Long.toHexString(checksum(payload)) + "\n";
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            journalChannel.write(buffer);
+        }
+        journalChannel.force(false);
+    }
+
+    /**
+     * Replaces the score file with the specified leaderboard, then empties the journal.
+     *
+     * @param snapshot  the leaderboard to save.
+     * @param lastEntry the number of the last journal entry included in the leaderboard.
+     */
+    private void compact(List<Score> snapshot, long lastEntry) throws IOException {
+        Files.createDirectories(FOLDER);
+
+        StringBuilder contents = new StringBuilder();
+        for (Score s : snapshot) {
+            contents.append(s.toString()).append(",");
+        }
+        contents.append("\n").append(JOURNAL_PREFIX).append(lastEntry).append("\n");
+
+        Path temp = FOLDER.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(contents.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, SNAPSHOT, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        // The score file now has every entry, so the journal can start over once the rename is sure to survive a crash.
+        // Otherwise it's kept, the entries already in the score file are skipped when it's read.
+        if (journalChannel != null && syncFolder()) {
+            journalChannel.truncate(0);
+            journalChannel.force(true);
+        }
+        uncompactedEntries = 0;
+        System.out.println("[DEBUG] Saved scores: " + SNAPSHOT.toAbsolutePath());
+    }
+
+    /**
+     * Flushes the folder to the disk, so files renamed in it stay renamed after a crash. Not every platform can open a
+     * folder to flush it, if this one can't the failure is only logged once.
+     *
+     * @return {@code true} if the folder was flushed, {@code false} otherwise.
+     */
+    private boolean syncFolder() {
+        try (FileChannel folder = FileChannel.open(FOLDER, StandardOpenOption.READ)) {
+            folder.force(true);
+            return true;
+        } catch (IOException e) {
+            if (!folderSyncFailed) {
+                folderSyncFailed = true;
+                System.err.println("[DEBUG] Can't flush the score folder, keeping the journal: " + e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Returns the number of a journal entry, or -1 if the entry is incomplete or its checksum doesn't match.
+     */
+    private static long parseEntryNumber(String line) {
+        int first = line.indexOf(',');
+        int last = line.lastIndexOf(',');
+        if (first < 0 || last <= first) {
+            return -1;
+        }
+
+        try {
+            String payload = line.substring(0, last);
+            if (Long.parseLong(line.substring(last + 1), 16) != checksum(payload)) {
+                return -1;
+            }
+            return Long.parseLong(line.substring(0, first));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Parses a score written as {@code name:points}, or returns {@code null} if it's not valid.
+     */
+    private static Score parseScore(String text) {
+        int colon = text.lastIndexOf(':');
+        if (colon < 0) {
+            return null;
+        }
+        try {
+            return new Score(text.substring(0, colon), Integer.parseInt(text.substring(colon + 1).strip()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the CRC-32 of a journal entry's text.
+     */
+    private static long checksum(String text) {
+        CRC32 crc = new CRC32();
+        crc.update(text.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}